@@ -7,6 +7,7 @@ import java.lang.annotation.Target;
 
 /**
  * Annotation to measure and report test execution time.
+ * Enforced by {@link com.framework.listeners.PerformanceTestInterceptor}.
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
@@ -18,7 +19,7 @@ public @interface PerformanceTest {
     long maxDurationMs() default 30000;
 
     /**
-     * Whether to fail the test if duration exceeds max.
+     * Whether to fail the test if the p50 or p95 duration exceeds max.
      */
     boolean failOnExceed() default false;
 
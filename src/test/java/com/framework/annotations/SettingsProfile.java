@@ -0,0 +1,49 @@
+package com.framework.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Map;
+
+/**
+ * Annotation for page objects that need UiAutomator2 settings other than the session's, applied
+ * while the page is the current one.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface SettingsProfile {
+
+    /**
+     * Profile for the page.
+     */
+    Profile value();
+
+    /**
+     * Extra settings on top of the profile, as "name=value" (e.g. "snapshotMaxDepth=30").
+     */
+    String[] overrides() default {};
+
+    enum Profile {
+        /** Session settings unchanged. */
+        DEFAULT(Map.of()),
+        /** Long or constantly updating lists: no idle wait and a compacted, shallower hierarchy. */
+        FAST_LIST(Map.of("waitForIdleTimeout", 0, "ignoreUnimportantViews", true, "snapshotMaxDepth", 50)),
+        /** Screens that never go idle while animating (splash, loaders, carousels). */
+        ANIMATED_SPLASH(Map.of("waitForIdleTimeout", 0, "allowInvisibleElements", false)),
+        /** System dialogs, popups and keyboards shown in their own windows. */
+        MULTI_WINDOW(Map.of("enableMultiWindows", true)),
+        /** WebView or Compose screens nested deeper than the default snapshot depth. */
+        DEEP_HIERARCHY(Map.of("snapshotMaxDepth", 120, "ignoreUnimportantViews", false));
+
+        private final Map<String, Object> settings;
+
+        Profile(Map<String, Object> settings) {
+            this.settings = settings;
+        }
+
+        public Map<String, Object> settings() {
+            return settings;
+        }
+    }
+}
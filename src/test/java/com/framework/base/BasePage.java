@@ -1,10 +1,18 @@
 package com.framework.base;
 
+import com.framework.annotations.SettingsProfile;
 import com.framework.config.Config;
 import com.framework.reporting.PerformanceMetrics;
+import com.framework.reporting.SpanTracer;
+import com.framework.reporting.jfr.PageActionEvent;
+import com.framework.reporting.jfr.TestEvent;
 import com.framework.utils.AdvancedGestureUtils;
+import com.framework.utils.AppiumSettings;
 import com.framework.utils.ElementUtils;
+import com.framework.utils.FrameStatsCollector;
+import com.framework.utils.InterruptionHandlers;
 import com.framework.utils.ScreenshotUtils;
+import com.framework.utils.VisualBaselineManager;
 import com.framework.utils.WaitUtils;
 import io.appium.java_client.AppiumBy;
 import io.appium.java_client.AppiumDriver;
@@ -20,6 +28,7 @@ import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.FluentWait;
 
 import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -41,6 +50,7 @@ public abstract class BasePage {
         this.driver = driver;
         this.pageName = getClass().getSimpleName();
         initPageFactory();
+        AppiumSettings.enterPage(pageName, getClass().getAnnotation(SettingsProfile.class));
         log.debug("Initialized page: {}", pageName);
     }
 
@@ -63,10 +73,10 @@ public abstract class BasePage {
      * Waits for page to be fully loaded. Override in subclasses for specific logic.
      */
     public BasePage waitForPageLoad() {
-        PerformanceMetrics.startTimer(pageName + "_load");
-        // Default implementation - subclasses should override
-        WaitUtils.waitForPageLoad();
-        PerformanceMetrics.stopTimerAsPageLoad(pageName);
+        try (PerformanceMetrics.Timer ignored = PerformanceMetrics.timePageLoad(pageName)) {
+            // Default implementation - subclasses should override
+            WaitUtils.waitForPageLoad();
+        }
         return this;
     }
 
@@ -86,6 +96,25 @@ public abstract class BasePage {
         return this;
     }
 
+    /**
+     * Regions ignored by visual comparison (clocks, balances, carousels). Override in subclasses.
+     */
+    protected List<Rectangle> getVisualMasks() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Compares the current screen with this page's visual baseline and fails on changed tiles.
+     */
+    @Step("Verify visual baseline")
+    public BasePage verifyVisualBaseline() {
+        VisualBaselineManager.Result result = VisualBaselineManager.verify(getClass(), getVisualMasks());
+        if (!result.isMatch()) {
+            throw new AssertionError("Visual regression on " + pageName + ": " + result);
+        }
+        return this;
+    }
+
     protected FluentWait<AppiumDriver> waitDefault() {
         return new FluentWait<>(driver)
                 .withTimeout(Duration.ofSeconds(Config.get().explicitWaitSeconds()))
@@ -94,52 +123,92 @@ public abstract class BasePage {
                 .ignoring(StaleElementReferenceException.class);
     }
 
+    /**
+     * Central wait helper: every page wait goes through here so it is traced and emitted to JFR.
+     */
+    protected <T> T waitUntil(String description, ExpectedCondition<T> condition) {
+        return WaitUtils.tracedWait(description, Duration.ofSeconds(Config.get().explicitWaitSeconds()),
+                timeout -> waitDefault().withTimeout(timeout).until(condition));
+    }
+
     protected WebElement waitForVisible(By locator) {
-        return waitDefault().until(ExpectedConditions.visibilityOfElementLocated(locator));
+        return waitUntil("visible " + locator, ExpectedConditions.visibilityOfElementLocated(locator));
     }
 
     protected WebElement waitForVisible(AppiumBy locator) {
-        return waitDefault().until(ExpectedConditions.visibilityOfElementLocated(locator));
+        return waitUntil("visible " + locator, ExpectedConditions.visibilityOfElementLocated(locator));
     }
 
     protected WebElement waitForClickable(By locator) {
-        return waitDefault().until(ExpectedConditions.elementToBeClickable(locator));
+        return waitUntil("clickable " + locator, ExpectedConditions.elementToBeClickable(locator));
     }
 
     protected WebElement waitForClickable(AppiumBy locator) {
-        return waitDefault().until(ExpectedConditions.elementToBeClickable(locator));
+        return waitUntil("clickable " + locator, ExpectedConditions.elementToBeClickable(locator));
     }
 
     protected void click(By locator) {
-        clickWithStaleRecovery(locator, 1);
+        pageAction("click", locator, () -> clickWithStaleRecovery(locator, 1));
     }
 
     protected void click(AppiumBy locator) {
-        clickWithStaleRecovery(locator, 1);
+        pageAction("click", locator, () -> clickWithStaleRecovery(locator, 1));
     }
 
     protected void type(By locator, String text) {
-        WebElement el = waitForVisible(locator);
-        el.clear();
-        el.sendKeys(text);
+        pageAction("type", locator, () -> {
+            WebElement el = waitForVisible(locator);
+            el.clear();
+            el.sendKeys(text);
+        });
     }
 
     protected void type(AppiumBy locator, String text) {
-        WebElement el = waitForVisible(locator);
-        el.clear();
-        el.sendKeys(text);
+        pageAction("type", locator, () -> {
+            WebElement el = waitForVisible(locator);
+            el.clear();
+            el.sendKeys(text);
+        });
+    }
+
+    /**
+     * Runs a page action inside a PAGE span and a JFR PageActionEvent, resuming it once a popup
+     * that made it fail has been dismissed.
+     */
+    private void pageAction(String action, Object target, Runnable body) {
+        PageActionEvent event = new PageActionEvent();
+        event.begin();
+        String outcome = "error";
+        try (SpanTracer.Scope ignored = SpanTracer.begin(SpanTracer.Category.PAGE, pageName + "." + action)) {
+            InterruptionHandlers.guard(pageName + "." + action, () -> {
+                body.run();
+                return null;
+            });
+            outcome = "ok";
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.testName = TestEvent.currentTestName();
+                event.page = pageName;
+                event.action = action;
+                event.locator = String.valueOf(target);
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
     }
 
     protected boolean waitForText(By locator, String text) {
-        return waitDefault().until(ExpectedConditions.textToBePresentInElementLocated(locator, text));
+        return waitUntil("text '" + text + "' in " + locator,
+                ExpectedConditions.textToBePresentInElementLocated(locator, text));
     }
 
     protected boolean waitForInvisible(By locator) {
-        return waitDefault().until(ExpectedConditions.invisibilityOfElementLocated(locator));
+        return waitUntil("invisible " + locator, ExpectedConditions.invisibilityOfElementLocated(locator));
     }
 
     protected <T> T waitFor(ExpectedCondition<T> condition) {
-        return waitDefault().until(condition);
+        return waitUntil("condition " + condition, condition);
     }
 
     /**
@@ -222,7 +291,7 @@ public abstract class BasePage {
     @Step("Click on element")
     protected void clickElement(WebElement element) {
         log.debug("Clicking element: {}", element);
-        ElementUtils.safeClick(element);
+        pageAction("clickElement", element, () -> ElementUtils.safeClick(element));
     }
 
     /**
@@ -231,7 +300,7 @@ public abstract class BasePage {
     @Step("Type text: {text}")
     protected void typeText(WebElement element, String text) {
         log.debug("Typing text into element");
-        ElementUtils.safeSendKeys(element, text);
+        pageAction("typeText", element, () -> ElementUtils.safeSendKeys(element, text));
     }
 
     /**
@@ -248,7 +317,7 @@ public abstract class BasePage {
      */
     @Step("Swipe up")
     protected void swipeUp() {
-        AdvancedGestureUtils.swipe(AdvancedGestureUtils.SwipeDirection.UP);
+        swipe(AdvancedGestureUtils.SwipeDirection.UP);
     }
 
     /**
@@ -256,7 +325,7 @@ public abstract class BasePage {
      */
     @Step("Swipe down")
     protected void swipeDown() {
-        AdvancedGestureUtils.swipe(AdvancedGestureUtils.SwipeDirection.DOWN);
+        swipe(AdvancedGestureUtils.SwipeDirection.DOWN);
     }
 
     /**
@@ -264,7 +333,7 @@ public abstract class BasePage {
      */
     @Step("Swipe left")
     protected void swipeLeft() {
-        AdvancedGestureUtils.swipe(AdvancedGestureUtils.SwipeDirection.LEFT);
+        swipe(AdvancedGestureUtils.SwipeDirection.LEFT);
     }
 
     /**
@@ -272,7 +341,39 @@ public abstract class BasePage {
      */
     @Step("Swipe right")
     protected void swipeRight() {
-        AdvancedGestureUtils.swipe(AdvancedGestureUtils.SwipeDirection.RIGHT);
+        swipe(AdvancedGestureUtils.SwipeDirection.RIGHT);
+    }
+
+    /**
+     * Swipes, measuring frame stats under this page's name when frame.stats.on.swipe is set.
+     */
+    private void swipe(AdvancedGestureUtils.SwipeDirection direction) {
+        if (Config.get().frameStatsOnSwipe() && DriverManager.isAndroid() && !FrameStatsCollector.isMeasuring()) {
+            FrameStatsCollector.measure(pageName + " swipe " + direction, () -> AdvancedGestureUtils.swipe(direction));
+        } else {
+            AdvancedGestureUtils.swipe(direction);
+        }
+    }
+
+    /**
+     * Rendering budget for scrolling on this page. Override for screens with heavier lists.
+     */
+    protected FrameStatsCollector.JankBudget getJankBudget() {
+        return FrameStatsCollector.JankBudget.fromConfig();
+    }
+
+    /**
+     * Swipes and fails if the frames rendered during the swipe exceed this page's jank budget,
+     * or if frame stats cannot be read on this device.
+     */
+    @Step("Verify smooth swipe {direction}")
+    public BasePage verifySmoothSwipe(AdvancedGestureUtils.SwipeDirection direction) {
+        if (!DriverManager.isAndroid()) {
+            throw new AssertionError("Smooth swipe verification needs gfxinfo, which is Android only");
+        }
+        FrameStatsCollector.measure(pageName + " swipe " + direction, () -> AdvancedGestureUtils.swipe(direction))
+                .assertWithin(getJankBudget());
+        return this;
     }
 
     /**
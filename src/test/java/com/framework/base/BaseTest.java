@@ -4,6 +4,8 @@ import com.framework.config.Config;
 import com.framework.reporting.AllureReportUtils;
 import com.framework.reporting.HtmlReportGenerator;
 import com.framework.reporting.PerformanceMetrics;
+import com.framework.reporting.SpanTracer;
+import com.framework.reporting.jfr.TestEvent;
 import com.framework.utils.*;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.android.AndroidDriver;
@@ -17,6 +19,8 @@ import org.testng.annotations.*;
 import org.testng.asserts.SoftAssert;
 
 import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
@@ -28,6 +32,7 @@ public class BaseTest {
 
     protected final Logger log = LogManager.getLogger(getClass());
     private Instant testStartTime;
+    private NetworkTrafficMeter.Traffic networkAtStart;
     protected SoftAssert softAssert;
 
     @BeforeSuite(alwaysRun = true)
@@ -47,11 +52,19 @@ public class BaseTest {
         // Initialize HTML report
         HtmlReportGenerator.startSuite("MobileX Test Suite");
 
+        SpanTracer.setEnabled(Config.get().traceEnabled());
+
         // Take memory snapshot
         PerformanceMetrics.takeMemorySnapshot("suite_start");
 
-        // Create driver session
+        if (Config.get().devicePrepEnabled()) {
+            DevicePreparation.prepareAll(DevicePool.devices());
+        }
+
+        // Create driver session on the healthiest device
+        DeviceHealthMonitor.start();
         DriverManager.initDriver(Config.get().platform());
+        startSessionServices();
 
         log.info("Platform: {}", Config.get().platform());
         log.info("Device: {} ({})", Config.get().deviceName(), Config.get().udid());
@@ -59,6 +72,48 @@ public class BaseTest {
         log.info("Environment: {}", Config.get().env().toUpperCase());
     }
 
+    private void startSessionServices() {
+        AnimationProfile.applyForCurrentSession();
+        AppiumSettings.sessionStarted();
+        DevicePerformanceSampler.startForCurrentSession();
+        LogcatStreamer.startForCurrentSession();
+        CrashWatcher.startForCurrentSession();
+    }
+
+    /**
+     * Stops the background work bound to the current session and its device; the driver is still up.
+     */
+    private void stopSessionServices(String serial) {
+        VideoRecordingUtils.stopRecordingForCurrentSession();
+        DevicePerformanceSampler.stopForCurrentSession();
+        CrashWatcher.stop(serial);
+        LogcatStreamer.stop(serial);
+        AnimationProfile.restore(serial);
+    }
+
+    /**
+     * Starts a new session on another device if the current one was quarantined by the health monitor.
+     */
+    private void moveOffQuarantinedDevice() {
+        if (!DriverManager.isAndroid()) {
+            return;
+        }
+        String serial = DeviceUtils.getDeviceSerial();
+        if (!DevicePool.isQuarantined(serial) || !DevicePool.hasHealthyAlternative(serial)) {
+            return;
+        }
+        log.warn("Device {} is quarantined ({}); moving to a healthy device", serial, DevicePool.quarantined().get(serial));
+        stopSessionServices(serial);
+        DriverManager.quitDriver();
+        try {
+            DriverManager.initDriver(Config.get().platform());
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException("Failed to create session on a healthy device", e);
+        }
+        startSessionServices();
+        log.info("Now running on {}", DeviceUtils.getDeviceSerial());
+    }
+
     @AfterSuite(alwaysRun = true)
     public void globalTearDown() {
         log.info("========================================");
@@ -70,11 +125,25 @@ public class BaseTest {
         String perfSummary = PerformanceMetrics.generateSummaryReport();
         log.info(perfSummary);
         AllureReportUtils.attachText("Performance Summary", perfSummary);
+        if (SpanTracer.isEnabled()) {
+            SpanTracer.exportAndAttach();
+        }
+        AnimationProfile.report();
+        InterruptionHandlers.report();
+        NavigationRegistry.report();
 
         // Generate reports
+        DeviceHealthMonitor.stopAndReport();
         HtmlReportGenerator.endSuite();
         HtmlReportGenerator.generateReport();
 
+        VideoRecordingUtils.stopAllRecordings();
+        MjpegStreamClient.closeAll();
+        DevicePerformanceSampler.stopAll();
+        CrashWatcher.stopAll();
+        LogcatStreamer.stopAll();
+        AnimationProfile.restoreAll();
+
         // Quit driver
         DriverManager.quitDriver();
     }
@@ -91,12 +160,30 @@ public class BaseTest {
 
     @BeforeMethod(alwaysRun = true)
     public void methodSetUp(Method method) {
+        moveOffQuarantinedDevice();
         testStartTime = Instant.now();
         softAssert = new SoftAssert();
         AssertUtils.resetSoftAssert();
 
         log.info(">>> Starting Test: {}", method.getName());
+        SpanTracer.setDevice(DriverManager.isAndroid() ? DeviceUtils.getDeviceSerial() : Config.get().udid());
+        SpanTracer.begin(SpanTracer.Category.TEST, getClass().getSimpleName() + "." + method.getName());
+        TestEvent.started(getClass().getName(), method.getName());
+        DevicePerformanceSampler.testStarted(getClass().getSimpleName() + "." + method.getName());
+        LogcatStreamer.testStarted(getClass().getSimpleName() + "." + method.getName());
+        CrashWatcher.testStarted();
+        InterruptionHandlers.testStarted();
+        NavigationRegistry.testStarted();
         Allure.step("Test started: " + method.getName());
+
+        if (Config.get().videoRecordingEnabled()) {
+            VideoRecordingUtils.startTestRecording(method.getName());
+        }
+        if (Config.get().frameStatsPerTest() && DriverManager.isAndroid()) {
+            FrameStatsCollector.reset();
+        }
+        networkAtStart = Config.get().networkMeterPerTest() && DriverManager.isAndroid()
+                ? NetworkTrafficMeter.snapshot() : null;
     }
 
     @AfterMethod(alwaysRun = true)
@@ -110,23 +197,69 @@ public class BaseTest {
             default -> "UNKNOWN";
         };
 
-        log.info("<<< Completed Test: {} - {} ({}ms)", method.getName(), status, duration);
-
-        // Record for HTML report
-        HtmlReportGenerator.recordTestResult(
-                method.getName(),
-                getClass().getSimpleName(),
-                switch (result.getStatus()) {
-                    case ITestResult.SUCCESS -> HtmlReportGenerator.Status.PASSED;
-                    case ITestResult.FAILURE -> HtmlReportGenerator.Status.FAILED;
-                    default -> HtmlReportGenerator.Status.SKIPPED;
-                },
-                duration,
-                result.getThrowable() != null ? result.getThrowable().getMessage() : null
-        );
-
-        // Record performance metric
-        PerformanceMetrics.recordActionTime("test_" + method.getName(), duration);
+        try {
+            log.info("<<< Completed Test: {} - {} ({}ms)", method.getName(), status, duration);
+            LogcatStreamer.testFinished(getClass().getSimpleName() + "." + method.getName());
+            AppiumSettings.leavePage();
+            long navigationSavedMs = NavigationRegistry.testFinished();
+            if (navigationSavedMs > 0) {
+                attachText("Navigation shortcuts", "~" + navigationSavedMs + "ms saved over UI navigation");
+                PerformanceMetrics.recordActionTime("navigation_saved", navigationSavedMs);
+            }
+            CrashWatcher.Crash crash = CrashWatcher.testFinished();
+            if (crash != null) {
+                attachText("App crash", crash.toString());
+            }
+
+            Map<DevicePerformanceSampler.Metric, DevicePerformanceSampler.Summary> devicePerf =
+                    DevicePerformanceSampler.testFinished(getClass().getSimpleName() + "." + method.getName());
+            if (!devicePerf.isEmpty()) {
+                attachText("Device performance", devicePerf.toString());
+            }
+            if (Config.get().frameStatsPerTest() && DriverManager.isAndroid()) {
+                FrameStatsCollector.FrameStats frames = FrameStatsCollector.read();
+                frames.label = getClass().getSimpleName() + "." + method.getName();
+                FrameStatsCollector.report(frames);
+            }
+            if (networkAtStart != null) {
+                NetworkTrafficMeter.Traffic traffic = NetworkTrafficMeter.snapshot().minus(networkAtStart);
+                if (traffic.available) {
+                    PerformanceMetrics.recordNetworkTraffic("test_" + method.getName(), traffic.rxBytes, traffic.txBytes);
+                }
+                networkAtStart = null;
+            }
+
+            if (Config.get().videoRecordingEnabled()) {
+                Path video = VideoRecordingUtils.stopTestRecording(method.getName(),
+                        result.getStatus() != ITestResult.FAILURE);
+                if (video != null) {
+                    attachText("Failure video", video.toAbsolutePath().toString());
+                }
+            }
+
+            // Record for HTML report
+            HtmlReportGenerator.recordTestResult(
+                    method.getName(),
+                    getClass().getSimpleName(),
+                    switch (result.getStatus()) {
+                        case ITestResult.SUCCESS -> HtmlReportGenerator.Status.PASSED;
+                        case ITestResult.FAILURE -> HtmlReportGenerator.Status.FAILED;
+                        default -> HtmlReportGenerator.Status.SKIPPED;
+                    },
+                    duration,
+                    result.getThrowable() != null ? result.getThrowable().getMessage() : null
+            );
+
+            // Record performance metric
+            PerformanceMetrics.recordActionTime("test_" + method.getName(), duration);
+            if (result.getStatus() == ITestResult.SUCCESS) {
+                AnimationProfile.recordTest(getClass().getSimpleName() + "." + method.getName(), duration);
+            }
+        } finally {
+            // Always close the TEST span, or the next test would nest under it
+            SpanTracer.end();
+            TestEvent.finished(status);
+        }
     }
 
     // ==================== Driver Getters ====================
@@ -164,11 +297,19 @@ public class BaseTest {
         }
     }
 
+    /**
+     * Brings up a page through its registered deep link or intent, falling back to its UI flow.
+     */
+    protected <T extends BasePage> T navigateTo(Class<T> pageClass) {
+        return NavigationRegistry.navigateTo(pageClass, () -> getPage(pageClass));
+    }
+
     // ==================== Allure Reporting ====================
 
     @Step("{stepDescription}")
     protected void step(String stepDescription) {
         log.info("Step: {}", stepDescription);
+        SpanTracer.instant(SpanTracer.Category.STEP, stepDescription);
     }
 
     protected void attachScreenshot(String name) {
@@ -185,6 +326,31 @@ public class BaseTest {
 
     // ==================== Test Utilities ====================
 
+    /**
+     * Runs a flow and fails if the app sent and received more than the given number of bytes,
+     * or if its traffic could not be measured.
+     */
+    protected NetworkTrafficMeter.Traffic assertNetworkBudget(String flowName, long maxTotalBytes, Runnable flow) {
+        NetworkTrafficMeter.Traffic traffic = NetworkTrafficMeter.measure(flowName, flow);
+        if (!traffic.available) {
+            throw new AssertionError("Network traffic of " + flowName + " could not be measured");
+        }
+        if (traffic.totalBytes() > maxTotalBytes) {
+            throw new AssertionError(String.format("Network budget exceeded for %s: %s (budget %dB total)",
+                    flowName, traffic, maxTotalBytes));
+        }
+        return traffic;
+    }
+
+    /**
+     * Repeats a user flow while sampling app memory and fails if PSS or heap keeps growing.
+     */
+    protected MemoryLeakDetector.Result assertNoMemoryLeak(String flowName, Runnable flow) {
+        MemoryLeakDetector.Result result = MemoryLeakDetector.run(flowName, flow);
+        result.assertNoLeak();
+        return result;
+    }
+
     /**
      * Waits for specified duration.
      */
@@ -0,0 +1,106 @@
+package com.framework.base;
+
+import com.framework.config.Config;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Devices the suite may run on (device.pool, defaulting to the configured udid) with their
+ * latest health score and quarantine state.
+ *
+ * New sessions are created on the best healthy device. Scores and quarantine decisions come
+ * from {@link com.framework.utils.DeviceHealthMonitor}.
+ */
+public final class DevicePool {
+
+    private static final Logger log = LogManager.getLogger(DevicePool.class);
+    private static final Map<String, Integer> scores = new ConcurrentHashMap<>();
+    private static final Map<String, String> quarantined = new ConcurrentHashMap<>();
+    private static volatile List<String> devices;
+
+    private DevicePool() {
+    }
+
+    /**
+     * All configured device serials.
+     */
+    public static List<String> devices() {
+        if (devices == null) {
+            String pool = Config.get().devicePool();
+            List<String> serials = new ArrayList<>();
+            if (!pool.isBlank()) {
+                Arrays.stream(pool.split(",")).map(String::trim).filter(s -> !s.isEmpty()).forEach(serials::add);
+            }
+            if (serials.isEmpty()) {
+                serials.add(Config.get().udid());
+            }
+            devices = List.copyOf(serials);
+        }
+        return devices;
+    }
+
+    /**
+     * Serial for a new session: the highest-scoring device that is not quarantined. Devices not
+     * scored yet count as healthy. If every device is quarantined the first one is used anyway.
+     */
+    public static String acquire() {
+        String best = null;
+        int bestScore = Integer.MIN_VALUE;
+        for (String serial : devices()) {
+            if (quarantined.containsKey(serial)) {
+                continue;
+            }
+            int score = scores.getOrDefault(serial, 100);
+            if (score > bestScore) {
+                best = serial;
+                bestScore = score;
+            }
+        }
+        if (best == null) {
+            best = devices().get(0);
+            log.warn("All devices are quarantined ({}); using {} anyway", quarantined, best);
+        }
+        return best;
+    }
+
+    public static void updateScore(String serial, int score) {
+        scores.put(serial, score);
+    }
+
+    public static int score(String serial) {
+        return scores.getOrDefault(serial, 100);
+    }
+
+    public static void quarantine(String serial, String reason) {
+        if (quarantined.put(serial, reason) == null) {
+            log.warn("Device {} quarantined: {}", serial, reason);
+        }
+    }
+
+    public static void release(String serial) {
+        if (quarantined.remove(serial) != null) {
+            log.info("Device {} released from quarantine", serial);
+        }
+    }
+
+    public static boolean isQuarantined(String serial) {
+        return quarantined.containsKey(serial);
+    }
+
+    public static Map<String, String> quarantined() {
+        return Map.copyOf(quarantined);
+    }
+
+    /**
+     * True if some device other than the given one is available for a new session.
+     */
+    public static boolean hasHealthyAlternative(String serial) {
+        return devices().stream().anyMatch(s -> !s.equals(serial) && !quarantined.containsKey(s));
+    }
+}
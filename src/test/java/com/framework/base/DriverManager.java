@@ -1,6 +1,10 @@
 package com.framework.base;
 
 import com.framework.config.Config;
+import com.framework.reporting.SpanTracer;
+import com.framework.utils.AppiumSettings;
+import com.framework.reporting.jfr.DriverCommandEvent;
+import io.appium.java_client.AppiumClientConfig;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.android.options.UiAutomator2Options;
@@ -77,6 +81,17 @@ public final class DriverManager {
         }
     }
 
+    /**
+     * HTTP client config for the driver; every command is traced as a DRIVER span and a JFR event, and
+     * element lookups are timed per settings profile.
+     */
+    private static AppiumClientConfig clientConfig(String serverUrl) throws MalformedURLException {
+        return AppiumClientConfig.defaultConfig()
+                .baseUrl(new URL(serverUrl))
+                .withFilter(SpanTracer.driverCommandFilter().andThen(DriverCommandEvent.filter())
+                        .andThen(AppiumSettings.lookupTimingFilter()));
+    }
+
     private static AndroidDriver createAndroidDriver(String serverUrl) throws MalformedURLException {
         Config cfg = Config.get();
 
@@ -84,7 +99,7 @@ public final class DriverManager {
                 .setAutomationName(AutomationName.ANDROID_UIAUTOMATOR2)
                 .setPlatformName("Android")
                 .setDeviceName(cfg.deviceName())
-                .setUdid(cfg.udid())
+                .setUdid(DevicePool.acquire())
                 .setNewCommandTimeout(Duration.ofSeconds(cfg.newCommandTimeoutSeconds()))
                 .autoGrantPermissions();
 
@@ -169,6 +184,9 @@ public final class DriverManager {
         options.setCapability("appWaitActivity", cfg.appActivity());
         options.setCapability("appWaitPackage", cfg.appPackage());
         options.setCapability("appWaitDuration", 30000);
+        if (cfg.mjpegEnabled()) {
+            options.setCapability("mjpegServerPort", cfg.mjpegServerPort());
+        }
 
         // Debug: print the final 'app' capability that will be sent to Appium
         try {
@@ -177,7 +195,7 @@ public final class DriverManager {
         } catch (Exception ignored) {
         }
 
-        return new AndroidDriver(new URL(serverUrl), options);
+        return new AndroidDriver(clientConfig(serverUrl), options);
     }
 
     private static IOSDriver createIOSDriver(String serverUrl) throws MalformedURLException {
@@ -190,7 +208,7 @@ public final class DriverManager {
                 .setBundleId(cfg.bundleId())
                 .setNewCommandTimeout(Duration.ofSeconds(cfg.newCommandTimeoutSeconds()));
 
-        return new IOSDriver(new URL(serverUrl), options);
+        return new IOSDriver(clientConfig(serverUrl), options);
     }
 
     private static String resolveServerUrl() {
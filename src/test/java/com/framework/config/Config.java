@@ -231,6 +231,10 @@ public final class Config {
         return Integer.parseInt(get("retry.count", "1"));
     }
 
+    public int retryDelayMs() {
+        return Integer.parseInt(get("retry.delay.ms", "1000"));
+    }
+
     public int explicitWaitSeconds() {
         return Integer.parseInt(get("wait.seconds", "10"));
     }
@@ -267,6 +271,322 @@ public final class Config {
         return "docker".equalsIgnoreCase(executionMode()) || isDocker();
     }
 
+    // ==================== Tracing ====================
+
+    /** Record test/step/page/wait/driver spans and write a Chrome trace at suite end. */
+    public boolean traceEnabled() {
+        return Boolean.parseBoolean(get("trace.enabled", "true"));
+    }
+
+    // ==================== Video Recording ====================
+
+    public boolean videoRecordingEnabled() {
+        return Boolean.parseBoolean(get("video.recording.enabled", "false"));
+    }
+
+    public int videoMaxDurationMinutes() {
+        return Integer.parseInt(get("video.max.duration.minutes", "5"));
+    }
+
+    /** Length of each rotating segment when recording continuously. */
+    public int videoSegmentSeconds() {
+        return Integer.parseInt(get("video.segment.seconds", "60"));
+    }
+
+    /** Number of recent segments kept on disk per device; older ones are deleted. */
+    public int videoRingMaxSegments() {
+        return Integer.parseInt(get("video.ring.max.segments", "5"));
+    }
+
+    // ==================== MJPEG Screen Stream ====================
+
+    /** Read frames from the UiAutomator2 MJPEG stream instead of per-call screenshots. */
+    public boolean mjpegEnabled() {
+        return Boolean.parseBoolean(get("mjpeg.enabled", "false"));
+    }
+
+    /** Host port Appium forwards the device MJPEG server to (mjpegServerPort capability). */
+    public int mjpegServerPort() {
+        return Integer.parseInt(get("mjpeg.server.port", "7810"));
+    }
+
+    public int mjpegFramerate() {
+        return Integer.parseInt(get("mjpeg.framerate", "15"));
+    }
+
+    /** Frames older than this are considered stale and a regular screenshot is taken instead. */
+    public int mjpegMaxFrameAgeMillis() {
+        return Integer.parseInt(get("mjpeg.max.frame.age.ms", "500"));
+    }
+
+    // ==================== Direct ADB ====================
+
+    /** Send shell commands straight to the adb server when it lists the device, instead of via mobile: shell. */
+    public boolean adbDirectEnabled() {
+        return Boolean.parseBoolean(get("adb.direct.enabled", "true"));
+    }
+
+    public String adbServerHost() {
+        return get("adb.server.host", "127.0.0.1");
+    }
+
+    public int adbServerPort() {
+        return Integer.parseInt(get("adb.server.port", "5037"));
+    }
+
+    public int adbConnectTimeoutMs() {
+        return Integer.parseInt(get("adb.connect.timeout.ms", "1000"));
+    }
+
+    /** Longest silence on an adb request or one-shot shell command before it fails (0 = no limit). */
+    public int adbReadTimeoutMs() {
+        return Integer.parseInt(get("adb.read.timeout.ms", "60000"));
+    }
+
+    // ==================== Logcat Streaming ====================
+
+    /** Stream logcat in the background (needs direct adb) and attach the app's lines to failed tests. */
+    public boolean logcatStreamEnabled() {
+        return Boolean.parseBoolean(get("logcat.stream.enabled", "true"));
+    }
+
+    /** Size of the per-device off-heap logcat ring buffer. */
+    public int logcatBufferKb() {
+        return Integer.parseInt(get("logcat.buffer.kb", "4096"));
+    }
+
+    // ==================== Crash Watcher ====================
+
+    /** Fail pending waits as soon as the app crashes, hits an ANR or dies. */
+    public boolean crashWatcherEnabled() {
+        return Boolean.parseBoolean(get("crash.watcher.enabled", "true"));
+    }
+
+    /** Interval of the pidof check used when no logcat stream is available. */
+    public int crashPollIntervalMs() {
+        return Integer.parseInt(get("crash.poll.interval.ms", "2000"));
+    }
+
+    // ==================== Animations ====================
+
+    /** Run with window/transition/animator scales at 0, restoring the device's values afterwards. */
+    public boolean animationsDisabled() {
+        return Boolean.parseBoolean(get("animations.disabled", "true"));
+    }
+
+    /** Test durations per animation profile, appended every run for the on/off comparison. */
+    public String animationsAbHistory() {
+        return get("animations.ab.history", "benchmarks/animation-ab.csv");
+    }
+
+    // ==================== Navigation ====================
+
+    /** Use registered deep links and intents in navigateTo; false forces the UI flows (to time them). */
+    public boolean navigationShortcutsEnabled() {
+        return Boolean.parseBoolean(get("navigation.shortcuts.enabled", "true"));
+    }
+
+    /** UI flow durations per page, appended every run and used to credit shortcuts with the time saved. */
+    public String navigationUiHistory() {
+        return get("navigation.ui.history", "benchmarks/navigation-ui.csv");
+    }
+
+    // ==================== Interruption Handlers ====================
+
+    /** Dismiss known popups (permission prompts, rating dialogs, OS updates) when a wait or action fails, then resume. */
+    public boolean interruptionHandlersEnabled() {
+        return Boolean.parseBoolean(get("interruption.handlers.enabled", "true"));
+    }
+
+    // ==================== Settings Profiles ====================
+
+    /** Apply the UiAutomator2 settings profile declared by a page while it is the current page. */
+    public boolean settingsProfilesEnabled() {
+        return Boolean.parseBoolean(get("settings.profiles.enabled", "true"));
+    }
+
+    // ==================== Device Preparation ====================
+
+    /** Prepare every pool device before the suite (install, permissions, animations, locale, unlock). */
+    public boolean devicePrepEnabled() {
+        return Boolean.parseBoolean(get("device.prep.enabled", "false"));
+    }
+
+    /** Comma-separated subset of install,permissions,animations,locale,unlock. */
+    public String devicePrepSteps() {
+        return get("device.prep.steps", "install,permissions,animations,locale,unlock");
+    }
+
+    public int devicePrepParallelism() {
+        return Integer.parseInt(get("device.prep.parallelism", "4"));
+    }
+
+    public int devicePrepStepTimeoutSeconds() {
+        return Integer.parseInt(get("device.prep.step.timeout.seconds", "120"));
+    }
+
+    /** BCP 47 tag applied as the app's locale (Android 13+); empty skips the locale step. */
+    public String devicePrepLocale() {
+        return get("device.prep.locale", "");
+    }
+
+    // ==================== Device Health ====================
+
+    /** Comma-separated serials the suite may run on; empty means just udid. */
+    public String devicePool() {
+        return get("device.pool", "");
+    }
+
+    public boolean deviceHealthEnabled() {
+        return Boolean.parseBoolean(get("device.health.enabled", "true"));
+    }
+
+    public int deviceHealthIntervalSeconds() {
+        return Integer.parseInt(get("device.health.interval.seconds", "30"));
+    }
+
+    /** Devices scoring below this (0-100) are quarantined. */
+    public int deviceHealthMinScore() {
+        return Integer.parseInt(get("device.health.min.score", "50"));
+    }
+
+    public int deviceHealthMinBattery() {
+        return Integer.parseInt(get("device.health.min.battery", "15"));
+    }
+
+    public double deviceHealthMaxTemperatureC() {
+        return Double.parseDouble(get("device.health.max.temperature.c", "45"));
+    }
+
+    public long deviceHealthMinStorageMb() {
+        return Long.parseLong(get("device.health.min.storage.mb", "500"));
+    }
+
+    public long deviceHealthMaxAdbLatencyMs() {
+        return Long.parseLong(get("device.health.max.adb.latency.ms", "2000"));
+    }
+
+    // ==================== Device Profile ====================
+
+    /** How long battery and lock state in DeviceUtils.getDeviceProfile() are reused before re-reading. */
+    public int deviceProfileTtlSeconds() {
+        return Integer.parseInt(get("device.profile.ttl.seconds", "30"));
+    }
+
+    // ==================== Device Performance Sampling ====================
+
+    /** Sample app CPU, memory, battery and network in the background during tests (Android). */
+    public boolean deviceSamplerEnabled() {
+        return Boolean.parseBoolean(get("device.sampler.enabled", "false"));
+    }
+
+    public int deviceSamplerIntervalMs() {
+        return Integer.parseInt(get("device.sampler.interval.ms", "2000"));
+    }
+
+    // ==================== Frame Stats ====================
+
+    /** Reset and read dumpsys gfxinfo around every test. */
+    public boolean frameStatsPerTest() {
+        return Boolean.parseBoolean(get("frame.stats.per.test", "false"));
+    }
+
+    /** Measure frame stats around every AdvancedGestureUtils.swipe. */
+    public boolean frameStatsOnSwipe() {
+        return Boolean.parseBoolean(get("frame.stats.on.swipe", "false"));
+    }
+
+    /** Time to let scrolling settle after a gesture before reading frame stats. */
+    public int frameStatsSettleMs() {
+        return Integer.parseInt(get("frame.stats.settle.ms", "500"));
+    }
+
+    public double jankMaxPercent() {
+        return Double.parseDouble(get("jank.max.percent", "10"));
+    }
+
+    public long jankMaxP95Ms() {
+        return Long.parseLong(get("jank.max.p95.ms", "32"));
+    }
+
+    // ==================== Network Traffic ====================
+
+    /** Record the app's rx/tx bytes for every test in PerformanceMetrics. */
+    public boolean networkMeterPerTest() {
+        return Boolean.parseBoolean(get("network.meter.per.test", "false"));
+    }
+
+    // ==================== Memory Leak Detection ====================
+
+    public int leakWarmupIterations() {
+        return Integer.parseInt(get("leak.warmup.iterations", "2"));
+    }
+
+    public int leakIterations() {
+        return Integer.parseInt(get("leak.iterations", "10"));
+    }
+
+    /** Fitted growth above this many KB per iteration (any of PSS, Java or native heap) is flagged. */
+    public double leakMaxGrowthKbPerIteration() {
+        return Double.parseDouble(get("leak.max.growth.kb.per.iteration", "256"));
+    }
+
+    // ==================== Launch Benchmark ====================
+
+    public int launchBenchmarkWarmups() {
+        return Integer.parseInt(get("launch.benchmark.warmups", "2"));
+    }
+
+    public int launchBenchmarkIterations() {
+        return Integer.parseInt(get("launch.benchmark.iterations", "10"));
+    }
+
+    public String launchBenchmarkBaselineFile() {
+        return get("launch.benchmark.baseline.file", "benchmarks/launch-baseline.json");
+    }
+
+    /** Fail when launch time is significantly slower than baseline by more than this percentage. */
+    public double launchBenchmarkMaxRegressionPercent() {
+        return Double.parseDouble(get("launch.benchmark.max.regression.percent", "5"));
+    }
+
+    /** Store this run as the new baseline (e.g. after accepting a release APK). */
+    public boolean launchBenchmarkUpdateBaseline() {
+        return Boolean.parseBoolean(get("launch.benchmark.update.baseline", "false"));
+    }
+
+    // ==================== Image Matching ====================
+
+    /** Minimum normalized cross-correlation score (0-1) for ElementUtils.findByImage. */
+    public double imageMatchThreshold() {
+        return Double.parseDouble(get("image.match.threshold", "0.9"));
+    }
+
+    // ==================== Visual Regression ====================
+
+    public String visualBaselineDir() {
+        return get("visual.baseline.dir", "src/test/resources/baselines");
+    }
+
+    /** Overwrite existing baselines with the current screenshot instead of comparing. */
+    public boolean visualUpdateBaselines() {
+        return Boolean.parseBoolean(get("visual.baseline.update", "false"));
+    }
+
+    public int visualTileSize() {
+        return Integer.parseInt(get("visual.tile.size", "64"));
+    }
+
+    /** Maximum per-channel difference (0-255) for two pixels to still count as equal. */
+    public int visualPixelTolerance() {
+        return Integer.parseInt(get("visual.pixel.tolerance", "16"));
+    }
+
+    /** Percentage of differing pixels above which a tile is reported as failing. */
+    public double visualTileTolerancePercent() {
+        return Double.parseDouble(get("visual.tile.tolerance.percent", "1.0"));
+    }
+
     /**
      * Prints current configuration summary (useful for debugging).
      */
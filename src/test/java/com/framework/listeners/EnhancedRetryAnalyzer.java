@@ -1,6 +1,7 @@
 package com.framework.listeners;
 
 import com.framework.annotations.FlakyTest;
+import com.framework.config.Config;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.testng.IRetryAnalyzer;
@@ -75,7 +76,7 @@ public class EnhancedRetryAnalyzer implements IRetryAnalyzer {
             return flakyTest.delayMs();
         }
 
-        return Integer.parseInt(System.getProperty("retry.delay.ms", "1000"));
+        return Config.get().retryDelayMs();
     }
 
     private String getTestId(ITestResult result) {
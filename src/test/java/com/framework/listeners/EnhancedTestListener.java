@@ -2,6 +2,8 @@ package com.framework.listeners;
 
 import com.framework.annotations.TestInfo;
 import com.framework.annotations.TestCategory;
+import com.framework.reporting.AllureReportUtils;
+import com.framework.utils.LogcatStreamer;
 import com.framework.utils.ScreenshotUtils;
 import io.qameta.allure.Allure;
 import org.apache.logging.log4j.LogManager;
@@ -63,6 +65,7 @@ public class EnhancedTestListener implements ITestListener {
         long duration = getDuration(testName);
         log.error("Test FAILED: {} ({}ms)", testName, duration);
         ScreenshotUtils.attachToAllure("failure-" + testName);
+        attachLogcat(result);
     }
 
     @Override
@@ -93,6 +96,21 @@ public class EnhancedTestListener implements ITestListener {
         }
     }
 
+    /**
+     * Attaches the app's logcat lines for this test, copied from the background stream's buffer.
+     */
+    private void attachLogcat(ITestResult result) {
+        try {
+            String slice = LogcatStreamer.testSlice(
+                    result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName());
+            if (slice != null && !slice.isEmpty()) {
+                AllureReportUtils.attachText("Logcat", slice);
+            }
+        } catch (Exception e) {
+            log.warn("Could not attach logcat: {}", e.getMessage());
+        }
+    }
+
     private String getTestName(ITestResult result) {
         return result.getTestClass().getName() + "." + result.getName();
     }
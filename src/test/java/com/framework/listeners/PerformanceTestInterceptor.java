@@ -0,0 +1,102 @@
+package com.framework.listeners;
+
+import com.framework.annotations.PerformanceTest;
+import com.framework.reporting.AllureReportUtils;
+import com.framework.reporting.PerformanceMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IHookCallBack;
+import org.testng.IHookable;
+import org.testng.ITestResult;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Runs {@link PerformanceTest} methods as benchmarks: the test body is invoked for the warmup
+ * iterations and then timed for the measured iterations. Before/after-method hooks run once
+ * around the whole loop.
+ *
+ * When {@code failOnExceed} is set, the test fails if p50 or p95 exceeds {@code maxDurationMs}.
+ */
+public class PerformanceTestInterceptor implements IHookable {
+
+    private static final Logger log = LogManager.getLogger(PerformanceTestInterceptor.class);
+
+    @Override
+    public void run(IHookCallBack callBack, ITestResult result) {
+        Method method = result.getMethod().getConstructorOrMethod().getMethod();
+        PerformanceTest perf = method.getAnnotation(PerformanceTest.class);
+        if (perf == null) {
+            callBack.runTestMethod(result);
+            return;
+        }
+
+        String name = benchmarkName(result);
+        for (int i = 0; i < perf.warmupIterations(); i++) {
+            callBack.runTestMethod(result);
+            if (result.getThrowable() != null) {
+                log.warn("Benchmark {} failed during warmup {}", name, i + 1);
+                return;
+            }
+        }
+
+        PerformanceMetrics.clearActionTimes(name);
+        int iterations = Math.max(1, perf.iterations());
+        for (int i = 0; i < iterations; i++) {
+            try (PerformanceMetrics.Timer ignored = PerformanceMetrics.time(name)) {
+                callBack.runTestMethod(result);
+            }
+            if (result.getThrowable() != null) {
+                log.warn("Benchmark {} failed in iteration {}", name, i + 1);
+                return;
+            }
+        }
+
+        PerformanceMetrics.Statistics stats = PerformanceMetrics.getActionStatistics(name);
+        boolean exceeded = stats.median > perf.maxDurationMs() || stats.percentile95 > perf.maxDurationMs();
+        if (perf.logMetrics()) {
+            log.info("Benchmark {}: p50={}ms, p95={}ms, budget={}ms ({} warmup, {} measured)",
+                    name, Math.round(stats.median), Math.round(stats.percentile95),
+                    perf.maxDurationMs(), perf.warmupIterations(), stats.count);
+        }
+        AllureReportUtils.attachHtml("Benchmark: " + name, toHtml(name, perf, stats, exceeded));
+
+        if (exceeded) {
+            String message = String.format("Performance budget exceeded for %s: p50=%.0fms, p95=%.0fms, max allowed %dms",
+                    name, stats.median, stats.percentile95, perf.maxDurationMs());
+            if (perf.failOnExceed()) {
+                throw new AssertionError(message);
+            }
+            log.warn(message);
+        }
+    }
+
+    private static String benchmarkName(ITestResult result) {
+        String name = "benchmark_" + result.getTestClass().getRealClass().getSimpleName() + "." + result.getName();
+        Object[] parameters = result.getParameters();
+        return parameters == null || parameters.length == 0 ? name : name + Arrays.toString(parameters);
+    }
+
+    private static String toHtml(String name, PerformanceTest perf, PerformanceMetrics.Statistics stats, boolean exceeded) {
+        String verdict = !exceeded ? "within budget" : perf.failOnExceed() ? "FAILED: over budget" : "over budget (not enforced)";
+        return "<html><body style=\"font-family:sans-serif\">"
+                + "<h3>" + name.replace("&", "&amp;").replace("<", "&lt;") + "</h3>"
+                + "<table border=\"1\" cellpadding=\"6\" style=\"border-collapse:collapse\">"
+                + row("Warmup iterations", String.valueOf(perf.warmupIterations()))
+                + row("Measured iterations", String.valueOf(stats.count))
+                + row("Min", stats.min + " ms")
+                + row("Mean", String.format("%.0f ms (sd %.0f)", stats.average, stats.stdDev))
+                + row("p50", String.format("%.0f ms", stats.median))
+                + row("p90", String.format("%.0f ms", stats.percentile90))
+                + row("p95", String.format("%.0f ms", stats.percentile95))
+                + row("Max", stats.max + " ms")
+                + row("Budget", perf.maxDurationMs() + " ms")
+                + row("Result", verdict)
+                + "</table></body></html>";
+    }
+
+    private static String row(String label, String value) {
+        return "<tr><th align=\"left\">" + label + "</th><td>" + value + "</td></tr>";
+    }
+}
@@ -59,6 +59,10 @@ public final class AllureReportUtils {
         Allure.addAttachment(name, "application/xml", xmlContent, ".xml");
     }
 
+    public static void attachHtml(String name, String htmlContent) {
+        Allure.addAttachment(name, "text/html", htmlContent, ".html");
+    }
+
     public static void setDescription(String description) {
         Allure.description(description);
     }
@@ -0,0 +1,21 @@
+package com.framework.reporting;
+
+import io.qameta.allure.listener.StepLifecycleListener;
+import io.qameta.allure.model.StepResult;
+
+/**
+ * Mirrors Allure steps into {@link SpanTracer} STEP spans.
+ * Registered through META-INF/services so every Allure step is traced without code changes.
+ */
+public class AllureStepTracer implements StepLifecycleListener {
+
+    @Override
+    public void beforeStepStart(StepResult result) {
+        SpanTracer.begin(SpanTracer.Category.STEP, result.getName());
+    }
+
+    @Override
+    public void afterStepStop(StepResult result) {
+        SpanTracer.end();
+    }
+}
@@ -25,6 +25,7 @@ public final class HtmlReportGenerator {
     private static final String REPORT_DIR = "target/reports";
 
     private static final Map<String, TestResult> testResults = new ConcurrentHashMap<>();
+    private static final Map<String, List<DeviceSeries>> deviceSeries = new ConcurrentHashMap<>();
     private static LocalDateTime suiteStartTime;
     private static LocalDateTime suiteEndTime;
     private static String suiteName = "Test Suite";
@@ -36,6 +37,7 @@ public final class HtmlReportGenerator {
         suiteName = name;
         suiteStartTime = LocalDateTime.now();
         testResults.clear();
+        deviceSeries.clear();
     }
 
     public static void endSuite() {
@@ -55,6 +57,21 @@ public final class HtmlReportGenerator {
         testResults.put(className + "." + testName, result);
     }
 
+    /**
+     * Adds a device metric time series for a test, rendered as a chart in the Device Performance section.
+     * @param offsetsMs sample times relative to the test start
+     * @param values    sample values; NaN marks a missed sample
+     */
+    public static void recordDeviceSeries(String testName, String metric, String unit,
+                                          long[] offsetsMs, double[] values) {
+        DeviceSeries series = new DeviceSeries();
+        series.metric = metric;
+        series.unit = unit;
+        series.offsetsMs = offsetsMs;
+        series.values = values;
+        deviceSeries.computeIfAbsent(testName, k -> Collections.synchronizedList(new ArrayList<>())).add(series);
+    }
+
     public static void generateReport() {
         if (suiteEndTime == null) {
             suiteEndTime = LocalDateTime.now();
@@ -108,7 +125,7 @@ public final class HtmlReportGenerator {
         // Header
         writer.println("<div class=\"header\">");
         writer.println("  <h1>🔬 Test Execution Report</h1>");
-        writer.println("  <p>" + suiteName + " | " +
+        writer.println("  <p>" + escape(suiteName) + " | " +
                 suiteStartTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + "</p>");
         writer.println("</div>");
 
@@ -159,16 +176,18 @@ public final class HtmlReportGenerator {
             writer.printf("    <tr class=\"%s\">%n", statusClass);
             writer.printf("      <td><span class=\"status %s\">%s %s</span></td>%n",
                     statusClass, statusIcon, result.status);
-            writer.printf("      <td>%s</td>%n", result.testName);
-            writer.printf("      <td>%s</td>%n", result.className);
+            writer.printf("      <td>%s</td>%n", escape(result.testName));
+            writer.printf("      <td>%s</td>%n", escape(result.className));
             writer.printf("      <td>%s</td>%n", formatDuration(result.durationMs));
-            writer.printf("      <td class=\"error\">%s</td>%n", error);
+            writer.printf("      <td class=\"error\">%s</td>%n", escape(error));
             writer.println("    </tr>");
         }
 
         writer.println("  </tbody>");
         writer.println("</table>");
 
+        writeDevicePerformance(writer);
+
         // Footer
         writer.println("<div class=\"footer\">");
         writer.println("  <p>Generated by MobileX Test Framework</p>");
@@ -178,6 +197,68 @@ public final class HtmlReportGenerator {
         writer.println("</html>");
     }
 
+    private static void writeDevicePerformance(PrintWriter writer) {
+        if (deviceSeries.isEmpty()) {
+            return;
+        }
+        writer.println("<h2 class=\"section\">Device Performance</h2>");
+        List<String> tests = new ArrayList<>(deviceSeries.keySet());
+        Collections.sort(tests);
+        for (String test : tests) {
+            writer.println("<div class=\"device-test\">");
+            writer.printf("  <h3>%s</h3>%n", escape(test));
+            writer.println("  <div class=\"charts\">");
+            synchronized (deviceSeries.get(test)) {
+                for (DeviceSeries series : deviceSeries.get(test)) {
+                    writeChart(writer, series);
+                }
+            }
+            writer.println("  </div>");
+            writer.println("</div>");
+        }
+    }
+
+    private static void writeChart(PrintWriter writer, DeviceSeries series) {
+        final int width = 320;
+        final int height = 100;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum = 0;
+        int n = 0;
+        for (double v : series.values) {
+            if (!Double.isNaN(v)) {
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+                sum += v;
+                n++;
+            }
+        }
+        if (n == 0) {
+            return;
+        }
+        min = Math.min(0, min);
+        double range = max > min ? max - min : 1;
+        long span = Math.max(1, series.offsetsMs[series.offsetsMs.length - 1]);
+
+        StringBuilder points = new StringBuilder();
+        for (int i = 0; i < series.values.length; i++) {
+            if (Double.isNaN(series.values[i])) {
+                continue;
+            }
+            double x = series.offsetsMs.length == 1 ? width / 2.0 : series.offsetsMs[i] * (double) width / span;
+            double y = height - (series.values[i] - min) * height / range;
+            points.append(String.format(Locale.ROOT, "%.1f,%.1f ", x, y));
+        }
+
+        writer.println("    <div class=\"chart\">");
+        writer.printf(Locale.ROOT, "      <p><b>%s</b> avg %.1f %s, peak %.1f %s</p>%n",
+                escape(series.metric), sum / n, escape(series.unit), max, escape(series.unit));
+        writer.printf("      <svg viewBox=\"0 0 %d %d\" preserveAspectRatio=\"none\">"
+                + "<polyline points=\"%s\"/></svg>%n", width, height, points.toString().trim());
+        writer.printf("      <p class=\"axis\">0s – %s</p>%n", formatDuration(span));
+        writer.println("    </div>");
+    }
+
     private static String getStyles() {
         return """
                 * { margin: 0; padding: 0; box-sizing: border-box; }
@@ -214,9 +295,28 @@ public final class HtmlReportGenerator {
                 .error { color: #721c24; font-size: 0.85em; max-width: 300px; 
                          overflow: hidden; text-overflow: ellipsis; white-space: nowrap; }
                 .footer { text-align: center; padding: 30px; color: #666; }
+                h2.section { margin-top: 30px; }
+                .device-test { margin: 0 20px 20px; background: white; border-radius: 10px; padding: 15px;
+                               box-shadow: 0 4px 6px rgba(0,0,0,0.1); }
+                .device-test h3 { margin-bottom: 10px; }
+                .charts { display: flex; flex-wrap: wrap; gap: 15px; }
+                .chart { width: 320px; font-size: 0.85em; }
+                .chart svg { width: 320px; height: 100px; background: #f8f9fa; border-radius: 4px; }
+                .chart polyline { fill: none; stroke: #667eea; stroke-width: 1.5; }
+                .chart .axis { color: #666; text-align: right; }
                 """;
     }
 
+    /**
+     * Escapes text for HTML; test names of parameterised tests may contain markup characters.
+     */
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
     private static String formatDuration(long ms) {
         if (ms < 1000) return ms + "ms";
         if (ms < 60000) return String.format("%.1fs", ms / 1000.0);
@@ -229,6 +329,13 @@ public final class HtmlReportGenerator {
         PASSED, FAILED, SKIPPED
     }
 
+    private static class DeviceSeries {
+        String metric;
+        String unit;
+        long[] offsetsMs;
+        double[] values;
+    }
+
     private static class TestResult {
         String testName;
         String className;
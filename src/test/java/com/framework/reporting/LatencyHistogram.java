@@ -0,0 +1,193 @@
+package com.framework.reporting;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Constant-memory latency histogram with lock-free recording.
+ *
+ * Values below 64 get an exact bucket each; larger values use 32 log-linear sub-buckets per
+ * power of two, so any reported percentile is within ~3% of the true value. Counts are striped
+ * by thread to avoid contention, and stripes are allocated on first use.
+ */
+public final class LatencyHistogram {
+
+    private static final int LINEAR_BUCKETS = 64;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int FIRST_LOG_EXPONENT = 6;
+    static final int BUCKET_COUNT = LINEAR_BUCKETS + (63 - FIRST_LOG_EXPONENT) * SUB_BUCKETS;
+    private static final int STRIPES = Integer.highestOneBit(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final DoubleAdder sumOfSquares = new DoubleAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    /**
+     * Records one value. Negative values are clamped to zero.
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        stripe().incrementAndGet(bucketIndex(v));
+        count.increment();
+        sum.add(v);
+        sumOfSquares.add((double) v * v);
+        min.accumulate(v);
+        max.accumulate(v);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMin() {
+        return getCount() == 0 ? 0 : min.get();
+    }
+
+    public long getMax() {
+        return getCount() == 0 ? 0 : max.get();
+    }
+
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0 : getSum() / (double) n;
+    }
+
+    /**
+     * Population standard deviation.
+     */
+    public double getStdDev() {
+        long n = getCount();
+        if (n == 0) {
+            return 0;
+        }
+        double mean = getMean();
+        return Math.sqrt(Math.max(0, sumOfSquares.sum() / n - mean * mean));
+    }
+
+    /**
+     * Nearest-rank percentile, computed in O(buckets).
+     */
+    public double getPercentile(double percentile) {
+        return snapshot().percentile(percentile);
+    }
+
+    /**
+     * Merges all stripes into a point-in-time view for querying several percentiles at once.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int s = 0; s < STRIPES; s++) {
+            AtomicLongArray stripe = stripes.get(s);
+            if (stripe == null) {
+                continue;
+            }
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long c = stripe.get(i);
+                counts[i] += c;
+                total += c;
+            }
+        }
+        return new Snapshot(counts, total, getMin(), getMax());
+    }
+
+    public void reset() {
+        for (int s = 0; s < STRIPES; s++) {
+            stripes.set(s, null);
+        }
+        count.reset();
+        sum.reset();
+        sumOfSquares.reset();
+        min.reset();
+        max.reset();
+    }
+
+    private AtomicLongArray stripe() {
+        int index = (int) (Thread.currentThread().getId() & (STRIPES - 1));
+        AtomicLongArray stripe = stripes.get(index);
+        if (stripe == null) {
+            stripes.compareAndSet(index, null, new AtomicLongArray(BUCKET_COUNT));
+            stripe = stripes.get(index);
+        }
+        return stripe;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (exponent - FIRST_LOG_EXPONENT) * SUB_BUCKETS + sub;
+    }
+
+    static long bucketLowerBound(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int offset = index - LINEAR_BUCKETS;
+        int exponent = FIRST_LOG_EXPONENT + offset / SUB_BUCKETS;
+        int sub = offset % SUB_BUCKETS;
+        return (1L << exponent) | ((long) sub << (exponent - SUB_BUCKET_BITS));
+    }
+
+    static long bucketWidth(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return 1;
+        }
+        int exponent = FIRST_LOG_EXPONENT + (index - LINEAR_BUCKETS) / SUB_BUCKETS;
+        return 1L << (exponent - SUB_BUCKET_BITS);
+    }
+
+    // ==================== Data Classes ====================
+
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long total;
+        private final long min;
+        private final long max;
+
+        private Snapshot(long[] counts, long total, long min, long max) {
+            this.counts = counts;
+            this.total = total;
+            this.min = min;
+            this.max = max;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        /**
+         * Value at the given percentile: the bucket midpoint, clamped to the observed min/max.
+         */
+        public double percentile(double percentile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil((percentile / 100.0) * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    long width = bucketWidth(i);
+                    long value = bucketLowerBound(i) + (width - 1) / 2;
+                    return Math.max(min, Math.min(max, value));
+                }
+            }
+            return max;
+        }
+    }
+}
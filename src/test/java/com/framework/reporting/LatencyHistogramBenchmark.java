@@ -0,0 +1,62 @@
+package com.framework.reporting;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Record throughput of {@link LatencyHistogram} against the synchronized sample list it replaced
+ * in PerformanceMetrics, with 8 threads recording into one metric.
+ *
+ * Run with {@code mvn test-compile exec:java -Dexec.mainClass=com.framework.reporting.LatencyHistogramBenchmark -Dexec.classpathScope=test}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LatencyHistogramBenchmark {
+
+    private LatencyHistogram histogram;
+    private List<Long> samples;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        histogram = new LatencyHistogram();
+        samples = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @Benchmark
+    public void histogramRecord() {
+        histogram.record(ThreadLocalRandom.current().nextLong(1, 5_000));
+    }
+
+    @Benchmark
+    public void synchronizedListAdd() {
+        samples.add(ThreadLocalRandom.current().nextLong(1, 5_000));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LatencyHistogramBenchmark.class.getSimpleName()).build()).run();
+    }
+}
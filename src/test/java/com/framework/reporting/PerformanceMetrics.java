@@ -3,7 +3,6 @@ package com.framework.reporting;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -16,34 +15,69 @@ public final class PerformanceMetrics {
     private static final Logger log = LogManager.getLogger(PerformanceMetrics.class);
 
     // Metrics storage
-    private static final Map<String, List<Long>> pageLoadTimes = new ConcurrentHashMap<>();
-    private static final Map<String, List<Long>> actionTimes = new ConcurrentHashMap<>();
-    private static final Map<String, Instant> activeTimers = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> pageLoadTimes = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> actionTimes = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Timer> currentTimer = new ThreadLocal<>();
+    private static final ThreadLocal<Map<String, Timer>> legacyTimers = ThreadLocal.withInitial(HashMap::new);
     private static final List<MemorySnapshot> memorySnapshots = Collections.synchronizedList(new ArrayList<>());
+    private static final List<NetworkUsage> networkUsages = Collections.synchronizedList(new ArrayList<>());
+    private static final List<HeapPeak> heapPeaks = Collections.synchronizedList(new ArrayList<>());
 
     private PerformanceMetrics() {
     }
 
     // ==================== Timer Operations ====================
 
+    /**
+     * Starts a scoped timer recorded as an action time when closed:
+     * {@code try (PerformanceMetrics.Timer t = PerformanceMetrics.time("login")) { ... }}
+     */
+    public static Timer time(String actionName) {
+        return new Timer(actionName, Timer.Kind.ACTION, true);
+    }
+
+    /**
+     * Starts a scoped timer recorded as a page load time when closed.
+     */
+    public static Timer timePageLoad(String pageName) {
+        return new Timer(pageName, Timer.Kind.PAGE_LOAD, true);
+    }
+
+    /**
+     * Innermost open timer on the current thread, or null.
+     */
+    public static Timer currentTimer() {
+        return currentTimer.get();
+    }
+
     /**
      * Starts a named timer.
+     * @deprecated use {@link #time(String)}; kept as a per-thread shim over scoped timers. Legacy
+     * timers never become the parent of other timers, so one left running does not nest later ones.
      */
+    @Deprecated
     public static void startTimer(String name) {
-        activeTimers.put(name, Instant.now());
+        Timer previous = legacyTimers.get().put(name, new Timer(name, Timer.Kind.UNRECORDED, false));
+        if (previous != null) {
+            previous.close();
+            log.warn("Timer '{}' restarted before it was stopped", name);
+        }
         log.debug("Timer started: {}", name);
     }
 
     /**
      * Stops a timer and returns elapsed milliseconds.
+     * @deprecated use {@link #time(String)}; kept as a per-thread shim over scoped timers
      */
+    @Deprecated
     public static long stopTimer(String name) {
-        Instant start = activeTimers.remove(name);
-        if (start == null) {
+        Timer timer = legacyTimers.get().remove(name);
+        if (timer == null) {
             log.warn("Timer '{}' was not started", name);
             return 0;
         }
-        long elapsed = Duration.between(start, Instant.now()).toMillis();
+        timer.close();
+        long elapsed = timer.elapsedMillis();
         log.debug("Timer stopped: {} - {}ms", name, elapsed);
         return elapsed;
     }
@@ -51,6 +85,7 @@ public final class PerformanceMetrics {
     /**
      * Stops timer and records as page load time.
      */
+    @Deprecated
     public static long stopTimerAsPageLoad(String pageName) {
         long elapsed = stopTimer(pageName);
         recordPageLoadTime(pageName, elapsed);
@@ -60,6 +95,7 @@ public final class PerformanceMetrics {
     /**
      * Stops timer and records as action time.
      */
+    @Deprecated
     public static long stopTimerAsAction(String actionName) {
         long elapsed = stopTimer(actionName);
         recordActionTime(actionName, elapsed);
@@ -72,8 +108,7 @@ public final class PerformanceMetrics {
      * Records page load time.
      */
     public static void recordPageLoadTime(String pageName, long timeMs) {
-        pageLoadTimes.computeIfAbsent(pageName, k -> Collections.synchronizedList(new ArrayList<>()))
-                     .add(timeMs);
+        pageLoadTimes.computeIfAbsent(pageName, k -> new LatencyHistogram()).record(timeMs);
         log.info("Page '{}' loaded in {}ms", pageName, timeMs);
     }
 
@@ -81,8 +116,7 @@ public final class PerformanceMetrics {
      * Records action execution time.
      */
     public static void recordActionTime(String actionName, long timeMs) {
-        actionTimes.computeIfAbsent(actionName, k -> Collections.synchronizedList(new ArrayList<>()))
-                   .add(timeMs);
+        actionTimes.computeIfAbsent(actionName, k -> new LatencyHistogram()).record(timeMs);
         log.debug("Action '{}' completed in {}ms", actionName, timeMs);
     }
 
@@ -104,6 +138,32 @@ public final class PerformanceMetrics {
                 label, snapshot.usedMemory / (1024 * 1024), snapshot.freeMemory / (1024 * 1024));
     }
 
+    /**
+     * Records the peak heap increase observed during an operation.
+     */
+    public static void recordHeapPeak(String label, long peakIncreaseBytes) {
+        HeapPeak peak = new HeapPeak();
+        peak.label = label;
+        peak.timestamp = Instant.now();
+        peak.peakIncreaseBytes = peakIncreaseBytes;
+
+        heapPeaks.add(peak);
+        log.debug("Heap peak '{}': +{}KB", label, peakIncreaseBytes / 1024);
+    }
+
+    /**
+     * Records bytes received and sent by the app under test during a test or flow.
+     */
+    public static void recordNetworkTraffic(String label, long rxBytes, long txBytes) {
+        NetworkUsage usage = new NetworkUsage();
+        usage.label = label;
+        usage.timestamp = Instant.now();
+        usage.rxBytes = rxBytes;
+        usage.txBytes = txBytes;
+        networkUsages.add(usage);
+        log.debug("Network '{}': rx={}KB, tx={}KB", label, rxBytes / 1024, txBytes / 1024);
+    }
+
     // ==================== Statistics ====================
 
     /**
@@ -111,7 +171,7 @@ public final class PerformanceMetrics {
      */
     public static Map<String, Statistics> getPageLoadStatistics() {
         Map<String, Statistics> stats = new LinkedHashMap<>();
-        for (Map.Entry<String, List<Long>> entry : pageLoadTimes.entrySet()) {
+        for (Map.Entry<String, LatencyHistogram> entry : pageLoadTimes.entrySet()) {
             stats.put(entry.getKey(), calculateStatistics(entry.getValue()));
         }
         return stats;
@@ -122,12 +182,26 @@ public final class PerformanceMetrics {
      */
     public static Map<String, Statistics> getActionStatistics() {
         Map<String, Statistics> stats = new LinkedHashMap<>();
-        for (Map.Entry<String, List<Long>> entry : actionTimes.entrySet()) {
+        for (Map.Entry<String, LatencyHistogram> entry : actionTimes.entrySet()) {
             stats.put(entry.getKey(), calculateStatistics(entry.getValue()));
         }
         return stats;
     }
 
+    /**
+     * Gets statistics for a single action; empty statistics if it was never recorded.
+     */
+    public static Statistics getActionStatistics(String actionName) {
+        return calculateStatistics(actionTimes.get(actionName));
+    }
+
+    /**
+     * Discards recorded times for an action, e.g. before re-measuring a retried benchmark.
+     */
+    public static void clearActionTimes(String actionName) {
+        actionTimes.remove(actionName);
+    }
+
     /**
      * Gets memory snapshots.
      */
@@ -135,6 +209,24 @@ public final class PerformanceMetrics {
         return new ArrayList<>(memorySnapshots);
     }
 
+    /**
+     * Gets recorded heap peaks.
+     */
+    public static List<HeapPeak> getHeapPeaks() {
+        synchronized (heapPeaks) {
+            return new ArrayList<>(heapPeaks);
+        }
+    }
+
+    /**
+     * Gets recorded app network usage.
+     */
+    public static List<NetworkUsage> getNetworkUsages() {
+        synchronized (networkUsages) {
+            return new ArrayList<>(networkUsages);
+        }
+    }
+
     /**
      * Generates performance summary report.
      */
@@ -166,6 +258,23 @@ public final class PerformanceMetrics {
                     snapshot.totalMemory / (1024 * 1024)));
         }
 
+        List<HeapPeak> peaks = getHeapPeaks();
+        if (!peaks.isEmpty()) {
+            sb.append("\n--- Heap Peaks ---\n");
+            for (HeapPeak peak : peaks) {
+                sb.append(String.format("  %s: +%dKB\n", peak.label, peak.peakIncreaseBytes / 1024));
+            }
+        }
+
+        List<NetworkUsage> usages = getNetworkUsages();
+        if (!usages.isEmpty()) {
+            sb.append("\n--- App Network Traffic ---\n");
+            for (NetworkUsage usage : usages) {
+                sb.append(String.format("  %s: rx=%.1fKB, tx=%.1fKB\n",
+                        usage.label, usage.rxBytes / 1024.0, usage.txBytes / 1024.0));
+            }
+        }
+
         sb.append("\n==========================================\n");
         return sb.toString();
     }
@@ -176,48 +285,35 @@ public final class PerformanceMetrics {
     public static void clearAll() {
         pageLoadTimes.clear();
         actionTimes.clear();
-        activeTimers.clear();
+        legacyTimers.get().clear();
         memorySnapshots.clear();
+        networkUsages.clear();
+        heapPeaks.clear();
     }
 
-    private static Statistics calculateStatistics(List<Long> values) {
+    private static Statistics calculateStatistics(LatencyHistogram histogram) {
         Statistics stats = new Statistics();
-        if (values == null || values.isEmpty()) {
+        if (histogram == null || histogram.getCount() == 0) {
             return stats;
         }
 
-        List<Long> sorted = new ArrayList<>(values);
-        Collections.sort(sorted);
-
-        stats.count = values.size();
-        stats.min = sorted.get(0);
-        stats.max = sorted.get(sorted.size() - 1);
-        stats.sum = values.stream().mapToLong(Long::longValue).sum();
-        stats.average = stats.sum / (double) stats.count;
+        stats.count = (int) Math.min(Integer.MAX_VALUE, histogram.getCount());
+        stats.min = histogram.getMin();
+        stats.max = histogram.getMax();
+        stats.sum = histogram.getSum();
+        stats.average = histogram.getMean();
+        stats.stdDev = histogram.getStdDev();
 
-        // Standard deviation
-        double variance = values.stream()
-                .mapToDouble(v -> Math.pow(v - stats.average, 2))
-                .average()
-                .orElse(0);
-        stats.stdDev = Math.sqrt(variance);
-
-        // Percentiles
-        stats.median = getPercentile(sorted, 50);
-        stats.percentile90 = getPercentile(sorted, 90);
-        stats.percentile95 = getPercentile(sorted, 95);
-        stats.percentile99 = getPercentile(sorted, 99);
+        // Percentiles (bucketed, within ~3% of the exact value)
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        stats.median = snapshot.percentile(50);
+        stats.percentile90 = snapshot.percentile(90);
+        stats.percentile95 = snapshot.percentile(95);
+        stats.percentile99 = snapshot.percentile(99);
 
         return stats;
     }
 
-    private static double getPercentile(List<Long> sorted, int percentile) {
-        if (sorted.isEmpty()) return 0;
-        int index = (int) Math.ceil((percentile / 100.0) * sorted.size()) - 1;
-        index = Math.max(0, Math.min(index, sorted.size() - 1));
-        return sorted.get(index);
-    }
-
     // ==================== Data Classes ====================
 
     public static class Statistics {
@@ -239,6 +335,93 @@ public final class PerformanceMetrics {
         }
     }
 
+    /**
+     * Monotonic scoped timer. Timers opened while another is open on the same thread become its
+     * children, so nested operations form a parent/child tree per thread.
+     */
+    public static final class Timer implements AutoCloseable {
+
+        enum Kind { ACTION, PAGE_LOAD, UNRECORDED }
+
+        private final String name;
+        private final Kind kind;
+        private final Timer parent;
+        private final int depth;
+        private final long startNanos;
+        private long elapsedNanos = -1;
+
+        /**
+         * @param nested whether the timer takes part in the per-thread nesting (scoped timers do)
+         */
+        private Timer(String name, Kind kind, boolean nested) {
+            this.name = name;
+            this.kind = kind;
+            this.parent = nested ? currentTimer.get() : null;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+            this.startNanos = System.nanoTime();
+            if (nested) {
+                currentTimer.set(this);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Timer getParent() {
+            return parent;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * Slash-separated names from the outermost timer down to this one.
+         */
+        public String getPath() {
+            return parent == null ? name : parent.getPath() + "/" + name;
+        }
+
+        public boolean isClosed() {
+            return elapsedNanos >= 0;
+        }
+
+        public long elapsedNanos() {
+            return isClosed() ? elapsedNanos : System.nanoTime() - startNanos;
+        }
+
+        public long elapsedMillis() {
+            return elapsedNanos() / 1_000_000;
+        }
+
+        @Override
+        public void close() {
+            if (isClosed()) {
+                return;
+            }
+            elapsedNanos = System.nanoTime() - startNanos;
+            SpanTracer.record(SpanTracer.Category.TIMER, name, startNanos, elapsedNanos);
+            // Pop this timer and any ancestors already closed out of order
+            if (currentTimer.get() == this) {
+                Timer open = parent;
+                while (open != null && open.isClosed()) {
+                    open = open.parent;
+                }
+                if (open == null) {
+                    currentTimer.remove();
+                } else {
+                    currentTimer.set(open);
+                }
+            }
+            switch (kind) {
+                case ACTION -> recordActionTime(name, elapsedMillis());
+                case PAGE_LOAD -> recordPageLoadTime(name, elapsedMillis());
+                default -> { }
+            }
+        }
+    }
+
     public static class MemorySnapshot {
         public String label;
         public Instant timestamp;
@@ -247,5 +430,17 @@ public final class PerformanceMetrics {
         public long usedMemory;
         public long maxMemory;
     }
-}
 
+    public static class HeapPeak {
+        public String label;
+        public Instant timestamp;
+        public long peakIncreaseBytes;
+    }
+
+    public static class NetworkUsage {
+        public String label;
+        public Instant timestamp;
+        public long rxBytes;
+        public long txBytes;
+    }
+}
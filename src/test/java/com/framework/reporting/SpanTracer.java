@@ -0,0 +1,371 @@
+package com.framework.reporting;
+
+import io.qameta.allure.Allure;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpRequest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+/**
+ * Low-overhead hierarchical span tracer exported as Chrome trace-event JSON
+ * (open in https://ui.perfetto.dev or chrome://tracing).
+ *
+ * Each thread appends to its own primitive-array buffer, so recording takes no locks and
+ * allocates nothing per span. Nesting comes from begin/end order on the thread; each device
+ * is shown as its own process in the viewer.
+ */
+public final class SpanTracer {
+
+    private static final Logger log = LogManager.getLogger(SpanTracer.class);
+    private static final String TRACE_DIR = "target/traces";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_EVENTS_PER_THREAD = 1 << 20;
+    private static final int MAX_DEPTH = 256;
+    private static final Pattern SESSION_PATH = Pattern.compile("/session/[^/]+");
+    private static final Pattern ELEMENT_ID = Pattern.compile("/element/[^/]+");
+
+    private static final Map<String, Integer> nameIds = new ConcurrentHashMap<>();
+    private static final List<String> names = new CopyOnWriteArrayList<>();
+    private static final Map<String, Integer> deviceIds = new ConcurrentHashMap<>();
+    private static final List<String> devices = new CopyOnWriteArrayList<>();
+    private static final List<Buffer> buffers = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<Buffer> localBuffer = ThreadLocal.withInitial(() -> {
+        Buffer buffer = new Buffer(Thread.currentThread());
+        buffers.add(buffer);
+        return buffer;
+    });
+    private static final long originNanos = System.nanoTime();
+    private static volatile boolean enabled = true;
+
+    private SpanTracer() {
+    }
+
+    public enum Category {
+        TEST, STEP, PAGE, WAIT, DRIVER, TIMER;
+
+        final String label = name().toLowerCase();
+    }
+
+    // ==================== Recording ====================
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the device shown for spans subsequently recorded on this thread.
+     */
+    public static void setDevice(String deviceId) {
+        localBuffer.get().currentDevice = deviceId(deviceId == null ? "unknown" : deviceId);
+    }
+
+    /**
+     * Opens a span on this thread. Close the returned per-thread scope (try-with-resources) to end it.
+     */
+    public static Scope begin(Category category, String name) {
+        Buffer buffer = localBuffer.get();
+        if (enabled) {
+            buffer.push(category, nameId(name));
+        } else {
+            buffer.skippedDepth++;
+        }
+        return buffer.scope;
+    }
+
+    /**
+     * Ends the innermost span opened on this thread, e.g. when begin and end live in different hooks.
+     */
+    public static void end() {
+        localBuffer.get().pop();
+    }
+
+    /**
+     * Records an already measured span, e.g. from a PerformanceMetrics timer.
+     */
+    public static void record(Category category, String name, long startNanos, long durationNanos) {
+        if (enabled) {
+            localBuffer.get().append(category, nameId(name), startNanos, durationNanos);
+        }
+    }
+
+    /**
+     * Records a zero-length marker.
+     */
+    public static void instant(Category category, String name) {
+        if (enabled) {
+            localBuffer.get().append(category, nameId(name), System.nanoTime(), -1);
+        }
+    }
+
+    /**
+     * HTTP filter for the driver's client config that records each command as a DRIVER span.
+     */
+    public static Filter driverCommandFilter() {
+        return next -> request -> {
+            if (!enabled) {
+                return next.execute(request);
+            }
+            try (Scope ignored = begin(Category.DRIVER, commandName(request))) {
+                return next.execute(request);
+            }
+        };
+    }
+
+    private static String commandName(HttpRequest request) {
+        String path = SESSION_PATH.matcher(request.getUri()).replaceFirst("");
+        path = ELEMENT_ID.matcher(path).replaceAll("/element/:id");
+        return request.getMethod() + " " + (path.isEmpty() ? "/" : path);
+    }
+
+    private static int nameId(String name) {
+        Integer id = nameIds.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (names) {
+            return nameIds.computeIfAbsent(name, n -> {
+                names.add(n);
+                return names.size() - 1;
+            });
+        }
+    }
+
+    private static int deviceId(String device) {
+        synchronized (devices) {
+            return deviceIds.computeIfAbsent(device, d -> {
+                devices.add(d);
+                return devices.size();
+            });
+        }
+    }
+
+    // ==================== Export ====================
+
+    /**
+     * Writes all recorded spans as Chrome trace-event JSON and attaches the file to Allure.
+     */
+    public static Path exportAndAttach() {
+        Path file = Paths.get(TRACE_DIR, "trace_" + LocalDateTime.now().format(TIMESTAMP_FORMAT) + ".json");
+        try {
+            writeChromeTrace(file);
+            try (InputStream in = Files.newInputStream(file)) {
+                Allure.addAttachment("Trace (open in ui.perfetto.dev)", "application/json", in, ".json");
+            }
+            log.info("Trace written to {}", file.toAbsolutePath());
+            return file;
+        } catch (IOException e) {
+            log.error("Failed to write trace: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public static void writeChromeTrace(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        long dropped = 0;
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+            boolean first = true;
+            for (int d = 0; d < devices.size(); d++) {
+                first = writeSeparator(w, first);
+                w.write("{\"ph\":\"M\",\"name\":\"process_name\",\"pid\":" + (d + 1)
+                        + ",\"args\":{\"name\":\"" + escape(devices.get(d)) + "\"}}");
+            }
+            for (Buffer buffer : buffers) {
+                int size = buffer.size;
+                long[] start = buffer.start;
+                long[] duration = buffer.duration;
+                int[] name = buffer.name;
+                byte[] category = buffer.category;
+                int[] device = buffer.deviceIdx;
+                dropped += buffer.dropped;
+                boolean[] seenDevice = new boolean[devices.size() + 1];
+                for (int i = 0; i < size; i++) {
+                    first = writeSeparator(w, first);
+                    int pid = device[i];
+                    w.write("{\"name\":\"" + escape(names.get(name[i]))
+                            + "\",\"cat\":\"" + Category.values()[category[i]].label
+                            + "\",\"pid\":" + pid + ",\"tid\":" + buffer.threadId
+                            + ",\"ts\":" + micros(start[i] - originNanos));
+                    if (duration[i] < 0) {
+                        w.write(",\"ph\":\"i\",\"s\":\"t\"}");
+                    } else {
+                        w.write(",\"ph\":\"X\",\"dur\":" + micros(duration[i]) + "}");
+                    }
+                    if (pid < seenDevice.length && !seenDevice[pid]) {
+                        seenDevice[pid] = true;
+                        w.write(",\n{\"ph\":\"M\",\"name\":\"thread_name\",\"pid\":" + pid
+                                + ",\"tid\":" + buffer.threadId
+                                + ",\"args\":{\"name\":\"" + escape(buffer.threadName) + "\"}}");
+                    }
+                }
+            }
+            w.write("\n]}\n");
+        }
+        if (dropped > 0) {
+            log.warn("Trace buffers were full; {} span(s) dropped", dropped);
+        }
+    }
+
+    /**
+     * Discards everything recorded so far (open spans on other threads are kept).
+     */
+    public static void clear() {
+        for (Buffer buffer : buffers) {
+            buffer.size = 0;
+            buffer.dropped = 0;
+        }
+    }
+
+    private static boolean writeSeparator(BufferedWriter w, boolean first) throws IOException {
+        if (!first) {
+            w.write(",\n");
+        }
+        return false;
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1000.0);
+    }
+
+    private static String escape(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 8);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    // ==================== Per-thread Buffer ====================
+
+    /**
+     * Reusable handle returned by {@link #begin}; closing it ends the innermost open span.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final Buffer buffer;
+
+        private Scope(Buffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void close() {
+            buffer.pop();
+        }
+    }
+
+    /**
+     * Completed spans as parallel primitive arrays, written only by the owning thread.
+     * {@code size} is volatile so the exporter sees fully written entries.
+     */
+    private static final class Buffer {
+        final long threadId;
+        final String threadName;
+        final Scope scope = new Scope(this);
+        long[] start = new long[INITIAL_CAPACITY];
+        long[] duration = new long[INITIAL_CAPACITY];
+        int[] name = new int[INITIAL_CAPACITY];
+        byte[] category = new byte[INITIAL_CAPACITY];
+        int[] deviceIdx = new int[INITIAL_CAPACITY];
+        volatile int size;
+        long dropped;
+        int currentDevice;
+
+        // Open spans; skippedDepth counts begins that were not recorded (disabled or too deep)
+        final long[] openStart = new long[MAX_DEPTH];
+        final int[] openName = new int[MAX_DEPTH];
+        final byte[] openCategory = new byte[MAX_DEPTH];
+        int depth;
+        int skippedDepth;
+
+        Buffer(Thread thread) {
+            this.threadId = thread.getId();
+            this.threadName = thread.getName();
+            this.currentDevice = deviceId("host");
+        }
+
+        void push(Category cat, int nameId) {
+            if (depth == MAX_DEPTH) {
+                skippedDepth++;
+                return;
+            }
+            openName[depth] = nameId;
+            openCategory[depth] = (byte) cat.ordinal();
+            openStart[depth++] = System.nanoTime();
+        }
+
+        void pop() {
+            long now = System.nanoTime();
+            if (skippedDepth > 0) {
+                skippedDepth--;
+                return;
+            }
+            if (depth == 0) {
+                return;
+            }
+            depth--;
+            appendRaw(openCategory[depth], openName[depth], openStart[depth], now - openStart[depth]);
+        }
+
+        void append(Category cat, int nameId, long startNanos, long durationNanos) {
+            appendRaw((byte) cat.ordinal(), nameId, startNanos, durationNanos);
+        }
+
+        private void appendRaw(byte cat, int nameId, long startNanos, long durationNanos) {
+            int n = size;
+            if (n == start.length) {
+                if (n >= MAX_EVENTS_PER_THREAD) {
+                    dropped++;
+                    return;
+                }
+                int grown = Math.min(MAX_EVENTS_PER_THREAD, n * 2);
+                start = Arrays.copyOf(start, grown);
+                duration = Arrays.copyOf(duration, grown);
+                name = Arrays.copyOf(name, grown);
+                category = Arrays.copyOf(category, grown);
+                deviceIdx = Arrays.copyOf(deviceIdx, grown);
+            }
+            start[n] = startNanos;
+            duration[n] = durationNanos;
+            name[n] = nameId;
+            category[n] = cat;
+            deviceIdx[n] = currentDevice;
+            size = n + 1;
+        }
+    }
+}
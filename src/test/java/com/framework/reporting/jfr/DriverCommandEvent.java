@@ -0,0 +1,55 @@
+package com.framework.reporting.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+/**
+ * One HTTP command sent to the Appium server.
+ */
+@Name("com.framework.DriverCommand")
+@Label("Driver Command")
+@Category({"MobileX", "Driver"})
+@Description("WebDriver/Appium command round trip")
+public class DriverCommandEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Path")
+    public String path;
+
+    @Label("HTTP Status")
+    public int status;
+
+    /**
+     * HTTP filter emitting one event per command; does nothing unless a recording is active.
+     */
+    public static Filter filter() {
+        return next -> request -> {
+            DriverCommandEvent event = new DriverCommandEvent();
+            if (!event.isEnabled()) {
+                return next.execute(request);
+            }
+            event.begin();
+            int status = -1;
+            try {
+                HttpResponse response = next.execute(request);
+                status = response.getStatus();
+                return response;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.method = String.valueOf(request.getMethod());
+                    event.path = request.getUri();
+                    event.status = status;
+                    event.commit();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package com.framework.reporting.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A page object action such as click or type.
+ */
+@Name("com.framework.PageAction")
+@Label("Page Action")
+@Category({"MobileX", "Pages"})
+@Description("Interaction performed through a BasePage helper")
+public class PageActionEvent extends Event {
+
+    @Label("Test")
+    @Description("Test running on the thread, as class.method")
+    public String testName;
+
+    @Label("Page")
+    public String page;
+
+    @Label("Action")
+    public String action;
+
+    @Label("Locator")
+    public String locator;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,33 @@
+package com.framework.reporting.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A screenshot or stream frame capture.
+ */
+@Name("com.framework.Screenshot")
+@Label("Screenshot")
+@Category({"MobileX", "Screenshots"})
+@Description("Screen capture through the driver or the MJPEG stream")
+public class ScreenshotEvent extends Event {
+
+    @Label("Test")
+    @Description("Test running on the thread, as class.method")
+    public String testName;
+
+    @Label("Source")
+    @Description("driver or mjpeg")
+    public String source;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Outcome")
+    public String outcome;
+}
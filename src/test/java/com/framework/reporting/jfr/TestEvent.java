@@ -0,0 +1,64 @@
+package com.framework.reporting.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One test method, from BaseTest.methodSetUp to methodTearDown.
+ */
+@Name("com.framework.Test")
+@Label("Test")
+@Category({"MobileX", "Tests"})
+@Description("Test method execution including framework setup and teardown")
+public class TestEvent extends Event {
+
+    private static final ThreadLocal<TestEvent> current = new ThreadLocal<>();
+    private static final ThreadLocal<String> currentTest = new ThreadLocal<>();
+
+    @Label("Test Class")
+    public String testClass;
+
+    @Label("Test Name")
+    public String testName;
+
+    @Label("Outcome")
+    public String outcome;
+
+    /**
+     * Starts the event for the test running on this thread.
+     */
+    public static void started(String testClass, String testName) {
+        currentTest.set(testClass + "." + testName);
+        TestEvent event = new TestEvent();
+        if (event.isEnabled()) {
+            event.testClass = testClass;
+            event.testName = testName;
+            event.begin();
+            current.set(event);
+        }
+    }
+
+    /**
+     * Commits the event started on this thread, if any.
+     */
+    public static void finished(String outcome) {
+        currentTest.remove();
+        TestEvent event = current.get();
+        if (event != null) {
+            current.remove();
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    /**
+     * The test running on this thread as class.method, or null outside a test; set on the other
+     * framework events so they can be filtered per test.
+     */
+    public static String currentTestName() {
+        return currentTest.get();
+    }
+}
@@ -0,0 +1,28 @@
+package com.framework.reporting.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A framework wait (WaitUtils or BasePage).
+ */
+@Name("com.framework.Wait")
+@Label("Wait")
+@Category({"MobileX", "Waits"})
+@Description("Explicit or fluent wait for a UI condition")
+public class WaitEvent extends Event {
+
+    @Label("Condition")
+    public String condition;
+
+    @Label("Test")
+    @Description("Test running on the thread, as class.method")
+    public String testName;
+
+    @Label("Outcome")
+    @Description("satisfied, timeout or error")
+    public String outcome;
+}
@@ -30,18 +30,37 @@ public class ExampleEnhancedTest extends BaseTest {
         step("Starting performance test");
 
         // Track page load
-        PerformanceMetrics.startTimer("homepage_load");
+        PerformanceMetrics.startTimer("homepage");
         WaitUtils.hardWait(500); // Simulate page load
         PerformanceMetrics.stopTimerAsPageLoad("homepage");
 
         // Track action
-        PerformanceMetrics.startTimer("button_click");
+        PerformanceMetrics.startTimer("click_login");
         WaitUtils.hardWait(200); // Simulate action
         PerformanceMetrics.stopTimerAsAction("click_login");
 
         step("Performance metrics recorded successfully");
     }
 
+    @Test(description = "Demonstrates scoped performance timers")
+    @Story("Performance Metrics")
+    @PerformanceTest(maxDurationMs = 10000, logMetrics = true)
+    public void testScopedPerformanceTimers() {
+        step("Starting scoped timer test");
+
+        // Track page load; recorded when the block exits, even on exceptions
+        try (PerformanceMetrics.Timer pageLoad = PerformanceMetrics.timePageLoad("homepage")) {
+            WaitUtils.hardWait(500); // Simulate page load
+        }
+
+        // Track action
+        try (PerformanceMetrics.Timer click = PerformanceMetrics.time("click_login")) {
+            WaitUtils.hardWait(200); // Simulate action
+        }
+
+        step("Scoped performance metrics recorded successfully");
+    }
+
     @Test(description = "Demonstrates soft assertions")
     @Story("Soft Assertions")
     public void testSoftAssertions() {
@@ -0,0 +1,59 @@
+package com.framework.tests;
+
+import com.framework.annotations.TestInfo;
+import com.framework.base.BaseTest;
+import com.framework.config.Config;
+import com.framework.utils.LaunchBenchmark;
+import com.framework.utils.StatisticsUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cold and warm launch benchmark of the app under test. Run with {@code mvn test -Plocal,launch-benchmark};
+ * set {@code launch.benchmark.update.baseline=true} to store the run as the new baseline.
+ */
+@TestInfo(priority = "Performance", component = "Launch")
+public class LaunchBenchmarkTest extends BaseTest {
+
+    private final List<LaunchBenchmark.Result> results = new ArrayList<>();
+
+    @Test
+    public void coldLaunch() {
+        benchmark(LaunchBenchmark.Mode.COLD);
+    }
+
+    @Test(dependsOnMethods = "coldLaunch", alwaysRun = true)
+    public void warmLaunch() {
+        benchmark(LaunchBenchmark.Mode.WARM);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void storeBaseline() {
+        if (Config.get().launchBenchmarkUpdateBaseline() && !results.isEmpty()) {
+            LaunchBenchmark.saveBaseline(results.toArray(new LaunchBenchmark.Result[0]));
+        }
+    }
+
+    private void benchmark(LaunchBenchmark.Mode mode) {
+        LaunchBenchmark.Result result = LaunchBenchmark.run(mode);
+        Assert.assertTrue(result.totalTime.count > 0, "No launch times were measured for " + mode);
+        results.add(result);
+        attachText(mode + " launch", result.toString());
+
+        StatisticsUtils.Comparison comparison = LaunchBenchmark.compareToBaseline(result);
+        if (comparison == null) {
+            step("No " + mode + " launch baseline stored yet");
+            return;
+        }
+        attachText(mode + " launch vs baseline", comparison.toString());
+        if (!Config.get().launchBenchmarkUpdateBaseline()) {
+            Assert.assertFalse(comparison.isSignificantIncrease()
+                            && comparison.relativeChangePercent > Config.get().launchBenchmarkMaxRegressionPercent(),
+                    mode + " launch regressed: " + comparison);
+        }
+    }
+}
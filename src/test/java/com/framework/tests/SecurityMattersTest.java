@@ -3,8 +3,11 @@ package com.framework.tests;
 import com.framework.annotations.TestInfo;
 import com.framework.base.BaseTest;
 import com.framework.pages.SecurityMattersPage;
+import com.framework.utils.WaitUtils;
 import io.appium.java_client.AppiumBy;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -23,13 +26,18 @@ public class SecurityMattersTest extends BaseTest {
     }
 
     @Test(priority = 1)
-    public void testAgreeAndContinueButtonClickable() throws InterruptedException {
+    public void testAgreeAndContinueButtonClickable() {
         SecurityMattersPage page = new SecurityMattersPage(getDriver())
                 .verifyHeadingIsVisible();
 
         page.tapAgreeAndContinue();
         // If needed, add assertions for the next screen here once defined
-        Thread.sleep(3000); // Temporary wait to observe the transition; replace with proper wait in real tests
+        // Animations are off during the run, so the next screen is usable as soon as it is in the hierarchy:
+        // this screen's heading gone and the scrollable terms in its place
+        WaitUtils.waitUntil(ExpectedConditions.invisibilityOfElementLocated(
+                AppiumBy.androidUIAutomator("new UiSelector().text(\"Security matters\")")));
+        WaitUtils.waitUntil(ExpectedConditions.presenceOfElementLocated(
+                AppiumBy.androidUIAutomator("new UiSelector().scrollable(true)")));
 
         // perform scroll to bottom to verify we are on next screen
         // using UIAutomator scroll as an example
@@ -38,13 +46,15 @@ public class SecurityMattersTest extends BaseTest {
         getDriver().findElement(AppiumBy.androidUIAutomator("new UiScrollable(new UiSelector().scrollable(true)).scrollIntoView("
                 + "new UiSelector().textContains(\"Glossary\"))"));
 
-        getDriver().findElement(AppiumBy.androidUIAutomator("new UiSelector().textContains(\"I agree to the\")")).click();
+        By agreeCheckbox = AppiumBy.androidUIAutomator("new UiSelector().textContains(\"I agree to the\")");
+        getDriver().findElement(agreeCheckbox).click();
         WebElement continueBtn = getDriver().findElement(AppiumBy.androidUIAutomator("new UiSelector().textContains(\"Continue\")"));
 
         if (continueBtn.isEnabled()) {
             continueBtn.click();
+            // Transition is done once the terms screen has left the hierarchy
+            WaitUtils.waitUntil(ExpectedConditions.invisibilityOfElementLocated(agreeCheckbox));
         }
-        Thread.sleep(3000); // Temporary wait to observe the transition; replace with proper wait in real tests
 
 //        System.out.println(getDriver().getPagew());
     }
@@ -0,0 +1,437 @@
+package com.framework.utils;
+
+import com.framework.config.Config;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+
+/**
+ * Client for the adb server socket protocol, so shell commands and file transfers go straight
+ * to the local adb server instead of through Appium's {@code mobile: shell}.
+ *
+ * Requests are a 4-hex-digit length followed by the payload; the server answers OKAY or FAIL
+ * plus a length-prefixed message. A device service starts with {@code host:transport:<serial>}
+ * and consumes the connection, so each device keeps a few connections already switched to its
+ * transport ready for the next command.
+ *
+ * The host and port are plain constructor arguments, so the client can be pointed at any
+ * server speaking the protocol (e.g. a fake one listening on a local port).
+ */
+public final class AdbClient {
+
+    private static final Logger log = LogManager.getLogger(AdbClient.class);
+    private static final int SPARE_CONNECTIONS = 2;
+    private static final int SYNC_MAX_CHUNK = 64 * 1024;
+    private static final long REACHABILITY_TTL_MS = 30_000;
+    private static volatile AdbClient instance;
+
+    private final String host;
+    private final int port;
+    private final int connectTimeoutMs;
+    private final int readTimeoutMs;
+    private final Map<String, BlockingDeque<Socket>> spares = new ConcurrentHashMap<>();
+    private final ExecutorService refiller = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "adb-connection-refill");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile List<String> devices = Collections.emptyList();
+    private volatile long devicesReadAt;
+
+    public AdbClient(String host, int port, int connectTimeoutMs) {
+        this(host, port, connectTimeoutMs, 0);
+    }
+
+    /**
+     * @param readTimeoutMs longest wait for data on a request or one-shot command (0 waits forever);
+     *                      streams from {@link #openShell} never time out
+     */
+    public AdbClient(String host, int port, int connectTimeoutMs, int readTimeoutMs) {
+        this.host = host;
+        this.port = port;
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
+    }
+
+    /**
+     * Shared client for the configured adb server.
+     */
+    public static AdbClient get() {
+        if (instance == null) {
+            synchronized (AdbClient.class) {
+                if (instance == null) {
+                    Config config = Config.get();
+                    instance = new AdbClient(config.adbServerHost(), config.adbServerPort(), config.adbConnectTimeoutMs(),
+                            config.adbReadTimeoutMs());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * True when direct adb is enabled and the server lists the device as online.
+     * The device list is cached for a short time, so this is cheap to call per command.
+     */
+    public static boolean isAvailableFor(String serial) {
+        return Config.get().adbDirectEnabled() && serial != null && !serial.isBlank()
+                && get().onlineDevices().contains(serial);
+    }
+
+    // ==================== Host Services ====================
+
+    /**
+     * Server protocol version, e.g. 41.
+     */
+    public int version() throws IOException {
+        try (Socket socket = connect()) {
+            request(socket, "host:version");
+            return Integer.parseInt(readLengthPrefixed(socket.getInputStream()), 16);
+        }
+    }
+
+    /**
+     * Serials of devices in the "device" state, cached for a short time.
+     * An unreachable server yields an empty list.
+     */
+    public List<String> onlineDevices() {
+        if (System.currentTimeMillis() - devicesReadAt < REACHABILITY_TTL_MS) {
+            return devices;
+        }
+        List<String> online = new ArrayList<>();
+        try (Socket socket = connect()) {
+            request(socket, "host:devices");
+            for (String line : readLengthPrefixed(socket.getInputStream()).split("\n")) {
+                String[] parts = line.trim().split("\\s+");
+                if (parts.length >= 2 && parts[1].equals("device")) {
+                    online.add(parts[0]);
+                }
+            }
+        } catch (IOException e) {
+            log.debug("adb server at {}:{} not reachable: {}", host, port, e.getMessage());
+        }
+        devices = online;
+        devicesReadAt = System.currentTimeMillis();
+        return online;
+    }
+
+    /**
+     * Asks the server to exit. It is restarted by the next adb command line invocation.
+     */
+    public void killServer() throws IOException {
+        closeSpares();
+        devicesReadAt = 0;
+        try (Socket socket = connect()) {
+            request(socket, "host:kill");
+        }
+    }
+
+    // ==================== Shell ====================
+
+    /**
+     * Runs a command with the device shell and returns stdout and stderr combined.
+     */
+    public String shell(String serial, String command) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        shell(serial, command, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Runs a command and copies its output to the stream as it arrives. Fails with a
+     * {@link ServiceInterrupted} when the command prints nothing for adb.read.timeout.ms or the
+     * connection drops mid-stream; any other exception means the command never reached the device.
+     */
+    public void shell(String serial, String command, OutputStream out) throws IOException {
+        try (Socket socket = service(serial, "shell:" + command)) {
+            try {
+                socket.getInputStream().transferTo(out);
+            } catch (IOException e) {
+                throw new ServiceInterrupted("shell:" + command, e);
+            }
+        }
+    }
+
+    /**
+     * Starts a command and returns its live output; closing the stream ends the command.
+     * Suited to long-running commands such as {@code logcat}, so reads on it never time out.
+     */
+    public InputStream openShell(String serial, String command) throws IOException {
+        Socket socket = service(serial, "shell:" + command);
+        try {
+            socket.setSoTimeout(0);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        return new FilterInputStream(socket.getInputStream()) {
+            @Override
+            public void close() throws IOException {
+                socket.close();
+            }
+        };
+    }
+
+    // ==================== Sync ====================
+
+    /**
+     * Copies a local file to the device with the given unix permission bits (e.g. 0644).
+     */
+    public void push(String serial, File local, String remotePath, int mode) throws IOException {
+        try (Socket socket = service(serial, "sync:");
+             InputStream file = new FileInputStream(local)) {
+            OutputStream out = socket.getOutputStream();
+            byte[] spec = (remotePath + "," + (0100000 | mode)).getBytes(StandardCharsets.UTF_8);
+            writeSyncHeader(out, "SEND", spec.length);
+            out.write(spec);
+            byte[] chunk = new byte[SYNC_MAX_CHUNK];
+            int read;
+            while ((read = file.read(chunk)) > 0) {
+                writeSyncHeader(out, "DATA", read);
+                out.write(chunk, 0, read);
+            }
+            writeSyncHeader(out, "DONE", (int) (local.lastModified() / 1000));
+            out.flush();
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            String id = readId(in);
+            int length = readIntLe(in);
+            if (!id.equals("OKAY")) {
+                throw new IOException("push " + remotePath + " failed: " + readString(in, length));
+            }
+            quit(out);
+        }
+    }
+
+    /**
+     * Copies a device file to a local path.
+     */
+    public void pull(String serial, String remotePath, File local) throws IOException {
+        try (Socket socket = service(serial, "sync:");
+             OutputStream file = new FileOutputStream(local)) {
+            OutputStream out = socket.getOutputStream();
+            byte[] path = remotePath.getBytes(StandardCharsets.UTF_8);
+            writeSyncHeader(out, "RECV", path.length);
+            out.write(path);
+            out.flush();
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            byte[] chunk = new byte[SYNC_MAX_CHUNK];
+            while (true) {
+                String id = readId(in);
+                int length = readIntLe(in);
+                if (id.equals("DONE")) {
+                    break;
+                }
+                if (!id.equals("DATA")) {
+                    throw new IOException("pull " + remotePath + " failed: " + readString(in, length));
+                }
+                in.readFully(chunk, 0, length);
+                file.write(chunk, 0, length);
+            }
+            quit(out);
+        }
+    }
+
+    private static void quit(OutputStream out) throws IOException {
+        writeSyncHeader(out, "QUIT", 0);
+        out.flush();
+    }
+
+    private static void writeSyncHeader(OutputStream out, String id, int value) throws IOException {
+        out.write(id.getBytes(StandardCharsets.US_ASCII));
+        out.write(value & 0xff);
+        out.write((value >>> 8) & 0xff);
+        out.write((value >>> 16) & 0xff);
+        out.write((value >>> 24) & 0xff);
+    }
+
+    private static String readId(DataInputStream in) throws IOException {
+        byte[] id = new byte[4];
+        in.readFully(id);
+        return new String(id, StandardCharsets.US_ASCII);
+    }
+
+    private static int readIntLe(DataInputStream in) throws IOException {
+        byte[] b = new byte[4];
+        in.readFully(b);
+        return (b[0] & 0xff) | (b[1] & 0xff) << 8 | (b[2] & 0xff) << 16 | (b[3] & 0xff) << 24;
+    }
+
+    private static String readString(DataInputStream in, int length) throws IOException {
+        byte[] b = new byte[length];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    // ==================== Connections ====================
+
+    /**
+     * Opens a connection bound to the device and starts the service on it. A pooled connection
+     * may have gone stale (server restarted, device reconnected), so a failure to even send the
+     * request on one is retried once on a fresh connection. A timeout waiting for the answer
+     * is not staleness: the request may have been delivered, so it is never sent twice.
+     */
+    private Socket service(String serial, String service) throws IOException {
+        Socket pooled = pollSpare(serial);
+        refill(serial);
+        if (pooled != null) {
+            try {
+                request(pooled, service);
+                return pooled;
+            } catch (AdbFailure e) {
+                pooled.close();
+                throw e;
+            } catch (SocketTimeoutException e) {
+                pooled.close();
+                throw new ServiceInterrupted(service, e);
+            } catch (IOException e) {
+                pooled.close();
+                log.debug("Pooled adb connection for {} was stale: {}", serial, e.getMessage());
+            }
+        }
+        Socket socket = transport(serial);
+        try {
+            request(socket, service);
+            return socket;
+        } catch (AdbFailure e) {
+            socket.close();
+            throw e;
+        } catch (IOException e) {
+            socket.close();
+            throw new ServiceInterrupted(service, e);
+        }
+    }
+
+    private Socket transport(String serial) throws IOException {
+        Socket socket = connect();
+        try {
+            request(socket, "host:transport:" + serial);
+            return socket;
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private Socket pollSpare(String serial) {
+        BlockingDeque<Socket> deque = spares.get(serial);
+        Socket socket;
+        while (deque != null && (socket = deque.pollFirst()) != null) {
+            if (!socket.isClosed()) {
+                return socket;
+            }
+        }
+        return null;
+    }
+
+    private void refill(String serial) {
+        refiller.execute(() -> {
+            BlockingDeque<Socket> deque = spares.computeIfAbsent(serial, s -> new LinkedBlockingDeque<>());
+            try {
+                while (deque.size() < SPARE_CONNECTIONS) {
+                    deque.offerLast(transport(serial));
+                }
+            } catch (IOException e) {
+                log.debug("Could not open spare adb connection for {}: {}", serial, e.getMessage());
+            }
+        });
+    }
+
+    private void closeSpares() {
+        for (BlockingDeque<Socket> deque : spares.values()) {
+            Socket socket;
+            while ((socket = deque.pollFirst()) != null) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.connect(new InetSocketAddress(host, port), connectTimeoutMs);
+            socket.setSoTimeout(readTimeoutMs);
+            return socket;
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Sends a length-prefixed request and waits for OKAY.
+     */
+    private static void request(Socket socket, String payload) throws IOException {
+        byte[] body = payload.getBytes(StandardCharsets.UTF_8);
+        OutputStream out = socket.getOutputStream();
+        out.write(String.format("%04x", body.length).getBytes(StandardCharsets.US_ASCII));
+        out.write(body);
+        out.flush();
+        InputStream in = socket.getInputStream();
+        String status = new String(readExactly(in, 4), StandardCharsets.US_ASCII);
+        if (status.equals("FAIL")) {
+            throw new AdbFailure(payload, readLengthPrefixed(in));
+        }
+        if (!status.equals("OKAY")) {
+            throw new IOException("Unexpected adb response to " + payload + ": " + status);
+        }
+    }
+
+    private static String readLengthPrefixed(InputStream in) throws IOException {
+        int length = Integer.parseInt(new String(readExactly(in, 4), StandardCharsets.US_ASCII), 16);
+        return new String(readExactly(in, length), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readExactly(InputStream in, int length) throws IOException {
+        byte[] b = in.readNBytes(length);
+        if (b.length < length) {
+            throw new EOFException("adb connection closed");
+        }
+        return b;
+    }
+
+    /**
+     * The server rejected a request (unknown device, device offline, ...).
+     */
+    public static class AdbFailure extends IOException {
+        public AdbFailure(String request, String message) {
+            super(request + ": " + message);
+        }
+    }
+
+    /**
+     * The service request went out on the device transport but the connection timed out or
+     * dropped before it finished, so the command may already have run on the device.
+     */
+    public static class ServiceInterrupted extends IOException {
+        public ServiceInterrupted(String request, IOException cause) {
+            super(request + ": " + cause.getMessage(), cause);
+        }
+    }
+}
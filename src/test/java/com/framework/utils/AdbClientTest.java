@@ -0,0 +1,221 @@
+package com.framework.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Protocol checks for AdbClient against a fake adb server on a local port.
+ * Needs no device: run with {@code mvn test -Dtest=AdbClientTest}.
+ */
+public class AdbClientTest {
+
+    private static final String SERIAL = "emulator-5554";
+
+    private FakeAdbServer server;
+
+    @BeforeMethod
+    public void startServer() throws IOException {
+        server = new FakeAdbServer();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test
+    public void testShellStreamsOutputAsItArrives() throws IOException {
+        AdbClient client = new AdbClient("127.0.0.1", server.port(), 1000, 5000);
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                received.write(b);
+                server.firstChunkSeen.countDown();
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                received.write(b, off, len);
+                server.firstChunkSeen.countDown();
+            }
+        };
+
+        // The server holds the second line back until the first one has reached the caller
+        client.shell(SERIAL, "stream", out);
+
+        Assert.assertEquals(received.toString(StandardCharsets.UTF_8), "first\nsecond\n", "output");
+    }
+
+    @Test
+    public void testShellReusesSpareConnection() throws Exception {
+        AdbClient client = new AdbClient("127.0.0.1", server.port(), 1000, 5000);
+
+        Assert.assertEquals(client.shell(SERIAL, "echo one"), "one\n", "first output");
+        // First call opens its own connection and starts two spares in the background
+        server.awaitTransports(3);
+        long secondCallAt = System.nanoTime();
+        Assert.assertEquals(client.shell(SERIAL, "echo two"), "two\n", "second output");
+
+        Assert.assertTrue(server.transportAt.get("shell:echo two") < secondCallAt,
+                "second command should run on a connection opened before the call");
+    }
+
+    @Test
+    public void testShellTimeoutIsNotRetried() {
+        AdbClient client = new AdbClient("127.0.0.1", server.port(), 1000, 300);
+
+        AdbClient.ServiceInterrupted e = Assert.expectThrows(AdbClient.ServiceInterrupted.class,
+                () -> client.shell(SERIAL, "hang"));
+
+        Assert.assertTrue(e.getCause() instanceof SocketTimeoutException, "cause: " + e.getCause());
+        Assert.assertEquals(server.requests.stream().filter("shell:hang"::equals).count(), 1L,
+                "shell:hang requests");
+    }
+
+    @Test
+    public void testUnknownDeviceFailsBeforeTheCommandIsSent() {
+        AdbClient client = new AdbClient("127.0.0.1", server.port(), 1000, 5000);
+
+        IOException e = Assert.expectThrows(AdbClient.AdbFailure.class, () -> client.shell("offline-1", "echo x"));
+
+        Assert.assertTrue(e.getMessage().contains("device 'offline-1' not found"), e.getMessage());
+        Assert.assertFalse(server.requests.contains("shell:echo x"), "command should not reach the device");
+    }
+
+    // ==================== Fake Server ====================
+
+    /**
+     * Answers host:transport for {@link #SERIAL} and a few shell commands:
+     * {@code echo <text>}, {@code stream} (two lines, the second after the first was consumed)
+     * and {@code hang} (acknowledged, then never answers).
+     */
+    private static class FakeAdbServer {
+        final List<String> requests = new CopyOnWriteArrayList<>();
+        final Map<String, Long> transportAt = new ConcurrentHashMap<>();
+        final CountDownLatch firstChunkSeen = new CountDownLatch(1);
+        private final List<Socket> accepted = new CopyOnWriteArrayList<>();
+        private final ServerSocket serverSocket;
+
+        FakeAdbServer() throws IOException {
+            serverSocket = new ServerSocket(0);
+            Thread acceptor = new Thread(this::acceptLoop, "fake-adb-server");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        void awaitTransports(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (requests.stream().filter(r -> r.startsWith("host:transport:")).count() < count) {
+                if (System.currentTimeMillis() > deadline) {
+                    Assert.fail("expected " + count + " transport requests, got " + requests);
+                }
+                Thread.sleep(10);
+            }
+        }
+
+        void close() {
+            try {
+                serverSocket.close();
+                for (Socket socket : accepted) {
+                    socket.close();
+                }
+            } catch (IOException ignored) {
+            }
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    accepted.add(socket);
+                    Thread handler = new Thread(() -> handle(socket), "fake-adb-connection");
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void handle(Socket socket) {
+            try (socket) {
+                InputStream in = socket.getInputStream();
+                OutputStream out = socket.getOutputStream();
+                String transport = readRequest(in);
+                if (transport == null) {
+                    return;
+                }
+                requests.add(transport);
+                if (!transport.equals("host:transport:" + SERIAL)) {
+                    fail(out, "device '" + transport.substring(transport.lastIndexOf(':') + 1) + "' not found");
+                    return;
+                }
+                long openedAt = System.nanoTime();
+                out.write("OKAY".getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+
+                String service = readRequest(in);
+                if (service == null) {
+                    return;
+                }
+                requests.add(service);
+                transportAt.put(service, openedAt);
+                out.write("OKAY".getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                if (service.startsWith("shell:echo ")) {
+                    out.write((service.substring("shell:echo ".length()) + "\n").getBytes(StandardCharsets.UTF_8));
+                } else if (service.equals("shell:stream")) {
+                    out.write("first\n".getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    if (!firstChunkSeen.await(5, TimeUnit.SECONDS)) {
+                        return;
+                    }
+                    out.write("second\n".getBytes(StandardCharsets.UTF_8));
+                } else if (service.equals("shell:hang")) {
+                    // Blocks until the client gives up and closes the connection
+                    in.read();
+                }
+                out.flush();
+            } catch (IOException | InterruptedException ignored) {
+            }
+        }
+
+        private static String readRequest(InputStream in) throws IOException {
+            byte[] length = in.readNBytes(4);
+            if (length.length < 4) {
+                return null;
+            }
+            byte[] body = in.readNBytes(Integer.parseInt(new String(length, StandardCharsets.US_ASCII), 16));
+            return new String(body, StandardCharsets.UTF_8);
+        }
+
+        private static void fail(OutputStream out, String message) throws IOException {
+            byte[] body = message.getBytes(StandardCharsets.UTF_8);
+            out.write(("FAIL" + String.format("%04x", body.length)).getBytes(StandardCharsets.US_ASCII));
+            out.write(body);
+            out.flush();
+        }
+    }
+}
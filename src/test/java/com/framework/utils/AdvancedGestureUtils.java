@@ -1,11 +1,13 @@
 package com.framework.utils;
 
 import com.framework.base.DriverManager;
+import com.framework.config.Config;
 import io.appium.java_client.AppiumDriver;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.Dimension;
 import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Pause;
 import org.openqa.selenium.interactions.PointerInput;
@@ -59,6 +61,13 @@ public final class AdvancedGestureUtils {
         tap(centerX, centerY);
     }
 
+    /**
+     * Performs a tap on the center of the given bounds (e.g. from ElementUtils.findByImage).
+     */
+    public static void tap(Rectangle bounds) {
+        tap(bounds.getX() + bounds.getWidth() / 2, bounds.getY() + bounds.getHeight() / 2);
+    }
+
     /**
      * Performs a double tap at specific coordinates.
      */
@@ -179,7 +188,13 @@ public final class AdvancedGestureUtils {
                 return;
         }
 
-        performSwipe(startX, startY, endX, endY, DEFAULT_DURATION);
+        int fromX = startX, fromY = startY, toX = endX, toY = endY;
+        if (Config.get().frameStatsOnSwipe() && DriverManager.isAndroid() && !FrameStatsCollector.isMeasuring()) {
+            FrameStatsCollector.measure("swipe " + direction,
+                    () -> performSwipe(fromX, fromY, toX, toY, DEFAULT_DURATION));
+        } else {
+            performSwipe(startX, startY, endX, endY, DEFAULT_DURATION);
+        }
         log.debug("Swiped {} with distance {}", direction, distance);
     }
 
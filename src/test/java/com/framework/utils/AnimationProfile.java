@@ -0,0 +1,231 @@
+package com.framework.utils;
+
+import com.framework.base.DriverManager;
+import com.framework.config.Config;
+import com.framework.reporting.AllureReportUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs the suite with the window, transition and animator duration scales set to 0 and puts
+ * the device's own values back afterwards.
+ *
+ * The original values are saved on the device itself before anything is changed, so a run that
+ * dies before restoring is repaired by the next session on that device, whichever profile it
+ * uses. A shutdown hook restores on normal JVM exit and Ctrl-C.
+ *
+ * Passed test durations are appended to a history file tagged with the profile. When the history
+ * holds runs with animations on and off, the end-of-suite report compares them per test.
+ */
+public final class AnimationProfile {
+
+    private static final Logger log = LogManager.getLogger(AnimationProfile.class);
+    public static final String[] SCALES = {"window_animation_scale", "transition_animation_scale", "animator_duration_scale"};
+    private static final String SAVED_SCALES = "/data/local/tmp/mobilex-animation-scales";
+    private static final Set<String> applied = ConcurrentHashMap.newKeySet();
+    private static final List<String> durations = new ArrayList<>();
+    private static final String runId = String.valueOf(System.currentTimeMillis());
+    private static boolean hookInstalled;
+
+    private AnimationProfile() {
+    }
+
+    // ==================== Session ====================
+
+    /**
+     * Saves the current scales of the session's device (unless a previous run left them saved)
+     * and sets them to 0. With animations.disabled=false only repairs a device left over from a
+     * run that did not restore.
+     */
+    public static synchronized void applyForCurrentSession() {
+        if (!DriverManager.isAndroid()) {
+            return;
+        }
+        String serial = DeviceUtils.getDeviceSerial();
+        if (!Config.get().animationsDisabled()) {
+            restore(serial);
+            return;
+        }
+        if (applied.contains(serial)) {
+            return;
+        }
+        StringBuilder script = new StringBuilder("[ -f " + SAVED_SCALES + " ] || { ");
+        for (String scale : SCALES) {
+            script.append("echo ").append(scale).append("=$(settings get global ").append(scale).append("); ");
+        }
+        script.append("} > ").append(SAVED_SCALES).append("; cat ").append(SAVED_SCALES).append("; ");
+        for (String scale : SCALES) {
+            script.append("settings put global ").append(scale).append(" 0; ");
+        }
+        String saved = shell(serial, script.toString());
+        if (saved == null || parse(saved).size() != SCALES.length) {
+            log.warn("Could not save animation scales of {}; leaving them unchanged", serial);
+            return;
+        }
+        applied.add(serial);
+        installShutdownHook();
+        log.info("Animations disabled on {} (original {})", serial, parse(saved));
+    }
+
+    /**
+     * Puts back the scales saved on the device, if any, and removes the saved copy.
+     */
+    public static synchronized void restore(String serial) {
+        String saved = shell(serial, "cat " + SAVED_SCALES + " 2>/dev/null");
+        applied.remove(serial);
+        if (saved == null || saved.isBlank()) {
+            return;
+        }
+        Map<String, String> scales = parse(saved);
+        if (scales.size() != SCALES.length) {
+            log.warn("Ignoring unreadable saved animation scales on {}: {}", serial, saved.trim());
+            return;
+        }
+        StringBuilder script = new StringBuilder();
+        for (Map.Entry<String, String> entry : scales.entrySet()) {
+            // "null" means the setting was never written, so delete it rather than write 0
+            script.append(entry.getValue().equals("null")
+                    ? "settings delete global " + entry.getKey()
+                    : "settings put global " + entry.getKey() + " " + entry.getValue()).append("; ");
+        }
+        script.append("rm -f ").append(SAVED_SCALES);
+        if (shell(serial, script.toString()) != null) {
+            log.info("Animation scales restored on {}: {}", serial, scales);
+        }
+    }
+
+    public static void restoreAll() {
+        for (String serial : List.copyOf(applied)) {
+            restore(serial);
+        }
+    }
+
+    private static void installShutdownHook() {
+        if (!hookInstalled) {
+            hookInstalled = true;
+            Runtime.getRuntime().addShutdownHook(new Thread(AnimationProfile::restoreAll, "animation-restore"));
+        }
+    }
+
+    private static Map<String, String> parse(String saved) {
+        Map<String, String> scales = new TreeMap<>();
+        for (String line : saved.split("\n")) {
+            int eq = line.indexOf('=');
+            if (eq > 0 && List.of(SCALES).contains(line.substring(0, eq).trim())) {
+                String value = line.substring(eq + 1).trim();
+                scales.put(line.substring(0, eq).trim(), value.isEmpty() ? "null" : value);
+            }
+        }
+        return scales;
+    }
+
+    /**
+     * Direct adb when the server lists the device, so restore also works after the session is gone.
+     * @return the output, or null if the device cannot be reached
+     */
+    private static String shell(String serial, String script) {
+        if (AdbClient.isAvailableFor(serial)) {
+            try {
+                return AdbClient.get().shell(serial, script);
+            } catch (IOException e) {
+                log.debug("Animation scale command on {} failed: {}", serial, e.getMessage());
+                return null;
+            }
+        }
+        if (DriverManager.isAndroid() && serial.equals(DeviceUtils.getDeviceSerial())) {
+            return DeviceUtils.executeShell("sh", "-c", "'" + script + "'");
+        }
+        return null;
+    }
+
+    // ==================== A/B Comparison ====================
+
+    /**
+     * Records a passed test's duration under the current profile.
+     */
+    public static synchronized void recordTest(String testName, long durationMs) {
+        durations.add(runId + "," + (Config.get().animationsDisabled() ? "off" : "on") + "," + testName + "," + durationMs);
+    }
+
+    /**
+     * Appends this run to the history and, once it holds both profiles, reports how much time
+     * running without animations saves per test.
+     */
+    public static synchronized void report() {
+        Path history = Path.of(Config.get().animationsAbHistory());
+        try {
+            if (!durations.isEmpty()) {
+                if (history.getParent() != null) {
+                    Files.createDirectories(history.getParent());
+                }
+                Files.write(history, durations, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                durations.clear();
+            }
+            if (Files.isRegularFile(history)) {
+                String comparison = compare(Files.readAllLines(history, StandardCharsets.UTF_8));
+                if (comparison != null) {
+                    log.info(comparison);
+                    AllureReportUtils.attachText("Animation A/B", comparison);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to update animation A/B history {}: {}", history, e.getMessage());
+        }
+    }
+
+    /**
+     * Per-test comparison of durations with animations on (baseline) and off.
+     * @return the report, or null while the history lacks one of the profiles
+     */
+    static String compare(List<String> lines) {
+        Map<String, List<Double>> on = new TreeMap<>();
+        Map<String, List<Double>> off = new TreeMap<>();
+        for (String line : lines) {
+            String[] parts = line.split(",");
+            if (parts.length != 4) {
+                continue;
+            }
+            try {
+                (parts[1].equals("on") ? on : off).computeIfAbsent(parts[2], k -> new ArrayList<>()).add(Double.parseDouble(parts[3]));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        StringBuilder sb = new StringBuilder("Animation A/B (animations on -> off, ms per test)\n");
+        double totalOn = 0;
+        double totalOff = 0;
+        int compared = 0;
+        for (Map.Entry<String, List<Double>> entry : off.entrySet()) {
+            List<Double> baseline = on.get(entry.getKey());
+            if (baseline == null) {
+                continue;
+            }
+            StatisticsUtils.Comparison c = StatisticsUtils.compare(toArray(baseline), toArray(entry.getValue()));
+            sb.append(String.format("  %s: %.0f -> %.0f, %s%n", entry.getKey(), c.baseline.mean, c.current.mean, c));
+            totalOn += c.baseline.mean;
+            totalOff += c.current.mean;
+            compared++;
+        }
+        if (compared == 0) {
+            return null;
+        }
+        sb.append(String.format("Total over %d test(s): %.0fms -> %.0fms, saved %.0fms (%.1f%%)",
+                compared, totalOn, totalOff, totalOn - totalOff, totalOn == 0 ? 0 : (totalOn - totalOff) * 100 / totalOn));
+        return sb.toString();
+    }
+
+    private static double[] toArray(List<Double> values) {
+        return values.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+}
@@ -0,0 +1,154 @@
+package com.framework.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Package name and version read from an APK's binary AndroidManifest.xml, without aapt.
+ *
+ * Walks the compiled XML chunks (string pool, resource map, first start element) and picks the
+ * manifest attributes by resource id, falling back to the attribute name.
+ */
+public final class ApkManifest {
+
+    private static final int RES_STRING_POOL_TYPE = 0x0001;
+    private static final int RES_XML_RESOURCE_MAP_TYPE = 0x0180;
+    private static final int RES_XML_START_ELEMENT_TYPE = 0x0102;
+    private static final int UTF8_FLAG = 0x100;
+    private static final int ATTR_VERSION_CODE = 0x0101021b;
+    private static final int ATTR_VERSION_NAME = 0x0101021c;
+    private static final int TYPE_STRING = 0x03;
+    private static final int NO_INDEX = -1;
+
+    public String packageName = "";
+    public long versionCode = -1;
+    public String versionName = "";
+
+    private ApkManifest() {
+    }
+
+    public static ApkManifest read(Path apk) throws IOException {
+        try (ZipFile zip = new ZipFile(apk.toFile())) {
+            ZipEntry entry = zip.getEntry("AndroidManifest.xml");
+            if (entry == null) {
+                throw new IOException("No AndroidManifest.xml in " + apk);
+            }
+            try (InputStream in = zip.getInputStream(entry)) {
+                return parse(in.readAllBytes());
+            }
+        }
+    }
+
+    static ApkManifest parse(byte[] xml) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(xml).order(ByteOrder.LITTLE_ENDIAN);
+        ApkManifest manifest = new ApkManifest();
+        String[] strings = new String[0];
+        int[] resourceIds = new int[0];
+        int pos = buf.getShort(2) & 0xffff;
+        while (pos + 8 <= xml.length) {
+            int type = buf.getShort(pos) & 0xffff;
+            int headerSize = buf.getShort(pos + 2) & 0xffff;
+            int size = buf.getInt(pos + 4);
+            if (size < 8 || pos + size > xml.length) {
+                throw new IOException("Malformed binary XML chunk at " + pos);
+            }
+            switch (type) {
+                case RES_STRING_POOL_TYPE -> strings = readStringPool(buf, pos, headerSize);
+                case RES_XML_RESOURCE_MAP_TYPE -> {
+                    resourceIds = new int[(size - headerSize) / 4];
+                    for (int i = 0; i < resourceIds.length; i++) {
+                        resourceIds[i] = buf.getInt(pos + headerSize + i * 4);
+                    }
+                }
+                case RES_XML_START_ELEMENT_TYPE -> {
+                    // The first element is <manifest>
+                    readManifestAttributes(buf, pos, headerSize, strings, resourceIds, manifest);
+                    return manifest;
+                }
+                default -> { }
+            }
+            pos += size;
+        }
+        throw new IOException("No <manifest> element found");
+    }
+
+    private static void readManifestAttributes(ByteBuffer buf, int chunk, int headerSize, String[] strings,
+                                               int[] resourceIds, ApkManifest manifest) {
+        int ext = chunk + headerSize;
+        int attributeStart = buf.getShort(ext + 8) & 0xffff;
+        int attributeSize = buf.getShort(ext + 10) & 0xffff;
+        int attributeCount = buf.getShort(ext + 12) & 0xffff;
+        for (int i = 0; i < attributeCount; i++) {
+            int attr = ext + attributeStart + i * attributeSize;
+            int name = buf.getInt(attr + 4);
+            int rawValue = buf.getInt(attr + 8);
+            int dataType = buf.get(attr + 15) & 0xff;
+            int data = buf.getInt(attr + 16);
+            int resourceId = name >= 0 && name < resourceIds.length ? resourceIds[name] : 0;
+            String attrName = name >= 0 && name < strings.length ? strings[name] : "";
+            String stringValue = rawValue != NO_INDEX && rawValue < strings.length ? strings[rawValue]
+                    : dataType == TYPE_STRING && data >= 0 && data < strings.length ? strings[data] : null;
+            if (resourceId == ATTR_VERSION_CODE || attrName.equals("versionCode")) {
+                manifest.versionCode = stringValue != null ? Long.parseLong(stringValue) : data & 0xffffffffL;
+            } else if (resourceId == ATTR_VERSION_NAME || attrName.equals("versionName")) {
+                manifest.versionName = stringValue != null ? stringValue : String.valueOf(data);
+            } else if (attrName.equals("package") && stringValue != null) {
+                manifest.packageName = stringValue;
+            }
+        }
+    }
+
+    private static String[] readStringPool(ByteBuffer buf, int chunk, int headerSize) {
+        int count = buf.getInt(chunk + 8);
+        int flags = buf.getInt(chunk + 16);
+        int stringsStart = buf.getInt(chunk + 20);
+        boolean utf8 = (flags & UTF8_FLAG) != 0;
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            int at = chunk + stringsStart + buf.getInt(chunk + headerSize + i * 4);
+            strings[i] = utf8 ? readUtf8(buf, at) : readUtf16(buf, at);
+        }
+        return strings;
+    }
+
+    private static String readUtf8(ByteBuffer buf, int at) {
+        // UTF-16 length, then UTF-8 byte length; each 1 byte, or 2 when the high bit is set
+        at += (buf.get(at) & 0x80) != 0 ? 2 : 1;
+        int length = buf.get(at) & 0xff;
+        if ((length & 0x80) != 0) {
+            length = ((length & 0x7f) << 8) | (buf.get(at + 1) & 0xff);
+            at += 2;
+        } else {
+            at += 1;
+        }
+        byte[] bytes = new byte[length];
+        buf.get(at, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String readUtf16(ByteBuffer buf, int at) {
+        int length = buf.getShort(at) & 0xffff;
+        if ((length & 0x8000) != 0) {
+            length = ((length & 0x7fff) << 16) | (buf.getShort(at + 2) & 0xffff);
+            at += 4;
+        } else {
+            at += 2;
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = buf.getChar(at + i * 2);
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public String toString() {
+        return packageName + " " + versionName + " (" + versionCode + ")";
+    }
+}
@@ -0,0 +1,179 @@
+package com.framework.utils;
+
+import com.framework.annotations.SettingsProfile;
+import com.framework.base.DriverManager;
+import com.framework.config.Config;
+import com.framework.reporting.PerformanceMetrics;
+import io.appium.java_client.android.AndroidDriver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpMethod;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Applies the UiAutomator2 settings of the page being entered ({@link SettingsProfile}) and puts
+ * the session's own values back when the page is left, either for another page or at the end
+ * of the test.
+ *
+ * The values last sent to the server are cached, so only settings that actually change are
+ * sent, in one call, and consecutive pages with the same profile cost nothing. The session's
+ * values are read once, the first time a profile is needed. Element lookups are timed per
+ * active profile and show up in the performance summary as "lookup &lt;profile&gt;".
+ */
+public final class AppiumSettings {
+
+    private static final Logger log = LogManager.getLogger(AppiumSettings.class);
+    private static final Pattern LOOKUP_PATH = Pattern.compile(".*/elements?$");
+    private static final String DEFAULT_LABEL = SettingsProfile.Profile.DEFAULT.name();
+    // Session values of every setting a profile has touched
+    private static final Map<String, Object> baseline = new HashMap<>();
+    // Values last sent to (or read from) the server
+    private static final Map<String, Object> applied = new HashMap<>();
+    private static Map<String, Object> sessionSettings;
+    private static String currentPage;
+    private static volatile String currentLabel = DEFAULT_LABEL;
+
+    private AppiumSettings() {
+    }
+
+    // ==================== Pages ====================
+
+    /**
+     * Makes the page's profile the active settings; a page without a profile gets the session's.
+     */
+    public static synchronized void enterPage(String pageName, SettingsProfile profile) {
+        AndroidDriver driver = DriverManager.getAndroidDriver();
+        if (driver == null || !Config.get().settingsProfilesEnabled()) {
+            return;
+        }
+        Map<String, Object> target = new LinkedHashMap<>();
+        String label = DEFAULT_LABEL;
+        if (profile != null) {
+            target.putAll(profile.value().settings());
+            parseOverrides(profile.overrides(), target);
+            label = profile.value().name() + (profile.overrides().length == 0 ? "" : "+" + String.join("+", profile.overrides()));
+        }
+        currentPage = pageName;
+        currentLabel = label;
+        applyDiff(driver, target);
+    }
+
+    /**
+     * Leaves the current page, restoring the session's settings.
+     */
+    public static synchronized void leavePage() {
+        AndroidDriver driver = DriverManager.getAndroidDriver();
+        if (driver != null && currentPage != null) {
+            log.debug("Leaving {}", currentPage);
+            applyDiff(driver, Map.of());
+        }
+        currentPage = null;
+        currentLabel = DEFAULT_LABEL;
+    }
+
+    /**
+     * Forgets cached values; call after a new session was created.
+     */
+    public static synchronized void sessionStarted() {
+        baseline.clear();
+        applied.clear();
+        sessionSettings = null;
+        currentPage = null;
+        currentLabel = DEFAULT_LABEL;
+    }
+
+    /**
+     * Sends the settings that differ from the target, which is the page's settings on top of the
+     * session's values for everything touched so far.
+     */
+    private static void applyDiff(AndroidDriver driver, Map<String, Object> pageSettings) {
+        for (String name : pageSettings.keySet()) {
+            if (!baseline.containsKey(name)) {
+                Object value = sessionSettings(driver).get(name);
+                if (value == null) {
+                    log.warn("Setting {} is not supported by this session; ignoring it", name);
+                    continue;
+                }
+                baseline.put(name, value);
+                applied.put(name, value);
+            }
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : baseline.entrySet()) {
+            Object wanted = pageSettings.getOrDefault(entry.getKey(), entry.getValue());
+            if (!sameValue(wanted, applied.get(entry.getKey()))) {
+                changes.put(entry.getKey(), wanted);
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        try {
+            driver.setSettings(changes);
+            applied.putAll(changes);
+            log.debug("Settings for {} ({}): {}", currentPage, currentLabel, changes);
+        } catch (Exception e) {
+            // Unknown state now; read again next time
+            applied.keySet().removeAll(changes.keySet());
+            baseline.keySet().removeAll(changes.keySet());
+            sessionSettings = null;
+            log.error("Failed to apply settings {}: {}", changes, e.getMessage());
+        }
+    }
+
+    private static Map<String, Object> sessionSettings(AndroidDriver driver) {
+        if (sessionSettings == null) {
+            sessionSettings = new HashMap<>(driver.getSettings());
+        }
+        return sessionSettings;
+    }
+
+    /**
+     * The server reports numbers as whatever JSON decoding produced, so compare them by value.
+     */
+    private static boolean sameValue(Object a, Object b) {
+        if (a instanceof Number x && b instanceof Number y) {
+            return x.doubleValue() == y.doubleValue();
+        }
+        return a != null && a.equals(b);
+    }
+
+    private static void parseOverrides(String[] overrides, Map<String, Object> target) {
+        for (String override : overrides) {
+            int eq = override.indexOf('=');
+            if (eq <= 0) {
+                log.warn("Ignoring settings override without a value: {}", override);
+                continue;
+            }
+            String value = override.substring(eq + 1).trim();
+            Object parsed = value.equals("true") || value.equals("false") ? Boolean.valueOf(value)
+                    : value.matches("-?\\d+") ? (Object) Long.valueOf(value) : value;
+            target.put(override.substring(0, eq).trim(), parsed);
+        }
+    }
+
+    // ==================== Lookup Latency ====================
+
+    /**
+     * HTTP filter timing find element(s) commands under the active profile.
+     */
+    public static Filter lookupTimingFilter() {
+        return next -> request -> {
+            if (request.getMethod() != HttpMethod.POST || !LOOKUP_PATH.matcher(request.getUri()).matches()) {
+                return next.execute(request);
+            }
+            String label = currentLabel;
+            long start = System.nanoTime();
+            try {
+                return next.execute(request);
+            } finally {
+                PerformanceMetrics.recordActionTime("lookup " + label, (System.nanoTime() - start) / 1_000_000);
+            }
+        };
+    }
+}
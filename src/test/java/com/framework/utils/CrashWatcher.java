@@ -0,0 +1,380 @@
+package com.framework.utils;
+
+import com.framework.base.DriverManager;
+import com.framework.config.Config;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Detects crashes, ANRs and unexpected process death of the app under test and fails the
+ * pending wait right away instead of letting it run into its timeout.
+ *
+ * With a logcat stream running it reacts to AndroidRuntime "FATAL EXCEPTION" traces,
+ * ActivityManager "ANR in" reports and "has died" lines (ignored after a force-stop). Without
+ * a stream it polls {@code pidof} and, when the pid goes away, asks
+ * {@code dumpsys activity exit-info} why. Waits in {@link WaitUtils#tracedWait} register their
+ * thread so it can be interrupted, and then throw {@link AppCrashException}.
+ */
+public final class CrashWatcher {
+
+    private static final Logger log = LogManager.getLogger(CrashWatcher.class);
+    private static final Pattern THREADTIME = Pattern.compile("^\\S+\\s+\\S+\\s+(\\d+)\\s+\\d+\\s+[VDIWEF]\\s+(.*?)\\s*: (.*)$");
+    private static final int MAX_TRACE_LINES = 200;
+    private static final int MAX_ANR_LINES = 40;
+    private static final Map<String, CrashWatcher> watchers = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService poller = Executors.newScheduledThreadPool(1, r -> {
+        Thread t = new Thread(r, "crash-watcher-poll");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public enum Kind {
+        CRASH("Crash"),
+        ANR("ANR"),
+        PROCESS_DIED("Process death");
+
+        final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+    }
+
+    private final String serial;
+    private final String packageName;
+    private final Set<Thread> waiting = ConcurrentHashMap.newKeySet();
+    private final LogcatStreamer.LineListener listener = this::onLine;
+    private ScheduledFuture<?> pollTask;
+    private volatile Crash crash;
+
+    // Logcat state, only touched by the logcat reader thread
+    private Kind collecting;
+    private int sourcePid;
+    private String sourceTag;
+    private int appPid;
+    private boolean confirmed;
+    private int collectedLines;
+    private final StringBuilder trace = new StringBuilder();
+    private boolean expectedExit;
+    private int lastReportedPid;
+
+    // Poll state, only touched by the poller thread
+    private int lastPolledPid;
+
+    private CrashWatcher(String serial, String packageName) {
+        this.serial = serial;
+        this.packageName = packageName;
+    }
+
+    // ==================== Lifecycle ====================
+
+    /**
+     * Starts watching the current session's device. Call after {@link LogcatStreamer#startForCurrentSession()}.
+     */
+    public static void startForCurrentSession() {
+        if (!Config.get().crashWatcherEnabled() || !DriverManager.isAndroid()) {
+            return;
+        }
+        watchers.computeIfAbsent(DeviceUtils.getDeviceSerial(), serial -> {
+            CrashWatcher watcher = new CrashWatcher(serial, Config.get().appPackage());
+            if (LogcatStreamer.isStreaming(serial)) {
+                LogcatStreamer.addListener(watcher.listener);
+                log.info("Crash watcher following logcat of {}", serial);
+            } else {
+                long interval = Math.max(500, Config.get().crashPollIntervalMs());
+                watcher.pollTask = poller.scheduleWithFixedDelay(watcher::pollSafely, interval, interval, TimeUnit.MILLISECONDS);
+                log.info("Crash watcher polling {} every {}ms", watcher.packageName, interval);
+            }
+            return watcher;
+        });
+    }
+
+    /**
+     * Stops watching the device, e.g. before its session is replaced.
+     */
+    public static void stop(String serial) {
+        CrashWatcher watcher = watchers.remove(serial);
+        if (watcher != null) {
+            watcher.stop();
+        }
+    }
+
+    public static void stopAll() {
+        for (CrashWatcher watcher : watchers.values()) {
+            watcher.stop();
+        }
+        watchers.clear();
+    }
+
+    private void stop() {
+        LogcatStreamer.removeListener(listener);
+        if (pollTask != null) {
+            pollTask.cancel(false);
+        }
+    }
+
+    /**
+     * Forgets a crash left over from before the test, so it is not blamed on this one.
+     */
+    public static void testStarted() {
+        CrashWatcher watcher = current();
+        if (watcher != null) {
+            watcher.crash = null;
+        }
+    }
+
+    /**
+     * @return the crash detected during the test, or null
+     */
+    public static Crash testFinished() {
+        CrashWatcher watcher = current();
+        return watcher != null ? watcher.crash : null;
+    }
+
+    private static CrashWatcher current() {
+        if (watchers.isEmpty() || !DriverManager.isAndroid()) {
+            return null;
+        }
+        return watchers.get(DeviceUtils.getDeviceSerial());
+    }
+
+    // ==================== Waiting ====================
+
+    /**
+     * Throws if the app has crashed since the test started.
+     */
+    public static void throwIfCrashed() {
+        CrashWatcher watcher = current();
+        Crash c = watcher != null ? watcher.crash : null;
+        if (c != null) {
+            throw new AppCrashException(c, null);
+        }
+    }
+
+    /**
+     * Runs a wait that is interrupted as soon as a crash is detected; the wait's own exception
+     * is then replaced by an {@link AppCrashException}.
+     */
+    public static <T> T guardWait(Supplier<T> wait) {
+        CrashWatcher watcher = current();
+        if (watcher == null) {
+            return wait.get();
+        }
+        Thread thread = Thread.currentThread();
+        synchronized (watcher) {
+            if (watcher.crash != null) {
+                throw new AppCrashException(watcher.crash, null);
+            }
+            watcher.waiting.add(thread);
+        }
+        try {
+            return wait.get();
+        } catch (RuntimeException e) {
+            Crash c = watcher.crash;
+            if (c != null) {
+                throw new AppCrashException(c, e);
+            }
+            throw e;
+        } finally {
+            synchronized (watcher) {
+                watcher.waiting.remove(thread);
+                if (watcher.crash != null) {
+                    // Clear an interrupt that arrived after the wait had already returned
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+
+    private void report(Kind kind, int pid, String details) {
+        Crash c = new Crash(kind, packageName, pid, details);
+        lastReportedPid = pid;
+        log.error("{} detected on {}: {}", kind.label, serial, c.summary());
+        synchronized (this) {
+            crash = c;
+            for (Thread thread : waiting) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    // ==================== Logcat ====================
+
+    private void onLine(String lineSerial, String line) {
+        if (!serial.equals(lineSerial)) {
+            return;
+        }
+        Matcher m = THREADTIME.matcher(line);
+        if (!m.matches()) {
+            return;
+        }
+        int pid = Integer.parseInt(m.group(1));
+        String tag = m.group(2);
+        String message = m.group(3);
+        if (collecting != null) {
+            if (pid == sourcePid && tag.equals(sourceTag)) {
+                continueTrace(message);
+                return;
+            }
+            finishTrace();
+        }
+        if (tag.equals("AndroidRuntime") && message.startsWith("FATAL EXCEPTION")) {
+            // Ours only once the following "Process: <package>, PID: n" line confirms it
+            startTrace(Kind.CRASH, pid, tag, pid, false, message);
+        } else if (tag.equals("ActivityManager")) {
+            if (message.equals("ANR in " + packageName) || message.startsWith("ANR in " + packageName + " ")) {
+                startTrace(Kind.ANR, pid, tag, -1, true, message);
+            } else if (message.startsWith("Force stopping " + packageName + " ")) {
+                expectedExit = true;
+            } else if (message.startsWith("Start proc ") && message.contains(":" + packageName + "/")) {
+                expectedExit = false;
+            } else if (message.startsWith("Process " + packageName + " (pid ") && message.contains(") has died")) {
+                int diedPid = leadingInt(message, ("Process " + packageName + " (pid ").length());
+                if (!expectedExit && diedPid != lastReportedPid) {
+                    report(Kind.PROCESS_DIED, diedPid, message);
+                }
+            }
+        }
+    }
+
+    private void startTrace(Kind kind, int pid, String tag, int app, boolean ours, String firstLine) {
+        collecting = kind;
+        sourcePid = pid;
+        sourceTag = tag;
+        appPid = app;
+        confirmed = ours;
+        collectedLines = 0;
+        trace.setLength(0);
+        continueTrace(firstLine);
+    }
+
+    private void continueTrace(String message) {
+        if (collecting == Kind.CRASH && message.startsWith("Process: ")) {
+            if (!message.startsWith("Process: " + packageName + ",")) {
+                collecting = null;
+                return;
+            }
+            confirmed = true;
+        } else if (collecting == Kind.ANR && message.startsWith("PID: ")) {
+            appPid = leadingInt(message, 5);
+        }
+        trace.append(message).append('\n');
+        if (++collectedLines >= (collecting == Kind.ANR ? MAX_ANR_LINES : MAX_TRACE_LINES)) {
+            finishTrace();
+        }
+    }
+
+    private void finishTrace() {
+        Kind kind = collecting;
+        collecting = null;
+        if (kind != null && confirmed) {
+            report(kind, appPid, trace.toString());
+        }
+    }
+
+    private static int leadingInt(String s, int from) {
+        int value = 0;
+        int i = from;
+        while (i < s.length() && Character.isDigit(s.charAt(i))) {
+            value = value * 10 + (s.charAt(i++) - '0');
+        }
+        return i == from ? -1 : value;
+    }
+
+    // ==================== Polling ====================
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (Exception e) {
+            log.debug("Crash poll failed: {}", e.getMessage());
+        }
+    }
+
+    private void poll() {
+        String out = DeviceUtils.executeShell("pidof", packageName).trim();
+        int pid = out.isEmpty() ? -1 : leadingInt(out, 0);
+        int previous = lastPolledPid;
+        lastPolledPid = pid;
+        if (previous > 0 && pid != previous && crash == null) {
+            checkExitReason(previous);
+        }
+    }
+
+    /**
+     * Looks up why the process ended (Android 11+). Only crash and ANR exits are reported,
+     * so force-stops and low-memory kills pass silently.
+     */
+    private void checkExitReason(int pid) {
+        String info = DeviceUtils.executeShell("dumpsys", "activity", "exit-info", packageName);
+        int start = info.indexOf("ApplicationExitInfo #0");
+        if (start < 0) {
+            return;
+        }
+        int end = info.indexOf("ApplicationExitInfo #1", start);
+        String latest = info.substring(start, end < 0 ? info.length() : end).trim();
+        if (!latest.contains("pid=" + pid + " ")) {
+            return;
+        }
+        int reasonAt = latest.indexOf("reason=");
+        int reason = reasonAt < 0 ? -1 : leadingInt(latest, reasonAt + 7);
+        // ApplicationExitInfo.REASON_CRASH, REASON_CRASH_NATIVE, REASON_ANR
+        switch (reason) {
+            case 4, 5 -> report(Kind.CRASH, pid, latest);
+            case 6 -> report(Kind.ANR, pid, latest);
+            default -> { }
+        }
+    }
+
+    // ==================== Data Classes ====================
+
+    public static class Crash {
+        public final Kind kind;
+        public final String packageName;
+        public final int pid;
+        public final String details;
+        public final LocalTime detectedAt = LocalTime.now();
+
+        Crash(Kind kind, String packageName, int pid, String details) {
+            this.kind = kind;
+            this.packageName = packageName;
+            this.pid = pid;
+            this.details = details;
+        }
+
+        public String summary() {
+            return String.format("%s of %s (pid %d) at %s", kind.label, packageName, pid,
+                    detectedAt.format(DateTimeFormatter.ofPattern("HH:mm:ss.SSS")));
+        }
+
+        @Override
+        public String toString() {
+            return summary() + "\n" + details;
+        }
+    }
+
+    /**
+     * Thrown from a wait when the app under test crashed, hit an ANR or died.
+     */
+    public static class AppCrashException extends RuntimeException {
+        public final Crash crash;
+
+        public AppCrashException(Crash crash, Throwable cause) {
+            super(crash.toString(), cause);
+            this.crash = crash;
+        }
+    }
+}
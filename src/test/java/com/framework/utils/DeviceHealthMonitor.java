@@ -0,0 +1,260 @@
+package com.framework.utils;
+
+import com.framework.base.DevicePool;
+import com.framework.base.DriverManager;
+import com.framework.config.Config;
+import com.framework.reporting.HtmlReportGenerator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodic health check of every device in the {@link DevicePool}: battery, temperature, free
+ * space on /data and how quickly adb answers.
+ *
+ * Each poll is one batched shell call per device. The readings are turned into a 0-100 score;
+ * devices scoring below device.health.min.score are quarantined so new sessions go elsewhere,
+ * and released once they recover with some margin. The readings are kept as a timeline and
+ * charted in the HTML report at the end of the suite.
+ */
+public final class DeviceHealthMonitor {
+
+    private static final Logger log = LogManager.getLogger(DeviceHealthMonitor.class);
+    private static final String DF_SECTION = DeviceProfile.SECTION + "df";
+    private static final String SCRIPT = "echo " + DeviceProfile.SECTION + "battery; dumpsys battery; echo " + DF_SECTION + "; df -k /data";
+    private static final int RELEASE_MARGIN = 20;
+    private static final String[] SERIES_NAMES = {"Health score", "Battery", "Temperature", "Free /data", "adb latency"};
+    private static final String[] SERIES_UNITS = {"", "%", "C", "MB", "ms"};
+    private static final Map<String, Timeline> timelines = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1, r -> {
+        Thread t = new Thread(r, "device-health");
+        t.setDaemon(true);
+        return t;
+    });
+    private static ScheduledFuture<?> task;
+    private static long startMillis;
+
+    private DeviceHealthMonitor() {
+    }
+
+    // ==================== Lifecycle ====================
+
+    /**
+     * Checks all pool devices once, so the first session can pick a healthy one, then keeps
+     * checking on a schedule.
+     */
+    public static synchronized void start() {
+        if (!Config.get().deviceHealthEnabled() || task != null) {
+            return;
+        }
+        startMillis = System.currentTimeMillis();
+        pollAll();
+        long interval = Math.max(5, Config.get().deviceHealthIntervalSeconds());
+        task = scheduler.scheduleWithFixedDelay(DeviceHealthMonitor::pollAll, interval, interval, TimeUnit.SECONDS);
+        log.info("Device health monitor checking {} every {}s", DevicePool.devices(), interval);
+    }
+
+    /**
+     * Stops polling and adds the health timeline of each device to the HTML report.
+     */
+    public static synchronized void stopAndReport() {
+        if (task == null) {
+            return;
+        }
+        task.cancel(false);
+        task = null;
+        for (Map.Entry<String, Timeline> entry : timelines.entrySet()) {
+            entry.getValue().report(entry.getKey());
+        }
+        timelines.clear();
+    }
+
+    // ==================== Checking ====================
+
+    private static void pollAll() {
+        for (String serial : DevicePool.devices()) {
+            try {
+                Health health = check(serial);
+                if (health != null) {
+                    apply(serial, health);
+                }
+            } catch (Exception e) {
+                log.debug("Health check of {} failed: {}", serial, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads and scores a device's health. Uses direct adb for any device, and mobile: shell
+     * only for the current session's device.
+     * @return the health, or null if the device cannot be reached by either route
+     */
+    public static Health check(String serial) {
+        String output;
+        long start = System.nanoTime();
+        if (AdbClient.isAvailableFor(serial)) {
+            try {
+                output = AdbClient.get().shell(serial, SCRIPT);
+            } catch (IOException e) {
+                output = "";
+            }
+        } else if (DriverManager.isAndroid() && serial.equals(DeviceUtils.getDeviceSerial())) {
+            // The session's device may be remote or on another adb server; Appium still reaches it
+            output = DeviceUtils.executeShell("sh", "-c", "'" + SCRIPT + "'");
+        } else if (Config.get().adbDirectEnabled() && !AdbClient.get().onlineDevices().isEmpty()) {
+            // The adb server is up but does not list the device as online
+            output = "";
+        } else {
+            return null;
+        }
+        Health health = new Health();
+        health.latencyMs = (System.nanoTime() - start) / 1_000_000;
+        health.responsive = !output.isEmpty();
+        if (health.responsive) {
+            DeviceProfile battery = new DeviceProfile();
+            try {
+                battery.parse(output);
+            } catch (IOException e) {
+                log.debug("Failed to parse battery state of {}: {}", serial, e.getMessage());
+            }
+            health.batteryLevel = battery.batteryLevel;
+            health.charging = battery.charging;
+            health.temperatureC = battery.batteryTemperatureC;
+            health.freeStorageMb = parseFreeStorageMb(output);
+        }
+        health.score(Config.get());
+        return health;
+    }
+
+    private static void apply(String serial, Health health) {
+        timelines.computeIfAbsent(serial, s -> new Timeline()).add(System.currentTimeMillis() - startMillis, health);
+        DevicePool.updateScore(serial, health.score);
+        int minScore = Config.get().deviceHealthMinScore();
+        if (health.score < minScore) {
+            DevicePool.quarantine(serial, "score " + health.score + ": " + String.join(", ", health.problems));
+        } else if (health.score >= Math.min(100, minScore + RELEASE_MARGIN)) {
+            DevicePool.release(serial);
+        }
+        log.debug("Health of {}: {}", serial, health);
+    }
+
+    /**
+     * Available KB of /data from the df section ("Filesystem 1K-blocks Used Available Use% Mounted on"), in MB.
+     */
+    static long parseFreeStorageMb(String output) {
+        int section = output.indexOf(DF_SECTION);
+        if (section < 0) {
+            return -1;
+        }
+        String[] lines = output.substring(section + DF_SECTION.length()).trim().split("\n");
+        for (int i = 1; i < lines.length; i++) {
+            String[] parts = lines[i].trim().split("\\s+");
+            if (parts.length >= 4) {
+                try {
+                    return Long.parseLong(parts[3]) / 1024;
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        return -1;
+    }
+
+    // ==================== Data Classes ====================
+
+    public static class Health {
+        public boolean responsive;
+        public int batteryLevel = -1;
+        public boolean charging;
+        public double temperatureC = Double.NaN;
+        public long freeStorageMb = -1;
+        public long latencyMs;
+        public int score;
+        public final List<String> problems = new ArrayList<>();
+
+        /**
+         * 100 minus penalties; any single hard limit breached is enough to drop below the default
+         * quarantine threshold of 50, warnings cost less.
+         */
+        void score(Config config) {
+            if (!responsive) {
+                problems.add("adb not responding");
+                score = 0;
+                return;
+            }
+            int s = 100;
+            if (batteryLevel >= 0 && batteryLevel < config.deviceHealthMinBattery() && !charging) {
+                s -= 60;
+                problems.add("battery " + batteryLevel + "%");
+            } else if (batteryLevel >= 0 && batteryLevel < 2 * config.deviceHealthMinBattery() && !charging) {
+                s -= 15;
+                problems.add("battery low " + batteryLevel + "%");
+            }
+            if (temperatureC >= config.deviceHealthMaxTemperatureC()) {
+                s -= 60;
+                problems.add(String.format("temperature %.1f°C", temperatureC));
+            } else if (temperatureC >= config.deviceHealthMaxTemperatureC() - 5) {
+                s -= 20;
+                problems.add(String.format("warm %.1f°C", temperatureC));
+            }
+            if (freeStorageMb >= 0 && freeStorageMb < config.deviceHealthMinStorageMb()) {
+                s -= 60;
+                problems.add("/data free " + freeStorageMb + "MB");
+            }
+            if (latencyMs > config.deviceHealthMaxAdbLatencyMs()) {
+                s -= 30;
+                problems.add("adb latency " + latencyMs + "ms");
+            }
+            score = Math.max(0, s);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("score=%d, battery=%d%%%s, temperature=%.1f°C, free=%dMB, adb=%dms%s",
+                    score, batteryLevel, charging ? " charging" : "", temperatureC, freeStorageMb, latencyMs,
+                    problems.isEmpty() ? "" : " " + problems);
+        }
+    }
+
+    /**
+     * Readings of one device in primitive arrays, one column per series.
+     */
+    private static class Timeline {
+        private long[] offsetsMs = new long[64];
+        private final double[][] values = new double[SERIES_NAMES.length][64];
+        private int size;
+
+        synchronized void add(long offsetMs, Health health) {
+            if (size == offsetsMs.length) {
+                offsetsMs = Arrays.copyOf(offsetsMs, size * 2);
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = Arrays.copyOf(values[i], size * 2);
+                }
+            }
+            offsetsMs[size] = offsetMs;
+            values[0][size] = health.score;
+            values[1][size] = health.batteryLevel < 0 ? Double.NaN : health.batteryLevel;
+            values[2][size] = health.temperatureC;
+            values[3][size] = health.freeStorageMb < 0 ? Double.NaN : health.freeStorageMb;
+            values[4][size] = health.latencyMs;
+            size++;
+        }
+
+        synchronized void report(String serial) {
+            long[] offsets = Arrays.copyOf(offsetsMs, size);
+            for (int i = 0; i < values.length; i++) {
+                HtmlReportGenerator.recordDeviceSeries("Device health: " + serial, SERIES_NAMES[i], SERIES_UNITS[i],
+                        offsets, Arrays.copyOf(values[i], size));
+            }
+        }
+    }
+}
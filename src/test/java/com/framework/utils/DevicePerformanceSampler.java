@@ -0,0 +1,305 @@
+package com.framework.utils;
+
+import com.framework.base.DriverManager;
+import com.framework.config.Config;
+import com.framework.reporting.HtmlReportGenerator;
+import io.appium.java_client.android.AndroidDriver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background sampler of app CPU, memory, battery and network via {@code mobile: getPerformanceData}.
+ *
+ * One sampler runs per driver session. Samples are stored in primitive arrays and tagged with the
+ * test running at the time, so per-test averages and peaks can be computed without touching the
+ * test thread.
+ */
+public final class DevicePerformanceSampler {
+
+    private static final Logger log = LogManager.getLogger(DevicePerformanceSampler.class);
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_FAILURES_PER_TYPE = 3;
+    private static final int NO_TEST = -1;
+
+    public enum Metric {
+        CPU("cpuinfo", "CPU", "%"),
+        MEMORY("memoryinfo", "Memory (PSS)", "MB"),
+        BATTERY("batteryinfo", "Battery", "%"),
+        NETWORK("networkinfo", "Network (rx+tx)", "KB");
+
+        final String dataType;
+        final String label;
+        final String unit;
+
+        Metric(String dataType, String label, String unit) {
+            this.dataType = dataType;
+            this.label = label;
+            this.unit = unit;
+        }
+    }
+
+    private static final Map<String, DevicePerformanceSampler> samplers = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1, r -> {
+        Thread t = new Thread(r, "device-perf-sampler");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final AndroidDriver driver;
+    private final String packageName;
+    private final int[] failures = new int[Metric.values().length];
+    // A fresh id per invocation, so retries and data-provider rows are summarized separately
+    private final AtomicInteger nextTestId = new AtomicInteger();
+    private ScheduledFuture<?> task;
+    private volatile int currentTest = NO_TEST;
+
+    // Time series, appended only by the sampler thread; guarded by this
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private int[] tests = new int[INITIAL_CAPACITY];
+    private final double[][] values = new double[Metric.values().length][INITIAL_CAPACITY];
+    private int size;
+
+    private DevicePerformanceSampler(AndroidDriver driver, String packageName) {
+        this.driver = driver;
+        this.packageName = packageName;
+    }
+
+    // ==================== Lifecycle ====================
+
+    /**
+     * Starts sampling the app under test on the current session, if enabled in config.
+     */
+    public static void startForCurrentSession() {
+        if (!Config.get().deviceSamplerEnabled() || !DriverManager.isAndroid()) {
+            return;
+        }
+        AndroidDriver driver = DriverManager.getAndroidDriver();
+        samplers.computeIfAbsent(String.valueOf(driver.getSessionId()), id -> {
+            DevicePerformanceSampler sampler = new DevicePerformanceSampler(driver, Config.get().appPackage());
+            long interval = Math.max(250, Config.get().deviceSamplerIntervalMs());
+            sampler.task = scheduler.scheduleWithFixedDelay(sampler::sampleSafely, 0, interval, TimeUnit.MILLISECONDS);
+            log.info("Device performance sampler started for {} every {}ms", sampler.packageName, interval);
+            return sampler;
+        });
+    }
+
+    /**
+     * Stops sampling the current session, e.g. before it is replaced.
+     */
+    public static void stopForCurrentSession() {
+        AndroidDriver driver = DriverManager.getAndroidDriver();
+        DevicePerformanceSampler sampler = driver == null ? null : samplers.remove(String.valueOf(driver.getSessionId()));
+        if (sampler != null && sampler.task != null) {
+            sampler.task.cancel(false);
+        }
+    }
+
+    public static void stopAll() {
+        for (DevicePerformanceSampler sampler : samplers.values()) {
+            if (sampler.task != null) {
+                sampler.task.cancel(false);
+            }
+        }
+        samplers.clear();
+    }
+
+    /**
+     * Tags subsequent samples of the current session as a new invocation of the given test.
+     */
+    public static void testStarted(String testName) {
+        DevicePerformanceSampler sampler = current();
+        if (sampler != null) {
+            sampler.currentTest = sampler.nextTestId.getAndIncrement();
+        }
+    }
+
+    /**
+     * Stops tagging samples with the test, computes its summary and adds its charts to the HTML report.
+     * @return per-metric summary, or an empty map if sampling is off
+     */
+    public static Map<Metric, Summary> testFinished(String testName) {
+        DevicePerformanceSampler sampler = current();
+        if (sampler == null) {
+            return Map.of();
+        }
+        int id = sampler.currentTest;
+        sampler.currentTest = NO_TEST;
+        return id == NO_TEST ? Map.of() : sampler.summarizeAndReport(testName, id);
+    }
+
+    private static DevicePerformanceSampler current() {
+        if (samplers.isEmpty() || !DriverManager.isAndroid()) {
+            return null;
+        }
+        return samplers.get(String.valueOf(DriverManager.getAndroidDriver().getSessionId()));
+    }
+
+    // ==================== Sampling ====================
+
+    private void sampleSafely() {
+        try {
+            sample();
+        } catch (Exception e) {
+            log.debug("Performance sample failed: {}", e.getMessage());
+        }
+    }
+
+    private void sample() {
+        int test = currentTest;
+        double[] row = new double[Metric.values().length];
+        for (Metric metric : Metric.values()) {
+            row[metric.ordinal()] = failures[metric.ordinal()] >= MAX_FAILURES_PER_TYPE ? Double.NaN : read(metric);
+        }
+        synchronized (this) {
+            if (size == timestamps.length) {
+                int grown = size * 2;
+                timestamps = Arrays.copyOf(timestamps, grown);
+                tests = Arrays.copyOf(tests, grown);
+                for (int m = 0; m < values.length; m++) {
+                    values[m] = Arrays.copyOf(values[m], grown);
+                }
+            }
+            timestamps[size] = System.currentTimeMillis();
+            tests[size] = test;
+            for (int m = 0; m < values.length; m++) {
+                values[m][size] = row[m];
+            }
+            size++;
+        }
+    }
+
+    private double read(Metric metric) {
+        try {
+            Map<String, Object> args = new HashMap<>();
+            args.put("packageName", packageName);
+            args.put("dataType", metric.dataType);
+            args.put("dataReadTimeout", 5);
+            Object result = driver.executeScript("mobile: getPerformanceData", args);
+            double value = parse(metric, result);
+            failures[metric.ordinal()] = 0;
+            return value;
+        } catch (Exception e) {
+            if (++failures[metric.ordinal()] == MAX_FAILURES_PER_TYPE) {
+                log.warn("Disabling {} sampling after repeated failures: {}", metric.dataType, e.getMessage());
+            }
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * getPerformanceData returns a header row followed by value rows; values are picked by column name.
+     */
+    static double parse(Metric metric, Object result) {
+        if (!(result instanceof List<?> rows) || rows.size() < 2
+                || !(rows.get(0) instanceof List<?> header) || !(rows.get(rows.size() - 1) instanceof List<?> last)) {
+            return Double.NaN;
+        }
+        return switch (metric) {
+            case CPU -> column(header, last, "user") + column(header, last, "kernel");
+            case MEMORY -> column(header, last, "totalPss") / 1024.0;
+            case BATTERY -> column(header, last, "power");
+            case NETWORK -> (column(header, last, "rxBytes") + column(header, last, "txBytes")) / 1024.0;
+        };
+    }
+
+    private static double column(List<?> header, List<?> row, String name) {
+        int index = header.indexOf(name);
+        if (index < 0 || index >= row.size() || row.get(index) == null) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(row.get(index).toString().trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    // ==================== Summaries ====================
+
+    private Map<Metric, Summary> summarizeAndReport(String testName, int testId) {
+        long[] t;
+        double[][] v = new double[values.length][];
+        int n = 0;
+        synchronized (this) {
+            t = new long[size];
+            for (int m = 0; m < values.length; m++) {
+                v[m] = new double[size];
+            }
+            for (int i = 0; i < size; i++) {
+                if (tests[i] == testId) {
+                    t[n] = timestamps[i];
+                    for (int m = 0; m < values.length; m++) {
+                        v[m][n] = values[m][i];
+                    }
+                    n++;
+                }
+            }
+        }
+
+        Map<Metric, Summary> summaries = new HashMap<>();
+        for (Metric metric : Metric.values()) {
+            double[] series = Arrays.copyOf(v[metric.ordinal()], n);
+            long[] offsets = new long[n];
+            for (int i = 0; i < n; i++) {
+                offsets[i] = t[i] - t[0];
+            }
+            if (metric == Metric.NETWORK) {
+                // Counters are cumulative; chart the traffic since the test started
+                double base = Double.NaN;
+                for (int i = 0; i < n; i++) {
+                    if (Double.isNaN(base)) {
+                        base = series[i];
+                    }
+                    series[i] = series[i] - base;
+                }
+            }
+            Summary summary = Summary.of(series);
+            if (summary.samples > 0) {
+                summaries.put(metric, summary);
+                HtmlReportGenerator.recordDeviceSeries(testName, metric.label, metric.unit, offsets, series);
+            }
+        }
+        log.info("Device performance for {}: {}", testName, summaries);
+        return summaries;
+    }
+
+    // ==================== Data Classes ====================
+
+    public static class Summary {
+        public int samples;
+        public double average;
+        public double peak;
+
+        static Summary of(double[] series) {
+            Summary s = new Summary();
+            double sum = 0;
+            s.peak = Double.NaN;
+            for (double value : series) {
+                if (Double.isNaN(value)) {
+                    continue;
+                }
+                sum += value;
+                s.samples++;
+                s.peak = Double.isNaN(s.peak) ? value : Math.max(s.peak, value);
+            }
+            s.average = s.samples == 0 ? Double.NaN : sum / s.samples;
+            return s;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("avg=%.1f, peak=%.1f (n=%d)", average, peak, samples);
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.framework.utils;
+
+import com.framework.config.Config;
+import com.framework.reporting.PerformanceMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prepares devices for a run: install the APK, grant runtime permissions, disable animations,
+ * set the app locale and unlock the screen.
+ *
+ * Devices are prepared concurrently on a bounded pool (device.prep.parallelism) over direct adb.
+ * Every step first checks whether the device already satisfies it and is skipped if so (e.g. the
+ * installed versionCode matches the APK), is applied under a timeout otherwise, and is verified
+ * afterwards. Per-device preparation time is recorded in the performance summary.
+ */
+public final class DevicePreparation {
+
+    private static final Logger log = LogManager.getLogger(DevicePreparation.class);
+    private static final String REMOTE_APK = "/data/local/tmp/app-under-test.apk";
+    private static final Pattern VERSION_CODE = Pattern.compile("versionCode=(\\d+)");
+    private static final Pattern DENIED_PERMISSION = Pattern.compile("^([\\w.]+): granted=false");
+
+    public enum Step {
+        INSTALL("install"),
+        PERMISSIONS("permissions"),
+        ANIMATIONS("animations"),
+        LOCALE("locale"),
+        UNLOCK("unlock");
+
+        final String key;
+
+        Step(String key) {
+            this.key = key;
+        }
+    }
+
+    public enum Status {
+        ALREADY_DONE,
+        APPLIED,
+        FAILED,
+        TIMED_OUT,
+        SKIPPED
+    }
+
+    private DevicePreparation() {
+    }
+
+    // ==================== Pipeline ====================
+
+    /**
+     * Prepares all devices concurrently and waits for them.
+     * @return result per serial, in the given order
+     */
+    public static Map<String, DeviceResult> prepareAll(List<String> serials) {
+        Config config = Config.get();
+        List<Step> steps = configuredSteps(config);
+        ApkManifest apk = readApk(config.appPath());
+        int parallelism = Math.max(1, Math.min(config.devicePrepParallelism(), serials.size()));
+        ExecutorService devices = Executors.newFixedThreadPool(parallelism, daemon("device-prep"));
+        ExecutorService stepRunner = Executors.newCachedThreadPool(daemon("device-prep-step"));
+        long start = System.currentTimeMillis();
+        Map<String, Future<DeviceResult>> futures = new LinkedHashMap<>();
+        for (String serial : serials) {
+            futures.put(serial, devices.submit(() -> prepare(serial, steps, apk, stepRunner)));
+        }
+        Map<String, DeviceResult> results = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Future<DeviceResult>> entry : futures.entrySet()) {
+                try {
+                    results.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    log.error("Failed to prepare {}: {}", entry.getKey(), e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            devices.shutdownNow();
+            // Steps that timed out may still be blocked on adb
+            stepRunner.shutdownNow();
+        }
+        log.info("Prepared {} device(s) in {}ms with parallelism {}", results.size(),
+                System.currentTimeMillis() - start, parallelism);
+        return results;
+    }
+
+    private static DeviceResult prepare(String serial, List<Step> steps, ApkManifest apk, ExecutorService stepRunner) {
+        DeviceResult result = new DeviceResult(serial);
+        long start = System.currentTimeMillis();
+        boolean reachable = AdbClient.isAvailableFor(serial);
+        long timeoutSeconds = Config.get().devicePrepStepTimeoutSeconds();
+        for (Step step : steps) {
+            StepResult stepResult = new StepResult(step);
+            long stepStart = System.currentTimeMillis();
+            if (!reachable) {
+                stepResult.status = Status.SKIPPED;
+                stepResult.message = "adb server does not list the device";
+            } else {
+                Future<Status> future = stepRunner.submit(() -> run(step, serial, apk));
+                try {
+                    stepResult.status = future.get(timeoutSeconds, TimeUnit.SECONDS);
+                } catch (TimeoutException e) {
+                    future.cancel(true);
+                    stepResult.status = Status.TIMED_OUT;
+                    stepResult.message = "no result after " + timeoutSeconds + "s";
+                } catch (ExecutionException e) {
+                    stepResult.status = Status.FAILED;
+                    stepResult.message = String.valueOf(e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    stepResult.status = Status.FAILED;
+                    stepResult.message = "interrupted";
+                }
+            }
+            stepResult.elapsedMs = System.currentTimeMillis() - stepStart;
+            result.steps.add(stepResult);
+        }
+        result.elapsedMs = System.currentTimeMillis() - start;
+        PerformanceMetrics.recordActionTime("device_prep " + serial, result.elapsedMs);
+        if (result.isReady()) {
+            log.info("Device {} prepared: {}", serial, result);
+        } else {
+            log.warn("Device {} not fully prepared: {}", serial, result);
+        }
+        return result;
+    }
+
+    /**
+     * Checks, applies if needed and verifies one step.
+     */
+    private static Status run(Step step, String serial, ApkManifest apk) throws IOException {
+        if (isSatisfied(step, serial, apk)) {
+            return Status.ALREADY_DONE;
+        }
+        apply(step, serial, apk);
+        if (!isSatisfied(step, serial, apk)) {
+            throw new IOException(step.key + " still not satisfied after applying");
+        }
+        return Status.APPLIED;
+    }
+
+    // ==================== Steps ====================
+
+    private static boolean isSatisfied(Step step, String serial, ApkManifest apk) throws IOException {
+        String appPackage = Config.get().appPackage();
+        return switch (step) {
+            case INSTALL -> {
+                if (apk == null) {
+                    throw new IOException("APK not readable at " + Config.get().appPath());
+                }
+                yield installedVersionCode(serial, appPackage) == apk.versionCode;
+            }
+            case PERMISSIONS -> deniedRuntimePermissions(shell(serial, "dumpsys package " + appPackage)).isEmpty();
+            case ANIMATIONS -> {
+                StringBuilder cmd = new StringBuilder();
+                for (String scale : AnimationProfile.SCALES) {
+                    cmd.append("settings get global ").append(scale).append("; ");
+                }
+                yield Arrays.stream(shell(serial, cmd.toString()).trim().split("\\s+"))
+                        .allMatch(v -> v.equals("0") || v.equals("0.0"));
+            }
+            case LOCALE -> shell(serial, "cmd locale get-app-locales " + appPackage)
+                    .contains("[" + Config.get().devicePrepLocale() + "]");
+            case UNLOCK -> {
+                String state = shell(serial, "dumpsys power | grep mWakefulness=; " + DeviceProfile.LOCK_PROBE);
+                yield state.contains("mWakefulness=Awake") && !state.contains("=true");
+            }
+        };
+    }
+
+    private static void apply(Step step, String serial, ApkManifest apk) throws IOException {
+        String appPackage = Config.get().appPackage();
+        switch (step) {
+            case INSTALL -> {
+                AdbClient.get().push(serial, Path.of(Config.get().appPath()).toFile(), REMOTE_APK, 0644);
+                // -g grants all runtime permissions, -d allows going back to an older build
+                String out = shell(serial, "pm install -r -d -g " + REMOTE_APK + "; rm -f " + REMOTE_APK);
+                if (!out.contains("Success")) {
+                    throw new IOException("pm install failed: " + out.trim());
+                }
+            }
+            case PERMISSIONS -> {
+                StringBuilder cmd = new StringBuilder();
+                for (String permission : deniedRuntimePermissions(shell(serial, "dumpsys package " + appPackage))) {
+                    cmd.append("pm grant ").append(appPackage).append(' ').append(permission).append("; ");
+                }
+                shell(serial, cmd.toString());
+            }
+            case ANIMATIONS -> {
+                StringBuilder cmd = new StringBuilder();
+                for (String scale : AnimationProfile.SCALES) {
+                    cmd.append("settings put global ").append(scale).append(" 0; ");
+                }
+                shell(serial, cmd.toString());
+            }
+            // Per-app locale (Android 13+); changing the system locale needs root
+            case LOCALE -> shell(serial, "cmd locale set-app-locales " + appPackage
+                    + " --locales " + Config.get().devicePrepLocale());
+            case UNLOCK -> shell(serial, "input keyevent KEYCODE_WAKEUP; wm dismiss-keyguard");
+        }
+    }
+
+    /**
+     * Runtime permissions the app requests but has not been granted, read from the
+     * "runtime permissions:" block of user 0 in {@code dumpsys package} (pm grant's default user).
+     * Install-time permissions also report granted=false but pm grant rejects them, as it does
+     * permissions fixed by the system or a device policy, so those are left out.
+     */
+    static Set<String> deniedRuntimePermissions(String dumpsys) {
+        Set<String> denied = new LinkedHashSet<>();
+        boolean systemUser = false;
+        int sectionIndent = -1;
+        for (String line : dumpsys.split("\n")) {
+            String trimmed = line.strip();
+            int indent = line.length() - line.stripLeading().length();
+            if (trimmed.startsWith("User ")) {
+                systemUser = trimmed.startsWith("User 0:");
+                sectionIndent = -1;
+            } else if (systemUser && trimmed.equals("runtime permissions:")) {
+                sectionIndent = indent;
+            } else if (sectionIndent >= 0 && (trimmed.isEmpty() || indent <= sectionIndent)) {
+                sectionIndent = -1;
+            } else if (sectionIndent >= 0) {
+                Matcher m = DENIED_PERMISSION.matcher(trimmed);
+                if (m.find() && !trimmed.contains("SYSTEM_FIXED") && !trimmed.contains("POLICY_FIXED")) {
+                    denied.add(m.group(1));
+                }
+            }
+        }
+        return denied;
+    }
+
+    private static long installedVersionCode(String serial, String appPackage) throws IOException {
+        Matcher m = VERSION_CODE.matcher(shell(serial, "dumpsys package " + appPackage));
+        return m.find() ? Long.parseLong(m.group(1)) : -1;
+    }
+
+    private static String shell(String serial, String command) throws IOException {
+        return AdbClient.get().shell(serial, command);
+    }
+
+    private static List<Step> configuredSteps(Config config) {
+        List<String> keys = Arrays.stream(config.devicePrepSteps().split(",")).map(String::trim).toList();
+        List<Step> steps = new ArrayList<>();
+        for (Step step : Step.values()) {
+            if (keys.contains(step.key) && (step != Step.LOCALE || !config.devicePrepLocale().isBlank())) {
+                steps.add(step);
+            }
+        }
+        return steps;
+    }
+
+    private static ApkManifest readApk(String appPath) {
+        Path apk = Path.of(appPath);
+        if (!Files.isRegularFile(apk)) {
+            return null;
+        }
+        try {
+            ApkManifest manifest = ApkManifest.read(apk);
+            log.info("APK to install: {}", manifest);
+            return manifest;
+        } catch (IOException e) {
+            log.error("Failed to read APK manifest: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    // ==================== Data Classes ====================
+
+    public static class StepResult {
+        public final Step step;
+        public Status status;
+        public long elapsedMs;
+        public String message = "";
+
+        StepResult(Step step) {
+            this.step = step;
+        }
+
+        @Override
+        public String toString() {
+            return step.key + "=" + status + " (" + elapsedMs + "ms" + (message.isEmpty() ? "" : ", " + message) + ")";
+        }
+    }
+
+    public static class DeviceResult {
+        public final String serial;
+        public final List<StepResult> steps = new ArrayList<>();
+        public long elapsedMs;
+
+        DeviceResult(String serial) {
+            this.serial = serial;
+        }
+
+        public boolean isReady() {
+            return steps.stream().allMatch(s -> s.status == Status.ALREADY_DONE || s.status == Status.APPLIED);
+        }
+
+        @Override
+        public String toString() {
+            return elapsedMs + "ms " + steps;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.framework.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Parser checks for DevicePreparation against a stored {@code dumpsys package} dump.
+ * Needs no device: run with {@code mvn test -Dtest=DevicePreparationTest}.
+ */
+public class DevicePreparationTest {
+
+    @Test
+    public void testDeniedRuntimePermissionsOfSystemUser() throws IOException {
+        List<String> denied = List.copyOf(DevicePreparation.deniedRuntimePermissions(resource("testdata/dumpsys-package.txt")));
+
+        // Install permission C2D_MESSAGE, policy-fixed READ_PHONE_STATE and user 10's block excluded
+        Assert.assertEquals(denied, List.of("android.permission.CAMERA", "android.permission.POST_NOTIFICATIONS"));
+    }
+
+    @Test
+    public void testNothingDeniedWithoutRuntimeSection() {
+        String dump = "    install permissions:\n      com.example.app.permission.C2D_MESSAGE: granted=false\n";
+
+        Assert.assertTrue(DevicePreparation.deniedRuntimePermissions(dump).isEmpty(), "denied permissions");
+    }
+
+    private static String resource(String path) throws IOException {
+        try (InputStream in = DevicePreparationTest.class.getClassLoader().getResourceAsStream(path)) {
+            Assert.assertNotNull(in, "Missing test resource " + path);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.framework.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Typed device facts parsed from one batched shell probe (getprop, wm, dumpsys battery, keyguard state).
+ * Obtain through {@link DeviceUtils#getDeviceProfile()}, which caches it per session.
+ */
+public final class DeviceProfile {
+
+    static final String SECTION = "@@";
+
+    /** Keyguard flags; any "=true" line means the device is locked. */
+    static final String LOCK_PROBE = "dumpsys window | grep -E \"mShowingLockscreen|mDreamingLockscreen|isStatusBarKeyguard|mIsShowing\"";
+
+    /** Full probe: static properties plus the volatile section. */
+    static final String FULL_SCRIPT = "getprop; echo " + SECTION + "wm; wm density; wm size; " + volatileScript();
+
+    /** Battery and lock state only, for refreshing an expired profile. */
+    static final String VOLATILE_SCRIPT = volatileScript();
+
+    // Static, cached for the session
+    public String androidVersion = "";
+    public int sdkInt = -1;
+    public String manufacturer = "";
+    public String model = "";
+    public String device = "";
+    public String abi = "";
+    public boolean emulator;
+    public int density = -1;
+    public int screenWidth = -1;
+    public int screenHeight = -1;
+
+    // Volatile, refreshed after the TTL
+    public int batteryLevel = -1;
+    public boolean charging;
+    public double batteryTemperatureC = Double.NaN;
+    public boolean locked;
+    long volatileReadAtNanos;
+
+    /**
+     * New profile with this one's static values and no volatile values yet, for a refresh.
+     */
+    DeviceProfile withStaticValues() {
+        DeviceProfile copy = new DeviceProfile();
+        copy.androidVersion = androidVersion;
+        copy.sdkInt = sdkInt;
+        copy.manufacturer = manufacturer;
+        copy.model = model;
+        copy.device = device;
+        copy.abi = abi;
+        copy.emulator = emulator;
+        copy.density = density;
+        copy.screenWidth = screenWidth;
+        copy.screenHeight = screenHeight;
+        return copy;
+    }
+
+    private static String volatileScript() {
+        return "echo " + SECTION + "battery; dumpsys battery; echo " + SECTION + "lock; " + LOCK_PROBE;
+    }
+
+    /**
+     * Parses the output of {@link #FULL_SCRIPT} or {@link #VOLATILE_SCRIPT} into this profile.
+     */
+    void parse(String output) throws IOException {
+        Map<String, String> props = new HashMap<>();
+        String section = "props";
+        BufferedReader in = new BufferedReader(new StringReader(output));
+        String line;
+        while ((line = in.readLine()) != null) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith(SECTION)) {
+                section = trimmed.substring(SECTION.length());
+                if (section.equals("battery")) {
+                    batteryLevel = -1;
+                    charging = false;
+                    batteryTemperatureC = Double.NaN;
+                    volatileReadAtNanos = System.nanoTime();
+                } else if (section.equals("lock")) {
+                    locked = false;
+                }
+                continue;
+            }
+            switch (section) {
+                case "props" -> {
+                    // [ro.product.model]: [Pixel 7]
+                    int split = trimmed.indexOf("]: [");
+                    if (trimmed.startsWith("[") && split > 0 && trimmed.endsWith("]")) {
+                        props.put(trimmed.substring(1, split), trimmed.substring(split + 4, trimmed.length() - 1));
+                    }
+                }
+                case "wm" -> parseWm(trimmed);
+                case "battery" -> parseBattery(trimmed);
+                case "lock" -> locked |= trimmed.contains("=true");
+                default -> { }
+            }
+        }
+        if (!props.isEmpty()) {
+            applyProps(props);
+        }
+    }
+
+    private void applyProps(Map<String, String> props) {
+        androidVersion = props.getOrDefault("ro.build.version.release", "");
+        sdkInt = parseInt(props.get("ro.build.version.sdk"));
+        manufacturer = props.getOrDefault("ro.product.manufacturer", "");
+        model = props.getOrDefault("ro.product.model", "");
+        device = props.getOrDefault("ro.product.device", "");
+        abi = props.getOrDefault("ro.product.cpu.abi", "");
+        String lowerModel = model.toLowerCase();
+        emulator = "1".equals(props.get("ro.kernel.qemu")) || "1".equals(props.get("ro.boot.qemu"))
+                || lowerModel.contains("sdk") || lowerModel.contains("emulator")
+                || manufacturer.toLowerCase().contains("genymotion");
+    }
+
+    private void parseWm(String line) {
+        int colon = line.indexOf(':');
+        if (colon < 0) {
+            return;
+        }
+        String value = line.substring(colon + 1).trim();
+        // An override (set via wm density/size) wins over the physical value that precedes it
+        if (line.startsWith("Physical density") || line.startsWith("Override density")) {
+            density = parseInt(value);
+        } else if (line.startsWith("Physical size") || line.startsWith("Override size")) {
+            int x = value.indexOf('x');
+            if (x > 0) {
+                screenWidth = parseInt(value.substring(0, x));
+                screenHeight = parseInt(value.substring(x + 1));
+            }
+        }
+    }
+
+    private void parseBattery(String line) {
+        int colon = line.indexOf(':');
+        if (colon < 0) {
+            return;
+        }
+        String key = line.substring(0, colon).trim();
+        String value = line.substring(colon + 1).trim();
+        switch (key) {
+            case "level" -> batteryLevel = parseInt(value);
+            // BatteryManager.BATTERY_STATUS_CHARGING
+            case "status" -> charging = parseInt(value) == 2;
+            case "temperature" -> {
+                int tenths = parseInt(value);
+                batteryTemperatureC = tenths < 0 ? Double.NaN : tenths / 10.0;
+            }
+            default -> { }
+        }
+    }
+
+    private static int parseInt(String s) {
+        if (s == null) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(s.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Flat view in the shape returned by {@link DeviceUtils#getDeviceInfo()}.
+     */
+    public Map<String, String> toMap() {
+        Map<String, String> info = new HashMap<>();
+        info.put("platform", "Android");
+        info.put("platformVersion", androidVersion);
+        info.put("sdk", String.valueOf(sdkInt));
+        info.put("manufacturer", manufacturer);
+        info.put("model", model);
+        info.put("emulator", String.valueOf(emulator));
+        info.put("density", String.valueOf(density));
+        info.put("screenWidth", String.valueOf(screenWidth));
+        info.put("screenHeight", String.valueOf(screenHeight));
+        info.put("batteryLevel", String.valueOf(batteryLevel));
+        info.put("isLocked", String.valueOf(locked));
+        return info;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s (Android %s, API %d, %s%s), %dx%d@%ddpi, battery %d%%%s%s",
+                manufacturer, model, androidVersion, sdkInt, abi, emulator ? ", emulator" : "",
+                screenWidth, screenHeight, density, batteryLevel, charging ? " charging" : "",
+                locked ? ", locked" : "");
+    }
+}
@@ -1,16 +1,19 @@
 package com.framework.utils;
 
 import com.framework.base.DriverManager;
+import com.framework.config.Config;
 import io.appium.java_client.android.AndroidDriver;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.Dimension;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Device information and management utilities.
@@ -18,10 +21,82 @@ import java.util.Map;
 public final class DeviceUtils {
 
     private static final Logger log = LogManager.getLogger(DeviceUtils.class);
+    private static final Map<String, DeviceProfile> profiles = new ConcurrentHashMap<>();
 
     private DeviceUtils() {
     }
 
+    // ==================== Device Profile ====================
+
+    /**
+     * Device facts for the current session, collected in a single batched shell call.
+     * Static properties are cached for the session; battery and lock state are re-read once
+     * older than device.profile.ttl.seconds.
+     */
+    public static DeviceProfile getDeviceProfile() {
+        if (!DriverManager.isAndroid()) {
+            return new DeviceProfile();
+        }
+        String sessionId = String.valueOf(DriverManager.getAndroidDriver().getSessionId());
+        long ttlNanos = Config.get().deviceProfileTtlSeconds() * 1_000_000_000L;
+        DeviceProfile cached = profiles.get(sessionId);
+        if (cached != null && System.nanoTime() - cached.volatileReadAtNanos <= ttlNanos) {
+            return cached;
+        }
+        // Probed outside the map so no lock is held over the adb round trip. Expired values are
+        // read into a new profile that replaces the cached one, so callers holding the old profile
+        // never see it change underneath them. Concurrent refreshes may both probe; either result is fine.
+        DeviceProfile fresh = cached == null
+                ? probe(DeviceProfile.FULL_SCRIPT, new DeviceProfile())
+                : probe(DeviceProfile.VOLATILE_SCRIPT, cached.withStaticValues());
+        if (fresh == null) {
+            // Failed probes are not cached, so the next call tries again
+            return cached != null ? cached : new DeviceProfile();
+        }
+        profiles.put(sessionId, fresh);
+        return fresh;
+    }
+
+    /**
+     * Drops the cached profile of the current session, e.g. after changing device settings.
+     */
+    public static void invalidateDeviceProfile() {
+        if (DriverManager.isAndroid()) {
+            profiles.remove(String.valueOf(DriverManager.getAndroidDriver().getSessionId()));
+        }
+    }
+
+    /**
+     * @return the profile, or null if the device returned nothing usable
+     */
+    private static DeviceProfile probe(String script, DeviceProfile profile) {
+        long start = System.nanoTime();
+        String output = executeShell("sh", "-c", "'" + script + "'");
+        try {
+            profile.parse(output);
+        } catch (IOException e) {
+            log.error("Failed to parse device profile: {}", e.getMessage());
+            return null;
+        }
+        if (profile.volatileReadAtNanos == 0) {
+            log.warn("Device profile probe returned no battery section; not caching it");
+            return null;
+        }
+        log.debug("Device profile probe took {}ms: {}", (System.nanoTime() - start) / 1_000_000, profile);
+        return profile;
+    }
+
+    /**
+     * Serial of the session's device as adb knows it: the udid reported by the session, else the configured one.
+     */
+    public static String getDeviceSerial() {
+        if (!DriverManager.isAndroid()) {
+            return "";
+        }
+        Object udid = DriverManager.getAndroidDriver().getCapabilities().getCapability("udid");
+        return udid != null && !udid.toString().isBlank() ? udid.toString() : Config.get().udid();
+    }
+
     /**
      * Gets device information as a map.
      */
@@ -32,18 +107,11 @@ public final class DeviceUtils {
             if (DriverManager.isAndroid()) {
                 AndroidDriver driver = DriverManager.getAndroidDriver();
 
-                info.put("platform", "Android");
-                info.put("platformVersion", getAndroidVersion());
+                info.putAll(getDeviceProfile().toMap());
+                // Capabilities are held client-side, no round trip
                 info.put("deviceName", (String) driver.getCapabilities().getCapability("deviceName"));
                 info.put("udid", (String) driver.getCapabilities().getCapability("udid"));
                 info.put("automationName", (String) driver.getCapabilities().getCapability("automationName"));
-
-                Dimension size = driver.manage().window().getSize();
-                info.put("screenWidth", String.valueOf(size.getWidth()));
-                info.put("screenHeight", String.valueOf(size.getHeight()));
-
-                info.put("batteryLevel", String.valueOf(getBatteryLevel()));
-                info.put("isLocked", String.valueOf(driver.isDeviceLocked()));
             }
         } catch (Exception e) {
             log.error("Failed to get device info: {}", e.getMessage());
@@ -56,88 +124,28 @@ public final class DeviceUtils {
      * Gets Android OS version.
      */
     public static String getAndroidVersion() {
-        if (!DriverManager.isAndroid()) {
-            return "";
-        }
-
-        try {
-            AndroidDriver driver = DriverManager.getAndroidDriver();
-            Map<String, Object> args = new HashMap<>();
-            args.put("command", "getprop");
-            args.put("args", new String[]{"ro.build.version.release"});
-            Object result = driver.executeScript("mobile: shell", args);
-            return result != null ? result.toString().trim() : "";
-        } catch (Exception e) {
-            return "";
-        }
+        return getDeviceProfile().androidVersion;
     }
 
     /**
      * Gets device manufacturer.
      */
     public static String getManufacturer() {
-        if (!DriverManager.isAndroid()) {
-            return "";
-        }
-
-        try {
-            AndroidDriver driver = DriverManager.getAndroidDriver();
-            Map<String, Object> args = new HashMap<>();
-            args.put("command", "getprop");
-            args.put("args", new String[]{"ro.product.manufacturer"});
-            Object result = driver.executeScript("mobile: shell", args);
-            return result != null ? result.toString().trim() : "";
-        } catch (Exception e) {
-            return "";
-        }
+        return getDeviceProfile().manufacturer;
     }
 
     /**
      * Gets device model.
      */
     public static String getModel() {
-        if (!DriverManager.isAndroid()) {
-            return "";
-        }
-
-        try {
-            AndroidDriver driver = DriverManager.getAndroidDriver();
-            Map<String, Object> args = new HashMap<>();
-            args.put("command", "getprop");
-            args.put("args", new String[]{"ro.product.model"});
-            Object result = driver.executeScript("mobile: shell", args);
-            return result != null ? result.toString().trim() : "";
-        } catch (Exception e) {
-            return "";
-        }
+        return getDeviceProfile().model;
     }
 
     /**
-     * Gets battery level (0-100).
+     * Gets battery level (0-100), at most device.profile.ttl.seconds old.
      */
     public static int getBatteryLevel() {
-        if (!DriverManager.isAndroid()) {
-            return -1;
-        }
-
-        try {
-            AndroidDriver driver = DriverManager.getAndroidDriver();
-            Map<String, Object> args = new HashMap<>();
-            args.put("command", "dumpsys");
-            args.put("args", new String[]{"battery"});
-            Object result = driver.executeScript("mobile: shell", args);
-            if (result != null) {
-                String output = result.toString();
-                for (String line : output.split("\n")) {
-                    if (line.trim().startsWith("level:")) {
-                        return Integer.parseInt(line.split(":")[1].trim());
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.error("Failed to get battery level: {}", e.getMessage());
-        }
-        return -1;
+        return getDeviceProfile().batteryLevel;
     }
 
     /**
@@ -149,13 +157,9 @@ public final class DeviceUtils {
         }
 
         try {
-            AndroidDriver driver = DriverManager.getAndroidDriver();
-            Map<String, Object> args = new HashMap<>();
-            args.put("command", "df");
-            args.put("args", new String[]{"/data"});
-            Object result = driver.executeScript("mobile: shell", args);
-            if (result != null) {
-                String[] lines = result.toString().split("\n");
+            String result = executeShell("df", "/data");
+            if (!result.isEmpty()) {
+                String[] lines = result.split("\n");
                 if (lines.length > 1) {
                     String[] parts = lines[1].trim().split("\\s+");
                     if (parts.length >= 4) {
@@ -192,45 +196,14 @@ public final class DeviceUtils {
      * Checks if device is an emulator.
      */
     public static boolean isEmulator() {
-        if (!DriverManager.isAndroid()) {
-            return false;
-        }
-
-        try {
-            String model = getModel().toLowerCase();
-            String manufacturer = getManufacturer().toLowerCase();
-            return model.contains("sdk") || model.contains("emulator") ||
-                   manufacturer.contains("genymotion") || manufacturer.contains("google");
-        } catch (Exception e) {
-            return false;
-        }
+        return getDeviceProfile().emulator;
     }
 
     /**
      * Gets screen density.
      */
     public static int getScreenDensity() {
-        if (!DriverManager.isAndroid()) {
-            return -1;
-        }
-
-        try {
-            AndroidDriver driver = DriverManager.getAndroidDriver();
-            Map<String, Object> args = new HashMap<>();
-            args.put("command", "wm");
-            args.put("args", new String[]{"density"});
-            Object result = driver.executeScript("mobile: shell", args);
-            if (result != null) {
-                String output = result.toString();
-                String[] parts = output.split(":");
-                if (parts.length > 1) {
-                    return Integer.parseInt(parts[1].trim());
-                }
-            }
-        } catch (Exception e) {
-            log.error("Failed to get screen density: {}", e.getMessage());
-        }
-        return -1;
+        return getDeviceProfile().density;
     }
 
     /**
@@ -253,11 +226,7 @@ public final class DeviceUtils {
         }
 
         try {
-            AndroidDriver driver = DriverManager.getAndroidDriver();
-            Map<String, Object> args = new HashMap<>();
-            args.put("command", "bugreportz");
-            args.put("args", new String[]{});
-            driver.executeScript("mobile: shell", args);
+            executeShell("bugreportz");
             log.info("Bugreport captured: {}", fileName);
         } catch (Exception e) {
             log.error("Failed to capture bugreport: {}", e.getMessage());
@@ -272,16 +241,7 @@ public final class DeviceUtils {
             return "";
         }
 
-        try {
-            AndroidDriver driver = DriverManager.getAndroidDriver();
-            Map<String, Object> args = new HashMap<>();
-            args.put("command", "top");
-            args.put("args", new String[]{"-n", "1", "-b"});
-            Object result = driver.executeScript("mobile: shell", args);
-            return result != null ? result.toString() : "";
-        } catch (Exception e) {
-            return "";
-        }
+        return executeShell("top", "-n", "1", "-b");
     }
 
     /**
@@ -295,14 +255,10 @@ public final class DeviceUtils {
         }
 
         try {
-            AndroidDriver driver = DriverManager.getAndroidDriver();
-            Map<String, Object> args = new HashMap<>();
-            args.put("command", "cat");
-            args.put("args", new String[]{"/proc/meminfo"});
-            Object result = driver.executeScript("mobile: shell", args);
+            String result = executeShell("cat", "/proc/meminfo");
 
-            if (result != null) {
-                for (String line : result.toString().split("\n")) {
+            if (!result.isEmpty()) {
+                for (String line : result.split("\n")) {
                     if (line.startsWith("MemTotal:")) {
                         memInfo.put("total", parseMemValue(line));
                     } else if (line.startsWith("MemFree:")) {
@@ -338,13 +294,8 @@ public final class DeviceUtils {
         }
 
         try {
-            AndroidDriver driver = DriverManager.getAndroidDriver();
             String formattedDate = dateTime.format(DateTimeFormatter.ofPattern("MMddHHmmyyyy.ss"));
-
-            Map<String, Object> args = new HashMap<>();
-            args.put("command", "date");
-            args.put("args", new String[]{formattedDate});
-            driver.executeScript("mobile: shell", args);
+            executeShell("date", formattedDate);
             log.info("Device time set to: {}", dateTime);
         } catch (Exception e) {
             log.error("Failed to set device time: {}", e.getMessage());
@@ -360,14 +311,50 @@ public final class DeviceUtils {
         }
 
         try {
-            Runtime runtime = Runtime.getRuntime();
-            runtime.exec("adb kill-server").waitFor();
+            AdbClient.get().killServer();
             Thread.sleep(1000);
-            runtime.exec("adb start-server").waitFor();
+            // Only the adb binary can start the server again
+            new ProcessBuilder("adb", "start-server").inheritIO().start().waitFor();
             log.info("ADB server restarted");
         } catch (Exception e) {
             log.error("Failed to restart ADB: {}", e.getMessage());
         }
     }
-}
 
+    /**
+     * Runs a shell command on the Android device. Goes straight to the adb server when it lists
+     * the device, otherwise through mobile: shell (requires the adb_shell insecure feature). A direct
+     * command that was already sent is not retried through mobile: shell if it times out.
+     * @return command output, or an empty string on failure
+     */
+    public static String executeShell(String command, String... commandArgs) {
+        if (!DriverManager.isAndroid()) {
+            return "";
+        }
+
+        String serial = getDeviceSerial();
+        if (AdbClient.isAvailableFor(serial)) {
+            try {
+                return AdbClient.get().shell(serial, command + (commandArgs.length > 0 ? " " + String.join(" ", commandArgs) : ""));
+            } catch (AdbClient.ServiceInterrupted e) {
+                // The command may have run already; running it again could repeat its side effects
+                log.error("Direct adb shell did not finish: {}", e.getMessage());
+                return "";
+            } catch (IOException e) {
+                log.warn("Direct adb shell failed, falling back to mobile: shell: {}", e.getMessage());
+            }
+        }
+
+        try {
+            AndroidDriver driver = DriverManager.getAndroidDriver();
+            Map<String, Object> args = new HashMap<>();
+            args.put("command", command);
+            args.put("args", commandArgs);
+            Object result = driver.executeScript("mobile: shell", args);
+            return result != null ? result.toString() : "";
+        } catch (Exception e) {
+            log.error("Failed to run shell command '{}': {}", command, e.getMessage());
+            return "";
+        }
+    }
+}
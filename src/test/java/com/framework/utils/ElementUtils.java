@@ -1,16 +1,25 @@
 package com.framework.utils;
 
 import com.framework.base.DriverManager;
+import com.framework.config.Config;
+import com.framework.reporting.PerformanceMetrics;
 import io.appium.java_client.AppiumBy;
 import io.appium.java_client.AppiumDriver;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.Rectangle;
 import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.FluentWait;
 
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
@@ -140,6 +149,56 @@ public final class ElementUtils {
                                 "new UiSelector().textContains(\"" + text + "\"))"));
     }
 
+    // ==================== Image Locators ====================
+
+    /**
+     * Locates a control by its image using local template matching against the current frame.
+     * @return bounds in device pixels, ready for {@link AdvancedGestureUtils#tap(Rectangle)}
+     */
+    public static Optional<Rectangle> findByImage(Path templateFile) {
+        try {
+            BufferedImage template = ImageIO.read(templateFile.toFile());
+            if (template == null) {
+                throw new IllegalArgumentException("Not an image: " + templateFile);
+            }
+            return findByImage(template, Config.get().imageMatchThreshold());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read template: " + templateFile, e);
+        }
+    }
+
+    public static Optional<Rectangle> findByImage(BufferedImage template, double threshold) {
+        long start = System.nanoTime();
+        BufferedImage frame = ScreenshotUtils.captureFrame();
+        if (frame == null) {
+            return Optional.empty();
+        }
+        // Stream frames may be downscaled; bring the template to the frame's scale
+        int screenWidth = DriverManager.getDriver().manage().window().getSize().getWidth();
+        double scale = screenWidth > 0 ? frame.getWidth() / (double) screenWidth : 1.0;
+        BufferedImage scaledTemplate = Math.abs(scale - 1.0) < 0.01 ? template : resize(template, scale);
+
+        Optional<Rectangle> bounds = TemplateMatcher.find(frame, scaledTemplate, threshold)
+                .map(m -> new Rectangle(
+                        (int) Math.round(m.bounds.getX() / scale),
+                        (int) Math.round(m.bounds.getY() / scale),
+                        template.getHeight(),
+                        template.getWidth()));
+        PerformanceMetrics.recordActionTime("find_by_image", (System.nanoTime() - start) / 1_000_000);
+        return bounds;
+    }
+
+    private static BufferedImage resize(BufferedImage image, double scale) {
+        int w = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int h = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(image, 0, 0, w, h, null);
+        g.dispose();
+        return out;
+    }
+
     private static <T> T retryOnStale(Supplier<T> action, int retries) {
         for (int attempt = 0; attempt <= retries; attempt++) {
             try {
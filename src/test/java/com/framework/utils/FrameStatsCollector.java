@@ -0,0 +1,380 @@
+package com.framework.utils;
+
+import com.framework.config.Config;
+import com.framework.reporting.AllureReportUtils;
+import com.framework.reporting.PerformanceMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Frame rendering metrics from {@code dumpsys gfxinfo <package> framestats}.
+ *
+ * Counters are reset at the start of a test and read at its end. A gesture block inside the test
+ * is measured by reading the counters before and after it and taking the difference, so blocks
+ * never disturb the per-test totals; its percentiles come from the difference of the frame time
+ * histograms. The output is parsed line by line.
+ */
+public final class FrameStatsCollector {
+
+    private static final Logger log = LogManager.getLogger(FrameStatsCollector.class);
+    private static final long FRAME_DEADLINE_NANOS = 16_666_667L;
+    private static final ThreadLocal<Integer> measureDepth = ThreadLocal.withInitial(() -> 0);
+
+    private FrameStatsCollector() {
+    }
+
+    // ==================== Collection ====================
+
+    /**
+     * Clears the app's frame counters.
+     */
+    public static void reset() {
+        DeviceUtils.executeShell("dumpsys", "gfxinfo", Config.get().appPackage(), "reset");
+    }
+
+    /**
+     * Reads frame stats accumulated since the last reset.
+     */
+    public static FrameStats read() {
+        return read(0);
+    }
+
+    private static FrameStats read(long afterVsyncNanos) {
+        String output = DeviceUtils.executeShell("dumpsys", "gfxinfo", Config.get().appPackage(), "framestats");
+        try {
+            return parse(new StringReader(output), afterVsyncNanos);
+        } catch (IOException e) {
+            log.error("Failed to parse gfxinfo: {}", e.getMessage());
+            return new FrameStats();
+        }
+    }
+
+    /**
+     * Reads the counters, runs the block, waits for rendering to settle and returns the frames
+     * rendered in between. Calls may be nested; each one reports its own block.
+     */
+    public static FrameStats measure(String label, Runnable block) {
+        measureDepth.set(measureDepth.get() + 1);
+        try {
+            FrameStats before = read();
+            block.run();
+            sleep(Config.get().frameStatsSettleMs());
+            FrameStats stats = read(before.lastVsyncNanos).since(before);
+            stats.label = label;
+            report(stats);
+            return stats;
+        } finally {
+            measureDepth.set(measureDepth.get() - 1);
+        }
+    }
+
+    /**
+     * Whether a {@link #measure} block is running on this thread, so automatic per-swipe
+     * measurement can leave the gesture to it.
+     */
+    public static boolean isMeasuring() {
+        return measureDepth.get() > 0;
+    }
+
+    /**
+     * Logs the stats, records the p95 frame time in PerformanceMetrics and attaches them to Allure.
+     */
+    public static void report(FrameStats stats) {
+        log.info("Frames [{}]: {}", stats.label, stats);
+        if (stats.totalFrames > 0) {
+            PerformanceMetrics.recordActionTime("frame_p95 " + stats.label, stats.p95Ms);
+        }
+        AllureReportUtils.attachText("Frame stats: " + stats.label, stats.toString());
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================== Parsing ====================
+
+    /**
+     * Parses gfxinfo output: the summary counters plus any PROFILEDATA (framestats) sections.
+     */
+    public static FrameStats parse(Reader reader) throws IOException {
+        return parse(reader, 0);
+    }
+
+    /**
+     * Same as {@link #parse(Reader)}, but only counts profiled frames with a later intended vsync.
+     */
+    public static FrameStats parse(Reader reader, long afterVsyncNanos) throws IOException {
+        FrameStats stats = new FrameStats();
+        BufferedReader in = reader instanceof BufferedReader br ? br : new BufferedReader(reader);
+        boolean inProfile = false;
+        int intendedVsyncCol = -1;
+        int frameCompletedCol = -1;
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.startsWith("---PROFILEDATA---")) {
+                inProfile = !inProfile;
+                intendedVsyncCol = -1;
+                continue;
+            }
+            if (inProfile) {
+                if (intendedVsyncCol < 0) {
+                    intendedVsyncCol = column(line, "IntendedVsync");
+                    frameCompletedCol = column(line, "FrameCompleted");
+                    continue;
+                }
+                addProfiledFrame(stats, line, intendedVsyncCol, frameCompletedCol, afterVsyncNanos);
+            } else if (line.startsWith("Total frames rendered:")) {
+                stats.available = true;
+                stats.totalFrames += leadingLong(line, line.indexOf(':') + 1);
+            } else if (line.startsWith("Janky frames:")) {
+                stats.jankyFrames += leadingLong(line, line.indexOf(':') + 1);
+            } else if (line.startsWith("50th percentile:")) {
+                stats.p50Ms = Math.max(stats.p50Ms, leadingLong(line, line.indexOf(':') + 1));
+            } else if (line.startsWith("90th percentile:")) {
+                stats.p90Ms = Math.max(stats.p90Ms, leadingLong(line, line.indexOf(':') + 1));
+            } else if (line.startsWith("95th percentile:")) {
+                stats.p95Ms = Math.max(stats.p95Ms, leadingLong(line, line.indexOf(':') + 1));
+            } else if (line.startsWith("99th percentile:")) {
+                stats.p99Ms = Math.max(stats.p99Ms, leadingLong(line, line.indexOf(':') + 1));
+            } else if (line.startsWith("Number Missed Vsync:")) {
+                stats.missedVsync += leadingLong(line, line.indexOf(':') + 1);
+            } else if (line.startsWith("Number Slow UI thread:")) {
+                stats.slowUiThread += leadingLong(line, line.indexOf(':') + 1);
+            } else if (line.startsWith("Number Frame deadline missed:")) {
+                stats.deadlineMissed += leadingLong(line, line.indexOf(':') + 1);
+            } else if (line.startsWith("HISTOGRAM:")) {
+                addHistogram(stats, line);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Adds "HISTOGRAM: 5ms=12 6ms=3 ..." bucket counts; windows of the same app share buckets.
+     */
+    private static void addHistogram(FrameStats stats, String line) {
+        int start = line.indexOf(':') + 1;
+        while (start < line.length()) {
+            int end = line.indexOf(' ', start);
+            if (end < 0) {
+                end = line.length();
+            }
+            int ms = line.indexOf("ms=", start);
+            if (ms > start && ms < end) {
+                long bucket = leadingLong(line, start);
+                long count = leadingLong(line, ms + 3);
+                if (bucket >= 0 && count > 0) {
+                    stats.histogram.merge(bucket, count, Long::sum);
+                }
+            }
+            start = end + 1;
+        }
+    }
+
+    private static void addProfiledFrame(FrameStats stats, String line, int intendedCol, int completedCol,
+                                         long afterVsyncNanos) {
+        if (intendedCol < 0 || completedCol < 0 || line.isEmpty()) {
+            return;
+        }
+        // Flags (column 0) other than 0 mark frames that should be ignored
+        if (leadingLong(line, 0) != 0) {
+            return;
+        }
+        long intended = field(line, intendedCol);
+        long completed = field(line, completedCol);
+        if (intended <= 0 || completed <= intended) {
+            return;
+        }
+        stats.lastVsyncNanos = Math.max(stats.lastVsyncNanos, intended);
+        if (intended <= afterVsyncNanos) {
+            return;
+        }
+        long duration = completed - intended;
+        stats.profiledFrames++;
+        stats.maxFrameNanos = Math.max(stats.maxFrameNanos, duration);
+        if (duration > FRAME_DEADLINE_NANOS) {
+            stats.profiledSlowFrames++;
+        }
+    }
+
+    private static int column(String header, String name) {
+        int index = 0;
+        int start = 0;
+        while (start <= header.length()) {
+            int end = header.indexOf(',', start);
+            if (end < 0) {
+                end = header.length();
+            }
+            if (header.regionMatches(start, name, 0, name.length()) && end - start == name.length()) {
+                return index;
+            }
+            start = end + 1;
+            index++;
+        }
+        return -1;
+    }
+
+    /**
+     * Value of the n-th comma-separated field, scanned without splitting the line.
+     */
+    private static long field(String line, int index) {
+        int start = 0;
+        for (int i = 0; i < index; i++) {
+            start = line.indexOf(',', start) + 1;
+            if (start == 0) {
+                return -1;
+            }
+        }
+        return leadingLong(line, start);
+    }
+
+    private static long leadingLong(String s, int from) {
+        int i = from;
+        while (i < s.length() && s.charAt(i) == ' ') {
+            i++;
+        }
+        long value = 0;
+        boolean any = false;
+        while (i < s.length() && Character.isDigit(s.charAt(i))) {
+            value = value * 10 + (s.charAt(i++) - '0');
+            any = true;
+        }
+        return any ? value : -1;
+    }
+
+    // ==================== Data Classes ====================
+
+    public static class FrameStats {
+        public String label = "";
+        /** False when gfxinfo could not be read or had no summary for the app. */
+        public boolean available;
+        public long totalFrames;
+        public long jankyFrames;
+        public long p50Ms;
+        public long p90Ms;
+        public long p95Ms;
+        public long p99Ms;
+        public long missedVsync;
+        public long slowUiThread;
+        public long deadlineMissed;
+        /** From framestats, which only keeps the most recent frames. */
+        public long profiledFrames;
+        public long profiledSlowFrames;
+        public long maxFrameNanos;
+        /** Frame count per frame time bucket (ms). */
+        public final Map<Long, Long> histogram = new TreeMap<>();
+        long lastVsyncNanos;
+
+        public double jankyPercent() {
+            return totalFrames == 0 ? 0 : jankyFrames * 100.0 / totalFrames;
+        }
+
+        /**
+         * Frames rendered since an earlier reading of the same counters. Counters that went down
+         * were reset by an app restart, and then all frames in this reading are new.
+         */
+        public FrameStats since(FrameStats before) {
+            if (!available || !before.available || totalFrames < before.totalFrames) {
+                return this;
+            }
+            FrameStats delta = new FrameStats();
+            delta.label = label;
+            delta.available = true;
+            delta.totalFrames = totalFrames - before.totalFrames;
+            delta.jankyFrames = jankyFrames - before.jankyFrames;
+            delta.missedVsync = missedVsync - before.missedVsync;
+            delta.slowUiThread = slowUiThread - before.slowUiThread;
+            delta.deadlineMissed = deadlineMissed - before.deadlineMissed;
+            delta.profiledFrames = profiledFrames;
+            delta.profiledSlowFrames = profiledSlowFrames;
+            delta.maxFrameNanos = maxFrameNanos;
+            delta.lastVsyncNanos = lastVsyncNanos;
+            histogram.forEach((bucket, count) -> {
+                long added = count - before.histogram.getOrDefault(bucket, 0L);
+                if (added > 0) {
+                    delta.histogram.put(bucket, added);
+                }
+            });
+            if (delta.histogram.isEmpty() && delta.totalFrames > 0) {
+                // No histogram on this platform version: the cumulative percentiles are the best estimate
+                delta.p50Ms = p50Ms;
+                delta.p90Ms = p90Ms;
+                delta.p95Ms = p95Ms;
+                delta.p99Ms = p99Ms;
+            } else {
+                delta.p50Ms = delta.histogramPercentile(50);
+                delta.p90Ms = delta.histogramPercentile(90);
+                delta.p95Ms = delta.histogramPercentile(95);
+                delta.p99Ms = delta.histogramPercentile(99);
+            }
+            return delta;
+        }
+
+        private long histogramPercentile(int percentile) {
+            long total = histogram.values().stream().mapToLong(Long::longValue).sum();
+            long rank = (long) Math.ceil(total * percentile / 100.0);
+            long seen = 0;
+            for (Map.Entry<Long, Long> bucket : histogram.entrySet()) {
+                seen += bucket.getValue();
+                if (seen >= rank) {
+                    return bucket.getKey();
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Throws if the stats exceed the budget or could not be read. Blocks that rendered no
+         * frames pass.
+         */
+        public void assertWithin(JankBudget budget) {
+            if (!available) {
+                throw new AssertionError("No frame stats for " + label + "; cannot check the jank budget");
+            }
+            if (totalFrames == 0) {
+                return;
+            }
+            if (jankyPercent() > budget.maxJankyPercent || p95Ms > budget.maxP95Ms) {
+                throw new AssertionError(String.format("Jank budget exceeded for %s: %s (budget: janky <= %.1f%%, p95 <= %dms)",
+                        label, this, budget.maxJankyPercent, budget.maxP95Ms));
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("frames=%d, janky=%d (%.1f%%), p50=%dms, p90=%dms, p95=%dms, p99=%dms, "
+                            + "missedVsync=%d, slowUi=%d, deadlineMissed=%d, maxFrame=%.1fms",
+                    totalFrames, jankyFrames, jankyPercent(), p50Ms, p90Ms, p95Ms, p99Ms,
+                    missedVsync, slowUiThread, deadlineMissed, maxFrameNanos / 1_000_000.0);
+        }
+    }
+
+    /**
+     * Acceptable rendering for a screen: share of janky frames and 95th-percentile frame time.
+     */
+    public static class JankBudget {
+        public final double maxJankyPercent;
+        public final long maxP95Ms;
+
+        public JankBudget(double maxJankyPercent, long maxP95Ms) {
+            this.maxJankyPercent = maxJankyPercent;
+            this.maxP95Ms = maxP95Ms;
+        }
+
+        public static JankBudget fromConfig() {
+            return new JankBudget(Config.get().jankMaxPercent(), Config.get().jankMaxP95Ms());
+        }
+    }
+}
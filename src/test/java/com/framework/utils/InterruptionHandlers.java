@@ -0,0 +1,385 @@
+package com.framework.utils;
+
+import com.framework.base.DriverManager;
+import com.framework.config.Config;
+import com.framework.reporting.AllureReportUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Dismisses permission prompts, rating dialogs, OS update popups and other interruptions that
+ * would otherwise make a wait time out or an action fail, and then resumes the operation.
+ *
+ * Handlers are only consulted after an operation has failed: one page source snapshot is taken
+ * and every handler's XPath is evaluated on it locally, so checking all handlers costs a single
+ * round trip. Waits with a known timeout are first given a quarter of it, so an interruption is
+ * found without spending the whole timeout. The dismiss tap uses the bounds from the same snapshot. Hits are counted per
+ * handler together with the test time a retry would have repeated.
+ */
+public final class InterruptionHandlers {
+
+    private static final Logger log = LogManager.getLogger(InterruptionHandlers.class);
+    private static final Pattern ANDROID_BOUNDS = Pattern.compile("\\[(-?\\d+),(-?\\d+)]\\[(-?\\d+),(-?\\d+)]");
+    private static final int MAX_RESUMES = 3;
+    private static final int FIRST_ATTEMPT_PERCENT = 25;
+    private static final List<Handler> handlers = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+    private static volatile long testStartNanos = System.nanoTime();
+    private static final AtomicBoolean retryCredited = new AtomicBoolean();
+
+    static {
+        register(Handler.tap("Runtime permission",
+                "//*[@resource-id='com.android.permissioncontroller:id/grant_dialog' or @resource-id='com.android.packageinstaller:id/dialog_container']",
+                "(.//*[@resource-id='com.android.permissioncontroller:id/permission_allow_foreground_only_button']"
+                        + " | .//*[@resource-id='com.android.permissioncontroller:id/permission_allow_button']"
+                        + " | .//*[@resource-id='com.android.packageinstaller:id/permission_allow_button'])[1]"));
+        register(Handler.tap("Rating dialog",
+                "//*[contains(@text,'Rate this app') or contains(@text,'Rate us') or contains(@text,'Enjoying')]",
+                ".//*[@text='Not now' or @text='NOT NOW' or @text='Later' or @text='LATER' or @text='No thanks'"
+                        + " or @text='NO THANKS' or @text='Maybe later']"));
+        register(Handler.tap("System update",
+                "//*[@package='com.google.android.gms' or @package='com.android.updater' or @package='com.sec.android.soagent'"
+                        + " or @package='com.samsung.android.app.updatecenter'][contains(@text,'update') or contains(@text,'Update')]",
+                ".//*[@text='Later' or @text='LATER' or @text='Remind me later' or @text='Not now' or @text='Cancel' or @text='CANCEL']"));
+    }
+
+    private InterruptionHandlers() {
+    }
+
+    // ==================== Registry ====================
+
+    /**
+     * Adds a handler; handlers are tried in registration order.
+     */
+    public static void register(Handler handler) {
+        handlers.add(handler);
+    }
+
+    public static List<Handler> handlers() {
+        return List.copyOf(handlers);
+    }
+
+    public static void testStarted() {
+        testStartNanos = System.nanoTime();
+        retryCredited.set(false);
+    }
+
+    // ==================== Guarding ====================
+
+    /**
+     * Runs an operation; if it fails and an interruption is found and dismissed, runs it again.
+     */
+    public static <T> T guard(String operation, Supplier<T> op) {
+        int[] level = depth.get();
+        if (!guarding(level)) {
+            level[0]++;
+            try {
+                return op.get();
+            } finally {
+                level[0]--;
+            }
+        }
+        level[0]++;
+        Handler dismissed = null;
+        try {
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    return resumed(op.get(), dismissed);
+                } catch (WebDriverException e) {
+                    Handler handler = attempt < MAX_RESUMES ? dismissInterruption() : null;
+                    if (handler == null) {
+                        throw e;
+                    }
+                    log.warn("{} interrupted by '{}'; dismissed it and resuming", operation, handler.name);
+                    dismissed = handler;
+                }
+            }
+        } finally {
+            level[0]--;
+        }
+    }
+
+    /**
+     * Runs a wait for a short part of its timeout and, if it fails, checks for an interruption
+     * before spending the rest of the timeout. A dismissed interruption restarts the wait with the
+     * full timeout, as {@link #guard} does. Unlike other operations, a wait inside a page action
+     * is handled itself, so the early check also applies there.
+     * @param wait runs the wait with the given timeout
+     */
+    public static <T> T guardWait(String operation, Duration timeout, Function<Duration, T> wait) {
+        int[] level = depth.get();
+        if (!enabled()) {
+            level[0]++;
+            try {
+                return wait.apply(timeout);
+            } finally {
+                level[0]--;
+            }
+        }
+        level[0]++;
+        Handler dismissed = null;
+        try {
+            for (int attempt = 0; ; attempt++) {
+                long start = System.nanoTime();
+                try {
+                    return resumed(wait.apply(timeout.multipliedBy(FIRST_ATTEMPT_PERCENT).dividedBy(100)), dismissed);
+                } catch (WebDriverException e) {
+                    Handler handler = attempt < MAX_RESUMES ? dismissInterruption() : null;
+                    if (handler != null) {
+                        log.warn("{} interrupted by '{}'; dismissed it and waiting again", operation, handler.name);
+                        dismissed = handler;
+                        continue;
+                    }
+                    Duration rest = timeout.minusNanos(System.nanoTime() - start);
+                    if (!(e instanceof TimeoutException) || rest.isNegative() || rest.isZero()) {
+                        throw e;
+                    }
+                    // Nothing in the way yet: spend the rest of the timeout
+                    try {
+                        return resumed(wait.apply(rest), dismissed);
+                    } catch (WebDriverException late) {
+                        handler = attempt < MAX_RESUMES ? dismissInterruption() : null;
+                        if (handler == null) {
+                            throw late;
+                        }
+                        log.warn("{} interrupted by '{}'; dismissed it and waiting again", operation, handler.name);
+                        dismissed = handler;
+                    }
+                }
+            }
+        } finally {
+            level[0]--;
+        }
+    }
+
+    /**
+     * Nested operations (an action inside another) are handled once, by the outermost one.
+     */
+    private static boolean guarding(int[] level) {
+        return level[0] == 0 && enabled();
+    }
+
+    private static boolean enabled() {
+        return Config.get().interruptionHandlersEnabled() && DriverManager.getDriver() != null;
+    }
+
+    private static <T> T resumed(T result, Handler dismissed) {
+        if (dismissed != null) {
+            // However many interruptions a test meets, without handlers it is retried only once
+            dismissed.recordResume(System.nanoTime() - testStartNanos, !retryCredited.getAndSet(true));
+        }
+        return result;
+    }
+
+    /**
+     * Checks all handlers against one page source snapshot and dismisses the first match.
+     * @return the handler that dismissed an interruption, or null
+     */
+    public static Handler dismissInterruption() {
+        Document snapshot;
+        try {
+            snapshot = parse(DriverManager.getDriver().getPageSource());
+        } catch (Exception e) {
+            log.debug("No page source to check for interruptions: {}", e.getMessage());
+            return null;
+        }
+        for (Handler handler : handlers) {
+            try {
+                if (handler.dismissIfPresent(snapshot)) {
+                    return handler;
+                }
+            } catch (Exception e) {
+                log.debug("Handler '{}' failed: {}", handler.name, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private static Document parse(String pageSource) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        return factory.newDocumentBuilder().parse(new InputSource(new StringReader(pageSource)));
+    }
+
+    /**
+     * The top-level node (window) of the snapshot that contains the node.
+     */
+    static Node windowOf(Node node) {
+        Node window = node;
+        while (window.getParentNode() != null && window.getParentNode().getParentNode() instanceof Element) {
+            window = window.getParentNode();
+        }
+        return window;
+    }
+
+    /**
+     * Absolute indexed path of a snapshot node, e.g. /hierarchy/android.widget.FrameLayout[2]/android.widget.Button[1].
+     */
+    static String pathOf(Node node) {
+        StringBuilder path = new StringBuilder();
+        for (Node n = node; n instanceof Element; n = n.getParentNode()) {
+            int index = 1;
+            for (Node sibling = n.getPreviousSibling(); sibling != null; sibling = sibling.getPreviousSibling()) {
+                if (sibling instanceof Element && sibling.getNodeName().equals(n.getNodeName())) {
+                    index++;
+                }
+            }
+            path.insert(0, "/" + n.getNodeName() + "[" + index + "]");
+        }
+        return path.toString();
+    }
+
+    /**
+     * Element bounds from the snapshot: "bounds" on Android, x/y/width/height on iOS.
+     */
+    static Rectangle bounds(Element element) {
+        Matcher m = ANDROID_BOUNDS.matcher(element.getAttribute("bounds"));
+        if (m.matches()) {
+            int x1 = Integer.parseInt(m.group(1));
+            int y1 = Integer.parseInt(m.group(2));
+            return new Rectangle(x1, y1, Integer.parseInt(m.group(4)) - y1, Integer.parseInt(m.group(3)) - x1);
+        }
+        try {
+            return new Rectangle(Integer.parseInt(element.getAttribute("x")), Integer.parseInt(element.getAttribute("y")),
+                    Integer.parseInt(element.getAttribute("height")), Integer.parseInt(element.getAttribute("width")));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // ==================== Reporting ====================
+
+    /**
+     * Logs and attaches the hit counts and the estimated retry time saved.
+     */
+    public static void report() {
+        StringBuilder sb = new StringBuilder();
+        long totalSavedMs = 0;
+        for (Handler handler : handlers) {
+            if (handler.hits.get() == 0) {
+                continue;
+            }
+            sb.append(String.format("  %s: %d hit(s), %d resumed, ~%ds of test time not repeated%n",
+                    handler.name, handler.hits.get(), handler.resumed.get(), handler.savedMs.get() / 1000));
+            totalSavedMs += handler.savedMs.get();
+        }
+        if (sb.length() == 0) {
+            return;
+        }
+        String report = String.format("Interruption handlers (~%ds of retries saved)%n", totalSavedMs / 1000) + sb;
+        log.info(report);
+        AllureReportUtils.attachText("Interruption handlers", report);
+    }
+
+    // ==================== Data Classes ====================
+
+    public static class Handler {
+        public final String name;
+        private final XPathExpression detect;
+        private final XPathExpression dismiss;
+        final AtomicInteger hits = new AtomicInteger();
+        final AtomicInteger resumed = new AtomicInteger();
+        final AtomicLong savedMs = new AtomicLong();
+
+        private Handler(String name, String detectXpath, String dismissXpath) {
+            this.name = name;
+            try {
+                this.detect = XPathFactory.newInstance().newXPath().compile(detectXpath);
+                this.dismiss = dismissXpath == null ? null : XPathFactory.newInstance().newXPath().compile(dismissXpath);
+            } catch (XPathExpressionException e) {
+                throw new IllegalArgumentException("Invalid XPath in handler '" + name + "': " + e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Taps the dismissXpath element when detectXpath matches. dismissXpath is evaluated relative
+         * to the detected node (so it starts with ".//"), from that node outwards to its window.
+         */
+        public static Handler tap(String name, String detectXpath, String dismissXpath) {
+            return new Handler(name, detectXpath, dismissXpath);
+        }
+
+        /**
+         * Presses back when detectXpath matches.
+         */
+        public static Handler pressBack(String name, String detectXpath) {
+            return new Handler(name, detectXpath, null);
+        }
+
+        synchronized boolean dismissIfPresent(Document snapshot) throws XPathExpressionException {
+            Node detected = (Node) detect.evaluate(snapshot, XPathConstants.NODE);
+            if (detected == null) {
+                return false;
+            }
+            if (dismiss == null) {
+                AppUtils.pressBack();
+            } else {
+                Node target = dismissTarget(detected);
+                if (target == null) {
+                    return false;
+                }
+                Rectangle bounds = target instanceof Element element ? bounds(element) : null;
+                if (bounds != null && bounds.getWidth() > 0 && bounds.getHeight() > 0) {
+                    AdvancedGestureUtils.tap(bounds);
+                } else {
+                    DriverManager.getDriver().findElement(By.xpath(pathOf(target))).click();
+                }
+            }
+            hits.incrementAndGet();
+            return true;
+        }
+
+        /**
+         * The dismiss button nearest the detected node: searched from the node outwards, but never
+         * outside its window, so a matching button elsewhere on screen is not tapped.
+         */
+        Node dismissTarget(Node detected) throws XPathExpressionException {
+            Node window = windowOf(detected);
+            for (Node scope = detected; ; scope = scope.getParentNode()) {
+                Node target = (Node) dismiss.evaluate(scope, XPathConstants.NODE);
+                if (target != null || scope == window) {
+                    return target;
+                }
+            }
+        }
+
+        /**
+         * A resumed operation succeeded: without the handler the test would have failed and been
+         * retried from the start, repeating at least the time elapsed so far.
+         * @param creditRetry false when a retry of this test was already credited
+         */
+        void recordResume(long elapsedNanos, boolean creditRetry) {
+            resumed.incrementAndGet();
+            if (creditRetry) {
+                savedMs.addAndGet(elapsedNanos / 1_000_000 + Config.get().retryDelayMs());
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.framework.utils;
+
+import com.framework.config.Config;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reproducible cold and warm launch timing of the app under test using {@code am start -W}.
+ *
+ * Cold starts force-stop the app first. Warm starts send it to the background with HOME and
+ * launch it with {@code --activity-clear-task}, which destroys the old activity while the process
+ * keeps running. Launches whose reported LaunchState is not the mode being measured (a hot start
+ * during a warm run, for instance) are discarded. Each mode runs warmups that are discarded, then
+ * the measured iterations, and can be compared against a baseline stored from an earlier APK.
+ */
+public final class LaunchBenchmark {
+
+    private static final Logger log = LogManager.getLogger(LaunchBenchmark.class);
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Pattern TOTAL_TIME = Pattern.compile("TotalTime:\\s*(\\d+)");
+    private static final Pattern WAIT_TIME = Pattern.compile("WaitTime:\\s*(\\d+)");
+    private static final Pattern LAUNCH_STATE = Pattern.compile("LaunchState:\\s*(\\w+)");
+    private static final Pattern VERSION_NAME = Pattern.compile("versionName=(\\S+)");
+    private static final long SETTLE_MS = 1000;
+
+    public enum Mode {
+        COLD, WARM
+    }
+
+    private LaunchBenchmark() {
+    }
+
+    // ==================== Running ====================
+
+    /**
+     * Runs the configured warmups and iterations for the app under test.
+     */
+    public static Result run(Mode mode) {
+        return run(mode, Config.get().appPackage(), Config.get().appActivity(),
+                Config.get().launchBenchmarkWarmups(), Config.get().launchBenchmarkIterations());
+    }
+
+    public static Result run(Mode mode, String appPackage, String activity, int warmups, int iterations) {
+        String component = appPackage + "/" + activity;
+        Result result = new Result();
+        result.mode = mode;
+        result.appVersion = appVersion(appPackage);
+        result.totalTimeMs = new double[iterations];
+        result.waitTimeMs = new double[iterations];
+        result.launchStates = new ArrayList<>(iterations);
+
+        log.info("Launch benchmark {} of {} ({}): {} warmups, {} iterations",
+                mode, component, result.appVersion, warmups, iterations);
+        if (mode == Mode.WARM) {
+            // Warm starts need the process alive before the first launch
+            launch(component, false);
+        }
+        int measured = 0;
+        int waitMeasured = 0;
+        for (int i = 0; i < warmups + iterations; i++) {
+            prepare(mode, appPackage);
+            String output = launch(component, mode == Mode.WARM);
+            long total = parse(TOTAL_TIME, output);
+            if (total < 0) {
+                log.warn("No TotalTime in am start output: {}", output.trim());
+                continue;
+            }
+            if (i < warmups) {
+                continue;
+            }
+            // Older Android versions do not print LaunchState; their launches are taken as the mode
+            Matcher state = LAUNCH_STATE.matcher(output);
+            String launchState = state.find() ? state.group(1) : mode.name();
+            if (!launchState.equalsIgnoreCase(mode.name())) {
+                log.warn("Discarding {} launch that reported LaunchState {}", mode, launchState);
+                result.rejected++;
+                continue;
+            }
+            result.totalTimeMs[measured] = total;
+            // Newer Android versions no longer print WaitTime; only keep what was measured
+            long wait = parse(WAIT_TIME, output);
+            if (wait >= 0) {
+                result.waitTimeMs[waitMeasured++] = wait;
+            }
+            result.launchStates.add(launchState);
+            measured++;
+        }
+        result.totalTimeMs = Arrays.copyOf(result.totalTimeMs, measured);
+        result.waitTimeMs = Arrays.copyOf(result.waitTimeMs, waitMeasured);
+        result.totalTime = StatisticsUtils.summarize(result.totalTimeMs);
+        result.waitTime = waitMeasured > 0 ? StatisticsUtils.summarize(result.waitTimeMs) : null;
+        log.info("{} launch TotalTime: {}", mode, result.totalTime);
+        return result;
+    }
+
+    private static void prepare(Mode mode, String appPackage) {
+        if (mode == Mode.COLD) {
+            DeviceUtils.executeShell("am", "force-stop", appPackage);
+        } else {
+            DeviceUtils.executeShell("input", "keyevent", "KEYCODE_HOME");
+        }
+        sleep(SETTLE_MS);
+    }
+
+    /**
+     * @param clearTask destroy the app's existing activities first, so the launch creates a new one
+     */
+    private static String launch(String component, boolean clearTask) {
+        return clearTask
+                ? DeviceUtils.executeShell("am", "start", "-W", "--activity-clear-task", "-n", component)
+                : DeviceUtils.executeShell("am", "start", "-W", "-n", component);
+    }
+
+    static long parse(Pattern pattern, String output) {
+        Matcher m = pattern.matcher(output);
+        return m.find() ? Long.parseLong(m.group(1)) : -1;
+    }
+
+    private static String appVersion(String appPackage) {
+        Matcher m = VERSION_NAME.matcher(DeviceUtils.executeShell("dumpsys", "package", appPackage));
+        return m.find() ? m.group(1) : "unknown";
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================== Baseline ====================
+
+    /**
+     * Compares TotalTime against the stored baseline for the same mode.
+     * @return the comparison, or null if no baseline has been stored for the mode
+     */
+    public static StatisticsUtils.Comparison compareToBaseline(Result result) {
+        Baseline baseline = loadBaseline();
+        double[] samples = baseline == null ? null : result.mode == Mode.COLD ? baseline.cold : baseline.warm;
+        if (samples == null || samples.length == 0) {
+            return null;
+        }
+        StatisticsUtils.Comparison comparison = StatisticsUtils.compare(samples, result.totalTimeMs);
+        log.info("{} launch vs baseline {}: {}", result.mode, baseline.appVersion, comparison);
+        return comparison;
+    }
+
+    /**
+     * Stores the results as the new baseline, keeping the other mode's samples if it was not run.
+     */
+    public static void saveBaseline(Result... results) {
+        Baseline baseline = loadBaseline();
+        if (baseline == null) {
+            baseline = new Baseline();
+        }
+        baseline.recorded = LocalDateTime.now().toString();
+        for (Result result : results) {
+            baseline.appVersion = result.appVersion;
+            if (result.mode == Mode.COLD) {
+                baseline.cold = result.totalTimeMs;
+            } else {
+                baseline.warm = result.totalTimeMs;
+            }
+        }
+        Path file = Paths.get(Config.get().launchBenchmarkBaselineFile());
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(file)) {
+                GSON.toJson(baseline, writer);
+            }
+            log.info("Launch baseline saved: {}", file.toAbsolutePath());
+        } catch (IOException e) {
+            log.error("Failed to save launch baseline: {}", e.getMessage());
+        }
+    }
+
+    private static Baseline loadBaseline() {
+        Path file = Paths.get(Config.get().launchBenchmarkBaselineFile());
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file)) {
+            return GSON.fromJson(reader, Baseline.class);
+        } catch (Exception e) {
+            log.error("Failed to read launch baseline {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    // ==================== Data Classes ====================
+
+    public static class Result {
+        public Mode mode;
+        public String appVersion;
+        public double[] totalTimeMs;
+        // Only launches whose output had a WaitTime; may be shorter than totalTimeMs
+        public double[] waitTimeMs;
+        public List<String> launchStates;
+        // Launches discarded because their LaunchState did not match the mode
+        public int rejected;
+        public StatisticsUtils.Summary totalTime;
+        // Null when no launch reported a WaitTime
+        public StatisticsUtils.Summary waitTime;
+
+        @Override
+        public String toString() {
+            return String.format("%s launch (%s)%n  TotalTime: %s%n  WaitTime:  %s%n  States: %s, %d rejected",
+                    mode, appVersion, totalTime, waitTime != null ? waitTime : "unavailable", launchStates, rejected);
+        }
+    }
+
+    static class Baseline {
+        String appVersion;
+        String recorded;
+        double[] cold;
+        double[] warm;
+    }
+}
@@ -0,0 +1,362 @@
+package com.framework.utils;
+
+import com.framework.base.DriverManager;
+import com.framework.config.Config;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Continuous logcat reader per device, streaming into a fixed-size off-heap ring buffer.
+ *
+ * A daemon thread keeps {@code logcat -v threadtime} open over the direct adb connection, so no
+ * logcat I/O happens on the test thread. Tests mark their start and end as byte offsets into the
+ * stream; a failed test's slice is copied out of the ring and filtered to the app's processes.
+ * The app's pids come from {@code pidof} when the stream opens and from ActivityManager's
+ * "Start proc" lines afterwards, so restarts are followed without extra shell calls.
+ */
+public final class LogcatStreamer {
+
+    private static final Logger log = LogManager.getLogger(LogcatStreamer.class);
+    private static final int MAX_MARKS = 256;
+    private static final int MAX_LINE = 4096;
+    private static final String START_PROC = "Start proc ";
+    private static final Map<String, LogcatStreamer> streamers = new ConcurrentHashMap<>();
+    private static final List<LineListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Receives every complete logcat line on the reader thread; must not block.
+     */
+    public interface LineListener {
+        void onLine(String serial, String line);
+    }
+
+    private final String serial;
+    private final String packageName;
+    private final ByteBuffer ring;
+    private final int capacity;
+    private final Set<Integer> appPids = ConcurrentHashMap.newKeySet();
+    private final Thread reader;
+    private volatile boolean running = true;
+    private volatile InputStream stream;
+
+    // Total bytes ever appended; ring position is written % capacity. Guarded by this
+    private long written;
+    private final Map<String, long[]> marks = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, long[]> eldest) {
+            return size() > MAX_MARKS;
+        }
+    };
+
+    // Current line, only touched by the reader thread
+    private final byte[] line = new byte[MAX_LINE];
+    private int lineLength;
+
+    private LogcatStreamer(String serial, String packageName, int capacity) {
+        this.serial = serial;
+        this.packageName = packageName;
+        this.capacity = capacity;
+        this.ring = ByteBuffer.allocateDirect(capacity);
+        this.reader = new Thread(this::readLoop, "logcat-" + serial);
+        this.reader.setDaemon(true);
+    }
+
+    // ==================== Lifecycle ====================
+
+    /**
+     * Starts streaming the current session's device, if enabled and the adb server is reachable.
+     */
+    public static void startForCurrentSession() {
+        if (!Config.get().logcatStreamEnabled() || !DriverManager.isAndroid()) {
+            return;
+        }
+        String serial = DeviceUtils.getDeviceSerial();
+        if (!AdbClient.isAvailableFor(serial)) {
+            log.info("Logcat streaming off: adb server does not list {}", serial);
+            return;
+        }
+        streamers.computeIfAbsent(serial, s -> {
+            LogcatStreamer streamer = new LogcatStreamer(s, Config.get().appPackage(),
+                    Math.max(64, Config.get().logcatBufferKb()) * 1024);
+            streamer.reader.start();
+            log.info("Logcat streaming started for {} ({}KB ring)", s, streamer.capacity / 1024);
+            return streamer;
+        });
+    }
+
+    public static void addListener(LineListener listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(LineListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * True if a stream is running for the device.
+     */
+    public static boolean isStreaming(String serial) {
+        return streamers.containsKey(serial);
+    }
+
+    /**
+     * Stops the device's stream, e.g. before its session is replaced.
+     */
+    public static void stop(String serial) {
+        LogcatStreamer streamer = streamers.remove(serial);
+        if (streamer != null) {
+            streamer.stop();
+        }
+    }
+
+    public static void stopAll() {
+        for (LogcatStreamer streamer : streamers.values()) {
+            streamer.stop();
+        }
+        streamers.clear();
+    }
+
+    /**
+     * Marks the start of a test at the current stream position.
+     */
+    public static void testStarted(String testName) {
+        LogcatStreamer streamer = current();
+        if (streamer != null) {
+            synchronized (streamer) {
+                streamer.marks.put(testName, new long[]{streamer.written, -1});
+            }
+        }
+    }
+
+    /**
+     * Marks the end of a test. The mark is kept so the slice can still be read afterwards.
+     */
+    public static void testFinished(String testName) {
+        LogcatStreamer streamer = current();
+        if (streamer != null) {
+            synchronized (streamer) {
+                long[] mark = streamer.marks.get(testName);
+                if (mark != null && mark[1] < 0) {
+                    mark[1] = streamer.written;
+                }
+            }
+        }
+    }
+
+    /**
+     * The app's log lines between the test's marks (or up to now if it is still running).
+     * @return the slice, or null if no stream or no mark exists for the test
+     */
+    public static String testSlice(String testName) {
+        LogcatStreamer streamer = current();
+        return streamer != null ? streamer.slice(testName) : null;
+    }
+
+    private static LogcatStreamer current() {
+        if (streamers.isEmpty() || !DriverManager.isAndroid()) {
+            return null;
+        }
+        return streamers.get(DeviceUtils.getDeviceSerial());
+    }
+
+    private void stop() {
+        running = false;
+        InputStream in = stream;
+        if (in != null) {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+            }
+        }
+        reader.interrupt();
+    }
+
+    // ==================== Reading ====================
+
+    private void readLoop() {
+        byte[] buffer = new byte[8192];
+        while (running) {
+            try (InputStream in = AdbClient.get().openShell(serial, "logcat -v threadtime -T 1")) {
+                stream = in;
+                refreshPids();
+                int n;
+                while (running && (n = in.read(buffer)) > 0) {
+                    append(buffer, n);
+                    scanLines(buffer, n);
+                }
+            } catch (IOException e) {
+                if (running) {
+                    log.debug("Logcat stream for {} interrupted: {}", serial, e.getMessage());
+                }
+            }
+            if (running) {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void refreshPids() {
+        try {
+            for (String pid : AdbClient.get().shell(serial, "pidof " + packageName).trim().split("\\s+")) {
+                if (!pid.isEmpty() && pid.chars().allMatch(Character::isDigit)) {
+                    appPids.add(Integer.parseInt(pid));
+                }
+            }
+        } catch (IOException e) {
+            log.debug("pidof {} failed: {}", packageName, e.getMessage());
+        }
+    }
+
+    private synchronized void append(byte[] bytes, int length) {
+        int offset = 0;
+        if (length > capacity) {
+            offset = length - capacity;
+            written += offset;
+            length = capacity;
+        }
+        int pos = (int) (written % capacity);
+        int first = Math.min(length, capacity - pos);
+        ring.put(pos, bytes, offset, first);
+        ring.put(0, bytes, offset + first, length - first);
+        written += length;
+    }
+
+    /**
+     * Splits the chunk into lines, tracks app process starts and hands each line to the listeners.
+     */
+    private void scanLines(byte[] bytes, int length) {
+        for (int i = 0; i < length; i++) {
+            byte b = bytes[i];
+            if (b != '\n') {
+                if (lineLength < line.length) {
+                    line[lineLength++] = b;
+                }
+                continue;
+            }
+            int end = lineLength > 0 && line[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+            String text = new String(line, 0, end, StandardCharsets.UTF_8);
+            lineLength = 0;
+            trackProcessStart(text);
+            for (LineListener listener : listeners) {
+                try {
+                    listener.onLine(serial, text);
+                } catch (RuntimeException e) {
+                    log.debug("Logcat listener failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Picks up "ActivityManager: Start proc 12345:com.example.app/u0a123 for ..." lines.
+     */
+    private void trackProcessStart(String text) {
+        int start = text.indexOf(START_PROC);
+        if (start < 0) {
+            return;
+        }
+        int pidStart = start + START_PROC.length();
+        int colon = text.indexOf(':', pidStart);
+        if (colon > pidStart && text.startsWith(packageName + "/", colon + 1)) {
+            try {
+                appPids.add(Integer.parseInt(text.substring(pidStart, colon)));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+    }
+
+    // ==================== Slicing ====================
+
+    private String slice(String testName) {
+        byte[] bytes;
+        boolean truncated;
+        synchronized (this) {
+            long[] mark = marks.get(testName);
+            if (mark == null) {
+                return null;
+            }
+            long from = Math.max(mark[0], written - capacity);
+            long to = mark[1] < 0 ? written : mark[1];
+            truncated = from > mark[0];
+            if (to <= from) {
+                return truncated ? "(test output was overwritten in the logcat ring buffer)" : "";
+            }
+            bytes = new byte[(int) (to - from)];
+            int pos = (int) (from % capacity);
+            int first = Math.min(bytes.length, capacity - pos);
+            ring.get(pos, bytes, 0, first);
+            ring.get(0, bytes, first, bytes.length - first);
+        }
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        if (!truncated) {
+            return filterToApp(text);
+        }
+        // The oldest bytes left in the ring usually start mid-line
+        return "(older lines were overwritten in the logcat ring buffer)\n"
+                + filterToApp(text.substring(text.indexOf('\n') + 1));
+    }
+
+    /**
+     * Keeps threadtime lines ("MM-DD HH:MM:SS.mmm  PID  TID L TAG: msg") of the app's pids.
+     * Without known pids the whole slice is returned.
+     */
+    String filterToApp(String text) {
+        if (appPids.isEmpty()) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder(text.length() / 4);
+        int pos = 0;
+        while (pos < text.length()) {
+            int end = text.indexOf('\n', pos);
+            if (end < 0) {
+                end = text.length();
+            }
+            int pid = pidOf(text, pos, end);
+            if (pid >= 0 && appPids.contains(pid)) {
+                sb.append(text, pos, end).append('\n');
+            }
+            pos = end + 1;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Third whitespace-separated field of the line, or -1.
+     */
+    static int pidOf(String text, int start, int end) {
+        int i = start;
+        for (int field = 0; field < 2; field++) {
+            while (i < end && text.charAt(i) == ' ') {
+                i++;
+            }
+            while (i < end && text.charAt(i) != ' ') {
+                i++;
+            }
+        }
+        while (i < end && text.charAt(i) == ' ') {
+            i++;
+        }
+        int value = 0;
+        int digits = 0;
+        while (i < end && Character.isDigit(text.charAt(i))) {
+            value = value * 10 + (text.charAt(i++) - '0');
+            digits++;
+        }
+        return digits > 0 && (i == end || text.charAt(i) == ' ') ? value : -1;
+    }
+}
@@ -0,0 +1,193 @@
+package com.framework.utils;
+
+import com.framework.config.Config;
+import com.framework.reporting.AllureReportUtils;
+import com.framework.reporting.HtmlReportGenerator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+/**
+ * Detects app memory growth by repeating a user flow and sampling {@code dumpsys meminfo <package>}
+ * after each iteration.
+ *
+ * A least-squares slope is fitted to each series after the warmup iterations; growth above the
+ * configured KB per iteration is flagged as a likely leak. A series with fewer than two valid
+ * samples makes the result inconclusive, which fails the check as well.
+ */
+public final class MemoryLeakDetector {
+
+    private static final Logger log = LogManager.getLogger(MemoryLeakDetector.class);
+    private static final int TOTAL_PSS = 0;
+    private static final int JAVA_HEAP = 1;
+    private static final int NATIVE_HEAP = 2;
+    private static final String[] SERIES_NAMES = {"Total PSS", "Java heap", "Native heap"};
+
+    private MemoryLeakDetector() {
+    }
+
+    // ==================== Running ====================
+
+    /**
+     * Repeats the flow with the configured warmup and iteration counts.
+     */
+    public static Result run(String flowName, Runnable flow) {
+        return run(flowName, flow, Config.get().leakWarmupIterations(), Config.get().leakIterations());
+    }
+
+    public static Result run(String flowName, Runnable flow, int warmups, int iterations) {
+        for (int i = 0; i < warmups; i++) {
+            flow.run();
+        }
+        Result result = new Result();
+        result.flowName = flowName;
+        result.kb = new int[SERIES_NAMES.length][iterations];
+        result.elapsedMs = new long[iterations];
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < iterations; i++) {
+            flow.run();
+            int[] sample = sample();
+            for (int s = 0; s < sample.length; s++) {
+                result.kb[s][i] = sample[s];
+            }
+            result.elapsedMs[i] = System.currentTimeMillis() - start;
+            log.debug("Leak check {} iteration {}: PSS={}KB, Java={}KB, native={}KB",
+                    flowName, i + 1, sample[TOTAL_PSS], sample[JAVA_HEAP], sample[NATIVE_HEAP]);
+        }
+        result.analyze(Config.get().leakMaxGrowthKbPerIteration());
+        report(result);
+        return result;
+    }
+
+    /**
+     * Current total PSS, Java heap and native heap of the app in KB (-1 where unavailable).
+     */
+    public static int[] sample() {
+        String output = DeviceUtils.executeShell("dumpsys", "meminfo", Config.get().appPackage());
+        try {
+            return parse(output);
+        } catch (IOException e) {
+            log.error("Failed to parse meminfo: {}", e.getMessage());
+            return new int[]{-1, -1, -1};
+        }
+    }
+
+    /**
+     * Reads the App Summary section (falling back to the TOTAL row of the PSS table).
+     */
+    static int[] parse(String meminfo) throws IOException {
+        int[] kb = {-1, -1, -1};
+        BufferedReader in = new BufferedReader(new StringReader(meminfo));
+        String line;
+        while ((line = in.readLine()) != null) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("Java Heap:")) {
+                kb[JAVA_HEAP] = firstNumber(trimmed);
+            } else if (trimmed.startsWith("Native Heap:")) {
+                kb[NATIVE_HEAP] = firstNumber(trimmed);
+            } else if (trimmed.startsWith("TOTAL PSS:")) {
+                kb[TOTAL_PSS] = firstNumber(trimmed);
+            } else if (kb[TOTAL_PSS] < 0 && trimmed.startsWith("TOTAL ")) {
+                kb[TOTAL_PSS] = firstNumber(trimmed);
+            }
+        }
+        return kb;
+    }
+
+    private static int firstNumber(String s) {
+        int i = 0;
+        while (i < s.length() && !Character.isDigit(s.charAt(i))) {
+            i++;
+        }
+        int value = 0;
+        boolean any = false;
+        while (i < s.length() && Character.isDigit(s.charAt(i))) {
+            value = value * 10 + (s.charAt(i++) - '0');
+            any = true;
+        }
+        return any ? value : -1;
+    }
+
+    private static void report(Result result) {
+        log.info("Leak check {}: {}", result.flowName, result.summary());
+        AllureReportUtils.attachText("Memory leak check: " + result.flowName, result.summary());
+        for (int s = 0; s < SERIES_NAMES.length; s++) {
+            double[] values = new double[result.kb[s].length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = result.kb[s][i] < 0 ? Double.NaN : result.kb[s][i];
+            }
+            HtmlReportGenerator.recordDeviceSeries("Leak check: " + result.flowName,
+                    SERIES_NAMES[s], "KB", result.elapsedMs, values);
+        }
+    }
+
+    // ==================== Data Classes ====================
+
+    public static class Result {
+        public String flowName;
+        /** KB per series (total PSS, Java heap, native heap) per measured iteration. */
+        public int[][] kb;
+        public long[] elapsedMs;
+        public double[] slopeKbPerIteration = new double[SERIES_NAMES.length];
+        public double[] rSquared = new double[SERIES_NAMES.length];
+        public double thresholdKbPerIteration;
+        public boolean leakSuspected;
+        /** Some series had fewer than two valid samples, so no slope could be fitted. */
+        public boolean inconclusive;
+
+        void analyze(double threshold) {
+            thresholdKbPerIteration = threshold;
+            for (int s = 0; s < kb.length; s++) {
+                int n = 0;
+                double[] x = new double[kb[s].length];
+                double[] y = new double[kb[s].length];
+                for (int i = 0; i < kb[s].length; i++) {
+                    if (kb[s][i] >= 0) {
+                        x[n] = i;
+                        y[n++] = kb[s][i];
+                    }
+                }
+                if (n < 2) {
+                    slopeKbPerIteration[s] = Double.NaN;
+                    rSquared[s] = Double.NaN;
+                    inconclusive = true;
+                    continue;
+                }
+                StatisticsUtils.Regression fit = StatisticsUtils.linearRegression(Arrays.copyOf(x, n), Arrays.copyOf(y, n));
+                slopeKbPerIteration[s] = fit.slope;
+                rSquared[s] = fit.rSquared;
+                if (fit.slope > threshold) {
+                    leakSuspected = true;
+                }
+            }
+        }
+
+        public void assertNoLeak() {
+            if (leakSuspected) {
+                throw new AssertionError("Memory growth detected in " + flowName + ": " + summary());
+            }
+            if (inconclusive) {
+                throw new AssertionError("Memory leak check of " + flowName + " is inconclusive, meminfo could not be sampled: "
+                        + summary());
+            }
+        }
+
+        public String summary() {
+            StringBuilder sb = new StringBuilder();
+            for (int s = 0; s < SERIES_NAMES.length; s++) {
+                int first = kb[s].length > 0 ? kb[s][0] : -1;
+                int last = kb[s].length > 0 ? kb[s][kb[s].length - 1] : -1;
+                sb.append(String.format("%s: %+.1f KB/iteration (r²=%.2f), %d -> %d KB%n",
+                        SERIES_NAMES[s], slopeKbPerIteration[s], rSquared[s], first, last));
+            }
+            sb.append(String.format("Threshold %.0f KB/iteration over %d iterations: %s",
+                    thresholdKbPerIteration, elapsedMs.length,
+                    leakSuspected ? "LEAK SUSPECTED" : inconclusive ? "INCONCLUSIVE" : "ok"));
+            return sb.toString();
+        }
+    }
+}
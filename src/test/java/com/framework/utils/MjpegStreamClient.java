@@ -0,0 +1,295 @@
+package com.framework.utils;
+
+import com.framework.base.DriverManager;
+import com.framework.config.Config;
+import io.appium.java_client.android.AndroidDriver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Consumes a multipart MJPEG stream (UiAutomator2 mjpegServerPort) on a background thread.
+ * Only the newest frame is kept, in a single lock-free slot; readers never block the stream.
+ */
+public final class MjpegStreamClient implements AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(MjpegStreamClient.class);
+    private static final int MAX_HEADER_LINE = 1024;
+    private static final int MAX_FRAME_BYTES = 16 * 1024 * 1024;
+    private static final long RECONNECT_DELAY_MS = 500;
+
+    private static final Map<String, MjpegStreamClient> sessionClients = new ConcurrentHashMap<>();
+
+    private final URI streamUri;
+    private final AtomicReference<Frame> latest = new AtomicReference<>();
+    private volatile boolean running;
+    private volatile HttpURLConnection connection;
+    private Thread reader;
+
+    public MjpegStreamClient(URI streamUri) {
+        this.streamUri = streamUri;
+    }
+
+    // ==================== Session Registry ====================
+
+    /**
+     * Returns the running stream client for the current Android session, if MJPEG is enabled.
+     */
+    public static Optional<MjpegStreamClient> forCurrentSession() {
+        if (!Config.get().mjpegEnabled() || !DriverManager.isAndroid()) {
+            return Optional.empty();
+        }
+        AndroidDriver driver = DriverManager.getAndroidDriver();
+        String sessionId = String.valueOf(driver.getSessionId());
+        return Optional.of(sessionClients.computeIfAbsent(sessionId, id -> {
+            try {
+                driver.setSetting("mjpegServerFramerate", Config.get().mjpegFramerate());
+            } catch (Exception e) {
+                log.debug("Could not set MJPEG framerate: {}", e.getMessage());
+            }
+            URI uri = URI.create("http://" + driver.getRemoteAddress().getHost() + ":" + Config.get().mjpegServerPort());
+            MjpegStreamClient client = new MjpegStreamClient(uri);
+            client.start();
+            return client;
+        }));
+    }
+
+    /**
+     * Stops every session stream client.
+     */
+    public static void closeAll() {
+        sessionClients.values().forEach(MjpegStreamClient::close);
+        sessionClients.clear();
+    }
+
+    // ==================== Lifecycle ====================
+
+    /**
+     * Starts the background reader thread. Reconnects until {@link #close()} is called.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        reader = new Thread(this::readLoop, "mjpeg-" + streamUri.getPort());
+        reader.setDaemon(true);
+        reader.start();
+        log.info("MJPEG stream client started: {}", streamUri);
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        HttpURLConnection conn = connection;
+        if (conn != null) {
+            conn.disconnect();
+        }
+        if (reader != null) {
+            reader.interrupt();
+            reader = null;
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // ==================== Frame Access ====================
+
+    /**
+     * Latest received frame, or null if none has arrived yet.
+     */
+    public Frame latestFrame() {
+        return latest.get();
+    }
+
+    /**
+     * Latest frame if it is not older than maxAge.
+     */
+    public Optional<Frame> freshFrame(Duration maxAge) {
+        Frame frame = latest.get();
+        if (frame == null || frame.ageNanos() > maxAge.toNanos()) {
+            return Optional.empty();
+        }
+        return Optional.of(frame);
+    }
+
+    /**
+     * Waits for a frame newer than the given sequence number.
+     */
+    public Optional<Frame> awaitFrameAfter(long sequence, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            Frame frame = latest.get();
+            if (frame != null && frame.sequence > sequence) {
+                return Optional.of(frame);
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return Optional.empty();
+    }
+
+    // ==================== Stream Parsing ====================
+
+    private void readLoop() {
+        long sequence = 0;
+        while (running) {
+            try {
+                HttpURLConnection conn = (HttpURLConnection) streamUri.toURL().openConnection();
+                conn.setConnectTimeout(5_000);
+                conn.setReadTimeout(10_000);
+                connection = conn;
+                try (InputStream in = new BufferedInputStream(conn.getInputStream(), 64 * 1024)) {
+                    while (running) {
+                        byte[] jpeg = readPart(in);
+                        latest.set(new Frame(jpeg, ++sequence, System.nanoTime()));
+                    }
+                }
+            } catch (IOException e) {
+                if (running) {
+                    log.debug("MJPEG stream interrupted ({}), reconnecting", e.getMessage());
+                    try {
+                        Thread.sleep(RECONNECT_DELAY_MS);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    /**
+     * Reads one multipart part: boundary and headers, then the JPEG body.
+     * Uses Content-Length when the server sends it and falls back to scanning for the JPEG EOI marker.
+     */
+    static byte[] readPart(InputStream in) throws IOException {
+        int contentLength = -1;
+        String line;
+        boolean inHeaders = false;
+        while ((line = readLine(in)) != null) {
+            if (line.isEmpty()) {
+                if (inHeaders) {
+                    break;
+                }
+                continue;
+            }
+            inHeaders = true;
+            int colon = line.indexOf(':');
+            if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase("Content-Length")) {
+                contentLength = Integer.parseInt(line.substring(colon + 1).trim());
+            }
+        }
+        if (line == null) {
+            throw new EOFException("MJPEG stream ended");
+        }
+
+        if (contentLength >= 0) {
+            if (contentLength > MAX_FRAME_BYTES) {
+                throw new IOException("MJPEG frame too large: " + contentLength);
+            }
+            return in.readNBytes(contentLength);
+        }
+        return readUntilEndOfImage(in);
+    }
+
+    private static byte[] readUntilEndOfImage(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128 * 1024);
+        int prev = -1;
+        int b;
+        while ((b = in.read()) != -1) {
+            out.write(b);
+            if (prev == 0xFF && b == 0xD9) {
+                return out.toByteArray();
+            }
+            if (out.size() > MAX_FRAME_BYTES) {
+                throw new IOException("MJPEG frame exceeded " + MAX_FRAME_BYTES + " bytes without EOI");
+            }
+            prev = b;
+        }
+        throw new EOFException("MJPEG stream ended inside a frame");
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                int len = sb.length();
+                if (len > 0 && sb.charAt(len - 1) == '\r') {
+                    sb.setLength(len - 1);
+                }
+                return sb.toString();
+            }
+            if (sb.length() >= MAX_HEADER_LINE) {
+                throw new IOException("MJPEG header line too long");
+            }
+            sb.append((char) b);
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+
+    // ==================== Data Classes ====================
+
+    /**
+     * One JPEG frame. Decoding is lazy and cached, so frames nobody looks at cost no CPU.
+     */
+    public static final class Frame {
+        public final byte[] jpeg;
+        public final long sequence;
+        public final long receivedNanos;
+        private volatile BufferedImage image;
+
+        Frame(byte[] jpeg, long sequence, long receivedNanos) {
+            this.jpeg = jpeg;
+            this.sequence = sequence;
+            this.receivedNanos = receivedNanos;
+        }
+
+        public long ageNanos() {
+            return System.nanoTime() - receivedNanos;
+        }
+
+        public BufferedImage image() {
+            BufferedImage decoded = image;
+            if (decoded == null) {
+                try {
+                    decoded = ImageIO.read(new ByteArrayInputStream(jpeg));
+                } catch (IOException e) {
+                    log.warn("Failed to decode MJPEG frame {}: {}", sequence, e.getMessage());
+                    return null;
+                }
+                image = decoded;
+            }
+            return decoded;
+        }
+
+        @Override
+        public String toString() {
+            return "Frame#" + sequence + " (" + jpeg.length + " bytes, " + ageNanos() / 1_000_000 + "ms old)";
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.framework.utils;
+
+import com.framework.base.BasePage;
+import com.framework.base.DriverManager;
+import com.framework.config.Config;
+import com.framework.reporting.AllureReportUtils;
+import com.framework.reporting.PerformanceMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Shortcuts to pages that normally take a UI flow to reach: a deep link or an explicit
+ * {@code am start} intent with extras, registered per page class.
+ *
+ * Pages (or test classes) register in a static block:
+ * <pre>
+ * NavigationRegistry.register(CartPage.class)
+ *         .deepLink("swaglabs://cart")
+ *         .uiFlow(() -&gt; new SecurityMattersPage(DriverManager.getDriver()).tapAgreeAndContinue());
+ * </pre>
+ * A page is reached through its shortcut when it has one and the page then reports itself
+ * displayed, otherwise through its UI flow. UI flow durations are kept in a history file, and
+ * every shortcut navigation is credited with the difference to that page's mean UI duration.
+ */
+public final class NavigationRegistry {
+
+    private static final Logger log = LogManager.getLogger(NavigationRegistry.class);
+    private static final Map<Class<?>, Entry> entries = new ConcurrentHashMap<>();
+    private static final List<String> uiDurations = new ArrayList<>();
+    private static final AtomicLong testSavedMs = new AtomicLong();
+    private static final AtomicLong totalSavedMs = new AtomicLong();
+    private static Map<String, double[]> uiHistory;
+
+    private NavigationRegistry() {
+    }
+
+    // ==================== Registry ====================
+
+    /**
+     * Entry for a page, created on first use; configure it with the returned builder.
+     */
+    public static Entry register(Class<? extends BasePage> pageClass) {
+        return entries.computeIfAbsent(pageClass, c -> new Entry(c.getSimpleName()));
+    }
+
+    // ==================== Navigation ====================
+
+    /**
+     * Brings up the page through its shortcut, or its UI flow if there is no shortcut or it did
+     * not land on the page.
+     * @param pageFactory creates the page object once the screen is up
+     */
+    public static <T extends BasePage> T navigateTo(Class<T> pageClass, Supplier<T> pageFactory) {
+        initialize(pageClass);
+        Entry entry = entries.get(pageClass);
+        if (entry == null || (entry.shortcut == null && entry.uiFlow == null)) {
+            throw new IllegalStateException("No shortcut or UI flow registered for " + pageClass.getSimpleName());
+        }
+        if (entry.shortcut != null && Config.get().navigationShortcutsEnabled() && DriverManager.isAndroid()) {
+            long start = System.nanoTime();
+            String output = DeviceUtils.executeShell("am", entry.shortcut.toArray(new String[0]));
+            if (isStarted(output)) {
+                T page = pageFactory.get();
+                page.waitForPageLoad();
+                if (page.isPageDisplayed()) {
+                    recordShortcut(entry, (System.nanoTime() - start) / 1_000_000);
+                    return page;
+                }
+            }
+            log.warn("Shortcut to {} did not land on the page ({}); using the UI flow",
+                    entry.pageName, output.trim().isEmpty() ? "no output" : output.trim());
+        }
+        if (entry.uiFlow == null) {
+            throw new IllegalStateException("Shortcut to " + entry.pageName + " failed and no UI flow is registered");
+        }
+        // Timed to the same point as the shortcut: page loaded and reporting itself displayed
+        long start = System.nanoTime();
+        entry.uiFlow.run();
+        T page = pageFactory.get();
+        page.waitForPageLoad();
+        if (!page.isPageDisplayed()) {
+            // Not a comparable duration; the test's own checks decide what this means
+            log.warn("UI flow to {} did not land on the page; not recording its duration", entry.pageName);
+            return page;
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        PerformanceMetrics.recordActionTime("navigate " + entry.pageName + " (ui)", elapsedMs);
+        synchronized (NavigationRegistry.class) {
+            uiDurations.add(entry.pageName + "," + elapsedMs);
+        }
+        return page;
+    }
+
+    /**
+     * Runs the page's static initializer, where it may register itself.
+     */
+    private static void initialize(Class<?> pageClass) {
+        try {
+            Class.forName(pageClass.getName(), true, pageClass.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * am start -W prints "Status: ok", or a warning when the intent went to a running activity;
+     * whether that is the page is up to the page's own check.
+     */
+    private static boolean isStarted(String output) {
+        return !output.isEmpty() && !output.contains("Error");
+    }
+
+    private static void recordShortcut(Entry entry, long elapsedMs) {
+        PerformanceMetrics.recordActionTime("navigate " + entry.pageName + " (" + entry.kind + ")", elapsedMs);
+        double[] ui = uiHistory().get(entry.pageName);
+        if (ui == null) {
+            log.info("Reached {} by {} in {}ms (no UI flow timing yet to compare)", entry.pageName, entry.kind, elapsedMs);
+            return;
+        }
+        long saved = Math.max(0, Math.round(StatisticsUtils.mean(ui)) - elapsedMs);
+        testSavedMs.addAndGet(saved);
+        totalSavedMs.addAndGet(saved);
+        log.info("Reached {} by {} in {}ms, ~{}ms faster than the UI flow", entry.pageName, entry.kind, elapsedMs, saved);
+    }
+
+    // ==================== Reporting ====================
+
+    public static void testStarted() {
+        testSavedMs.set(0);
+    }
+
+    /**
+     * @return navigation time saved by shortcuts during the test
+     */
+    public static long testFinished() {
+        return testSavedMs.getAndSet(0);
+    }
+
+    /**
+     * Appends this run's UI flow durations to the history and reports the total time saved.
+     */
+    public static synchronized void report() {
+        Path history = Path.of(Config.get().navigationUiHistory());
+        if (!uiDurations.isEmpty()) {
+            try {
+                if (history.getParent() != null) {
+                    Files.createDirectories(history.getParent());
+                }
+                Files.write(history, uiDurations, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                uiDurations.clear();
+            } catch (IOException e) {
+                log.error("Failed to update navigation history {}: {}", history, e.getMessage());
+            }
+        }
+        if (totalSavedMs.get() > 0) {
+            String report = String.format("Navigation shortcuts saved ~%ds in total", totalSavedMs.get() / 1000);
+            log.info(report);
+            AllureReportUtils.attachText("Navigation shortcuts", report);
+        }
+    }
+
+    /**
+     * UI flow durations per page from earlier runs, loaded once.
+     */
+    private static synchronized Map<String, double[]> uiHistory() {
+        if (uiHistory == null) {
+            Map<String, List<Double>> durations = new HashMap<>();
+            Path history = Path.of(Config.get().navigationUiHistory());
+            try {
+                if (Files.isRegularFile(history)) {
+                    for (String line : Files.readAllLines(history, StandardCharsets.UTF_8)) {
+                        int comma = line.lastIndexOf(',');
+                        if (comma > 0) {
+                            durations.computeIfAbsent(line.substring(0, comma), k -> new ArrayList<>())
+                                    .add(Double.parseDouble(line.substring(comma + 1)));
+                        }
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                log.warn("Ignoring unreadable navigation history {}: {}", history, e.getMessage());
+            }
+            uiHistory = new HashMap<>();
+            durations.forEach((page, values) -> uiHistory.put(page, values.stream().mapToDouble(Double::doubleValue).toArray()));
+        }
+        return uiHistory;
+    }
+
+    // ==================== Data Classes ====================
+
+    public static class Entry {
+        final String pageName;
+        private List<String> shortcut;
+        private String kind;
+        private Runnable uiFlow;
+
+        Entry(String pageName) {
+            this.pageName = pageName;
+        }
+
+        /**
+         * Opens a VIEW intent for the URL, restricted to the app under test.
+         */
+        public Entry deepLink(String url) {
+            kind = "deep link";
+            shortcut = new ArrayList<>(List.of("start", "-W", "-a", "android.intent.action.VIEW", "-d", quote(url),
+                    Config.get().appPackage()));
+            return this;
+        }
+
+        /**
+         * Starts an activity of the app; a leading dot is relative to the app package.
+         */
+        public Entry intent(String activity) {
+            kind = "intent";
+            shortcut = new ArrayList<>(List.of("start", "-W", "-n", Config.get().appPackage() + "/" + activity));
+            return this;
+        }
+
+        public Entry extra(String key, String value) {
+            return addExtra("--es", key, quote(value));
+        }
+
+        public Entry extra(String key, boolean value) {
+            return addExtra("--ez", key, String.valueOf(value));
+        }
+
+        public Entry extra(String key, int value) {
+            return addExtra("--ei", key, String.valueOf(value));
+        }
+
+        public Entry extra(String key, long value) {
+            return addExtra("--el", key, String.valueOf(value));
+        }
+
+        /**
+         * UI steps reaching the page from the app's start screen; used without a working shortcut.
+         */
+        public Entry uiFlow(Runnable flow) {
+            this.uiFlow = flow;
+            return this;
+        }
+
+        private Entry addExtra(String flag, String key, String value) {
+            if (shortcut == null) {
+                throw new IllegalStateException("Set deepLink or intent on " + pageName + " before adding extras");
+            }
+            // Extras go before the package/component argument of a deep link
+            int at = kind.equals("deep link") ? shortcut.size() - 1 : shortcut.size();
+            shortcut.addAll(at, List.of(flag, key, value));
+            return this;
+        }
+
+        private static String quote(String value) {
+            return "'" + value.replace("'", "'\\''") + "'";
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.framework.utils;
+
+import com.framework.config.Config;
+import com.framework.reporting.PerformanceMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Bytes received and sent by the app under test, from its UID's kernel counters.
+ *
+ * Uses {@code /proc/net/xt_qtaguid/stats} where the kernel still provides it, and otherwise
+ * {@code dumpsys netstats detail} after forcing a poll. Both outputs can be large, so they are
+ * scanned in place line by line instead of being split into arrays. When the app's UID cannot be
+ * resolved the traffic is unavailable, and budget checks on it fail rather than pass on zero bytes.
+ */
+public final class NetworkTrafficMeter {
+
+    private static final Logger log = LogManager.getLogger(NetworkTrafficMeter.class);
+    private static final Pattern USER_ID = Pattern.compile("userId=(\\d+)");
+    private static final Map<String, Integer> uids = new ConcurrentHashMap<>();
+
+    private NetworkTrafficMeter() {
+    }
+
+    // ==================== Measuring ====================
+
+    /**
+     * Current cumulative counters for the app under test.
+     */
+    public static Traffic snapshot() {
+        Integer uid = uid(Config.get().appPackage());
+        if (uid == null) {
+            return Traffic.unavailable();
+        }
+        String qtaguid = DeviceUtils.executeShell("cat", "/proc/net/xt_qtaguid/stats");
+        if (qtaguid.startsWith("idx")) {
+            return parseQtaguid(qtaguid, uid);
+        }
+        DeviceUtils.executeShell("dumpsys", "netstats", "--poll");
+        return parseNetstats(DeviceUtils.executeShell("dumpsys", "netstats", "detail"), uid);
+    }
+
+    /**
+     * Runs the flow and returns the traffic it caused, recorded in PerformanceMetrics under the flow name.
+     */
+    public static Traffic measure(String flowName, Runnable flow) {
+        Traffic before = snapshot();
+        flow.run();
+        Traffic delta = snapshot().minus(before);
+        delta.label = flowName;
+        if (delta.available) {
+            PerformanceMetrics.recordNetworkTraffic(flowName, delta.rxBytes, delta.txBytes);
+        }
+        log.info("Network [{}]: {}", flowName, delta);
+        return delta;
+    }
+
+    /**
+     * @return the app's UID, or null if it could not be resolved (not cached, so the next call retries)
+     */
+    private static Integer uid(String appPackage) {
+        return uids.computeIfAbsent(appPackage, pkg -> {
+            Matcher m = USER_ID.matcher(DeviceUtils.executeShell("dumpsys", "package", pkg));
+            if (m.find()) {
+                return Integer.parseInt(m.group(1));
+            }
+            log.warn("Could not resolve UID of {}; network traffic is unavailable", pkg);
+            return null;
+        });
+    }
+
+    // ==================== Parsing ====================
+
+    /**
+     * Sums rx_bytes and tx_bytes (columns 5 and 7) of untagged rows for the UID.
+     * Row format: idx iface acct_tag_hex uid_tag_int cnt_set rx_bytes rx_packets tx_bytes ...
+     */
+    static Traffic parseQtaguid(CharSequence stats, int uid) {
+        long rx = 0;
+        long tx = 0;
+        int pos = 0;
+        int len = stats.length();
+        while (pos < len) {
+            int end = lineEnd(stats, pos);
+            // acct_tag 0x0 is the untagged total; tagged rows would double count
+            if (fieldEquals(stats, pos, end, 2, "0x0") && fieldLong(stats, pos, end, 3) == uid) {
+                rx += Math.max(0, fieldLong(stats, pos, end, 5));
+                tx += Math.max(0, fieldLong(stats, pos, end, 7));
+            }
+            pos = end + 1;
+        }
+        return new Traffic(rx, tx);
+    }
+
+    /**
+     * Sums rb/tb of every history bucket under the "UID stats" section for untagged entries of the UID.
+     * Only a header at the section's own indent ends it; nested headers such as "Complete history:"
+     * or "History since boot:" precede the ident rows.
+     */
+    static Traffic parseNetstats(CharSequence dump, int uid) {
+        long rx = 0;
+        long tx = 0;
+        boolean inUidStats = false;
+        int sectionIndent = 0;
+        boolean matching = false;
+        String uidKey = "uid=" + uid + " ";
+        int pos = 0;
+        int len = dump.length();
+        while (pos < len) {
+            int end = lineEnd(dump, pos);
+            int start = skipSpaces(dump, pos, end);
+            if (startsWith(dump, start, end, "UID stats:")) {
+                inUidStats = true;
+                sectionIndent = start - pos;
+                matching = false;
+            } else if (inUidStats && start - pos <= sectionIndent && start < end && dump.charAt(end - 1) == ':') {
+                // Next section header ("UID tag stats:", "Dev stats:", ...)
+                inUidStats = false;
+                matching = false;
+            } else if (inUidStats && startsWith(dump, start, end, "ident=")) {
+                matching = indexOf(dump, start, end, uidKey) >= 0 && indexOf(dump, start, end, "tag=0x0") >= 0;
+            } else if (inUidStats && matching && startsWith(dump, start, end, "st=")) {
+                rx += Math.max(0, valueAfter(dump, start, end, "rb="));
+                tx += Math.max(0, valueAfter(dump, start, end, "tb="));
+            }
+            pos = end + 1;
+        }
+        return new Traffic(rx, tx);
+    }
+
+    private static int lineEnd(CharSequence s, int from) {
+        int len = s.length();
+        int i = from;
+        while (i < len && s.charAt(i) != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipSpaces(CharSequence s, int from, int end) {
+        int i = from;
+        while (i < end && Character.isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean startsWith(CharSequence s, int start, int end, String prefix) {
+        if (end - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (s.charAt(start + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(CharSequence s, int start, int end, String needle) {
+        for (int i = start; i <= end - needle.length(); i++) {
+            if (startsWith(s, i, end, needle)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long valueAfter(CharSequence s, int start, int end, String key) {
+        int i = indexOf(s, start, end, key);
+        return i < 0 ? -1 : parseLong(s, i + key.length(), end);
+    }
+
+    /**
+     * Start index of the n-th whitespace-separated field of the line, or -1.
+     */
+    private static int fieldStart(CharSequence s, int start, int end, int field) {
+        int i = skipSpaces(s, start, end);
+        for (int f = 0; f < field; f++) {
+            while (i < end && !Character.isWhitespace(s.charAt(i))) {
+                i++;
+            }
+            i = skipSpaces(s, i, end);
+        }
+        return i < end ? i : -1;
+    }
+
+    private static boolean fieldEquals(CharSequence s, int start, int end, int field, String value) {
+        int i = fieldStart(s, start, end, field);
+        if (i < 0 || !startsWith(s, i, end, value)) {
+            return false;
+        }
+        int after = i + value.length();
+        return after == end || Character.isWhitespace(s.charAt(after));
+    }
+
+    private static long fieldLong(CharSequence s, int start, int end, int field) {
+        int i = fieldStart(s, start, end, field);
+        return i < 0 ? -1 : parseLong(s, i, end);
+    }
+
+    private static long parseLong(CharSequence s, int from, int end) {
+        long value = 0;
+        int i = from;
+        while (i < end && Character.isDigit(s.charAt(i))) {
+            value = value * 10 + (s.charAt(i++) - '0');
+        }
+        return i == from ? -1 : value;
+    }
+
+    // ==================== Data Classes ====================
+
+    public static class Traffic {
+        public String label = "";
+        public final long rxBytes;
+        public final long txBytes;
+        /** False when the app's counters could not be read. */
+        public final boolean available;
+
+        public Traffic(long rxBytes, long txBytes) {
+            this(rxBytes, txBytes, true);
+        }
+
+        private Traffic(long rxBytes, long txBytes, boolean available) {
+            this.rxBytes = rxBytes;
+            this.txBytes = txBytes;
+            this.available = available;
+        }
+
+        public static Traffic unavailable() {
+            return new Traffic(0, 0, false);
+        }
+
+        public long totalBytes() {
+            return rxBytes + txBytes;
+        }
+
+        /**
+         * Difference to an earlier snapshot; counters that went backwards (reset) count from zero.
+         */
+        public Traffic minus(Traffic earlier) {
+            if (!available || !earlier.available) {
+                return unavailable();
+            }
+            return new Traffic(delta(rxBytes, earlier.rxBytes), delta(txBytes, earlier.txBytes));
+        }
+
+        private static long delta(long later, long earlier) {
+            // The counter restarted from zero in between, so everything it holds now is new
+            return later < earlier ? later : later - earlier;
+        }
+
+        /**
+         * Fails if the traffic exceeds the byte budget (pass a negative value to skip a direction)
+         * or could not be measured.
+         */
+        public void assertWithin(long maxRxBytes, long maxTxBytes) {
+            if (!available) {
+                throw new AssertionError("No network traffic counters for " + label + "; cannot check the budget");
+            }
+            if ((maxRxBytes >= 0 && rxBytes > maxRxBytes) || (maxTxBytes >= 0 && txBytes > maxTxBytes)) {
+                throw new AssertionError(String.format("Network budget exceeded for %s: %s (budget rx <= %dB, tx <= %dB)",
+                        label, this, maxRxBytes, maxTxBytes));
+            }
+        }
+
+        @Override
+        public String toString() {
+            if (!available) {
+                return "unavailable";
+            }
+            return String.format("rx=%.1fKB, tx=%.1fKB", rxBytes / 1024.0, txBytes / 1024.0);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.framework.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parser checks for NetworkTrafficMeter against a stored {@code dumpsys netstats detail} dump.
+ * Needs no device: run with {@code mvn test -Dtest=NetworkTrafficMeterTest}.
+ */
+public class NetworkTrafficMeterTest {
+
+    @Test
+    public void testParseNetstatsSumsUntaggedUidRows() throws IOException {
+        NetworkTrafficMeter.Traffic traffic = NetworkTrafficMeter.parseNetstats(resource("testdata/netstats-detail.txt"), 10152);
+
+        // DEFAULT and FOREGROUND sets of uid 10152; uid 101520 and tagged rows excluded
+        Assert.assertEquals(traffic.rxBytes, 204800 + 1024 + 40960, "rx bytes");
+        Assert.assertEquals(traffic.txBytes, 20480 + 512 + 4096, "tx bytes");
+    }
+
+    @Test
+    public void testParseNetstatsUnknownUid() throws IOException {
+        NetworkTrafficMeter.Traffic traffic = NetworkTrafficMeter.parseNetstats(resource("testdata/netstats-detail.txt"), 10999);
+
+        Assert.assertEquals(traffic.totalBytes(), 0, "total bytes");
+    }
+
+    @Test
+    public void testMinusCountsFromZeroAfterCounterReset() {
+        NetworkTrafficMeter.Traffic delta = new NetworkTrafficMeter.Traffic(300, 900)
+                .minus(new NetworkTrafficMeter.Traffic(1000, 400));
+
+        Assert.assertEquals(delta.rxBytes, 300, "rx bytes since the reset");
+        Assert.assertEquals(delta.txBytes, 500, "tx bytes");
+    }
+
+    @Test
+    public void testUnavailableTrafficFailsBudget() {
+        NetworkTrafficMeter.Traffic traffic = NetworkTrafficMeter.Traffic.unavailable()
+                .minus(new NetworkTrafficMeter.Traffic(0, 0));
+
+        Assert.assertFalse(traffic.available, "unavailable after minus");
+        Assert.assertThrows(AssertionError.class, () -> traffic.assertWithin(Long.MAX_VALUE, Long.MAX_VALUE));
+    }
+
+    private static String resource(String path) throws IOException {
+        try (InputStream in = NetworkTrafficMeterTest.class.getClassLoader().getResourceAsStream(path)) {
+            Assert.assertNotNull(in, "Missing test resource " + path);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -29,17 +29,10 @@ public final class NetworkUtils {
         }
 
         try {
-            AndroidDriver driver = DriverManager.getAndroidDriver();
-            Map<String, Object> args = new HashMap<>();
-            args.put("command", "settings");
-            args.put("args", new String[]{"put", "global", "airplane_mode_on", enable ? "1" : "0"});
-            driver.executeScript("mobile: shell", args);
+            DeviceUtils.executeShell("settings", "put", "global", "airplane_mode_on", enable ? "1" : "0");
 
             // Broadcast the change
-            Map<String, Object> broadcastArgs = new HashMap<>();
-            broadcastArgs.put("command", "am");
-            broadcastArgs.put("args", new String[]{"broadcast", "-a", "android.intent.action.AIRPLANE_MODE"});
-            driver.executeScript("mobile: shell", broadcastArgs);
+            DeviceUtils.executeShell("am", "broadcast", "-a", "android.intent.action.AIRPLANE_MODE");
 
             log.info("Airplane mode set to: {}", enable);
         } catch (Exception e) {
@@ -57,11 +50,7 @@ public final class NetworkUtils {
         }
 
         try {
-            AndroidDriver driver = DriverManager.getAndroidDriver();
-            Map<String, Object> args = new HashMap<>();
-            args.put("command", "svc");
-            args.put("args", new String[]{"wifi", enable ? "enable" : "disable"});
-            driver.executeScript("mobile: shell", args);
+            DeviceUtils.executeShell("svc", "wifi", enable ? "enable" : "disable");
             log.info("WiFi set to: {}", enable);
         } catch (Exception e) {
             log.error("Failed to toggle WiFi: {}", e.getMessage());
@@ -78,11 +67,7 @@ public final class NetworkUtils {
         }
 
         try {
-            AndroidDriver driver = DriverManager.getAndroidDriver();
-            Map<String, Object> args = new HashMap<>();
-            args.put("command", "svc");
-            args.put("args", new String[]{"data", enable ? "enable" : "disable"});
-            driver.executeScript("mobile: shell", args);
+            DeviceUtils.executeShell("svc", "data", enable ? "enable" : "disable");
             log.info("Mobile data set to: {}", enable);
         } catch (Exception e) {
             log.error("Failed to toggle mobile data: {}", e.getMessage());
@@ -135,12 +120,7 @@ public final class NetworkUtils {
         }
 
         try {
-            AndroidDriver driver = DriverManager.getAndroidDriver();
-            Map<String, Object> args = new HashMap<>();
-            args.put("command", "ping");
-            args.put("args", new String[]{"-c", "1", "-W", "2", "8.8.8.8"});
-            Object result = driver.executeScript("mobile: shell", args);
-            return result != null && result.toString().contains("1 received");
+            return DeviceUtils.executeShell("ping", "-c", "1", "-W", "2", "8.8.8.8").contains("1 received");
         } catch (Exception e) {
             return false;
         }
@@ -209,13 +189,8 @@ public final class NetworkUtils {
         }
 
         try {
-            AndroidDriver driver = DriverManager.getAndroidDriver();
-            Map<String, Object> args = new HashMap<>();
-            args.put("command", "ip");
-            args.put("args", new String[]{"addr", "show", "wlan0"});
-            Object result = driver.executeScript("mobile: shell", args);
-            if (result != null) {
-                String output = result.toString();
+            String output = DeviceUtils.executeShell("ip", "addr", "show", "wlan0");
+            if (!output.isEmpty()) {
                 // Parse IP from output like "inet 192.168.1.100/24"
                 int inetIndex = output.indexOf("inet ");
                 if (inetIndex >= 0) {
@@ -241,11 +216,7 @@ public final class NetworkUtils {
         }
 
         try {
-            AndroidDriver driver = DriverManager.getAndroidDriver();
-            Map<String, Object> args = new HashMap<>();
-            args.put("command", "am");
-            args.put("args", new String[]{"start", "-a", "android.intent.action.VIEW", "-d", url});
-            driver.executeScript("mobile: shell", args);
+            DeviceUtils.executeShell("am", "start", "-a", "android.intent.action.VIEW", "-d", url);
             log.info("Opened URL in browser: {}", url);
         } catch (Exception e) {
             log.error("Failed to open URL: {}", e.getMessage());
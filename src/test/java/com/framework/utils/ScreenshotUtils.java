@@ -1,6 +1,9 @@
 package com.framework.utils;
 
 import com.framework.base.DriverManager;
+import com.framework.config.Config;
+import com.framework.reporting.jfr.ScreenshotEvent;
+import com.framework.reporting.jfr.TestEvent;
 import io.appium.java_client.AppiumDriver;
 import io.qameta.allure.Allure;
 import org.apache.logging.log4j.LogManager;
@@ -18,8 +21,12 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Screenshot utilities for capturing, saving, and attaching screenshots.
@@ -42,11 +49,17 @@ public final class ScreenshotUtils {
             log.warn("Driver is null, cannot take screenshot");
             return new byte[0];
         }
+        ScreenshotEvent event = new ScreenshotEvent();
+        event.begin();
+        byte[] bytes = new byte[0];
         try {
-            return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            bytes = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            return bytes;
         } catch (Exception e) {
             log.error("Failed to take screenshot: {}", e.getMessage());
-            return new byte[0];
+            return bytes;
+        } finally {
+            commitScreenshotEvent(event, "driver", bytes.length);
         }
     }
 
@@ -221,6 +234,88 @@ public final class ScreenshotUtils {
         return takeScreenshotAsBytes();
     }
 
+    // ==================== Stream Frames ====================
+
+    /**
+     * Returns the current screen as an image. Uses the latest MJPEG frame when one is fresh,
+     * otherwise falls back to a regular screenshot. May be downscaled by the stream settings.
+     */
+    public static BufferedImage captureFrame() {
+        Optional<MjpegStreamClient.Frame> frame = MjpegStreamClient.forCurrentSession()
+                .flatMap(c -> c.freshFrame(Duration.ofMillis(Config.get().mjpegMaxFrameAgeMillis())));
+        if (frame.isPresent()) {
+            ScreenshotEvent event = new ScreenshotEvent();
+            event.begin();
+            BufferedImage image = frame.get().image();
+            commitScreenshotEvent(event, "mjpeg", image == null ? 0 : frame.get().jpeg.length);
+            if (image != null) {
+                return image;
+            }
+        }
+        byte[] screenshot = takeScreenshotAsBytes();
+        if (screenshot.length == 0) {
+            return null;
+        }
+        try {
+            return ImageIO.read(new ByteArrayInputStream(screenshot));
+        } catch (IOException e) {
+            log.error("Failed to decode screenshot: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Captures distinct frames for the given window (e.g. a transition).
+     * Frames come from the MJPEG stream when enabled, otherwise from screenshots.
+     */
+    public static List<byte[]> captureTimeline(Duration window, int maxFrames) {
+        List<byte[]> frames = new ArrayList<>();
+        long deadline = System.nanoTime() + window.toNanos();
+        Optional<MjpegStreamClient> stream = MjpegStreamClient.forCurrentSession();
+        long lastSequence = -1;
+        while (frames.size() < maxFrames && System.nanoTime() < deadline) {
+            if (stream.isPresent()) {
+                Duration remaining = Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+                Optional<MjpegStreamClient.Frame> next = stream.get().awaitFrameAfter(lastSequence, remaining);
+                if (next.isEmpty()) {
+                    break;
+                }
+                lastSequence = next.get().sequence;
+                frames.add(next.get().jpeg);
+            } else {
+                byte[] screenshot = takeScreenshotAsBytes();
+                if (screenshot.length > 0) {
+                    frames.add(screenshot);
+                }
+            }
+        }
+        log.debug("Captured {} timeline frame(s) in {}ms", frames.size(), window.toMillis());
+        return frames;
+    }
+
+    /**
+     * Captures a timeline and attaches each frame to Allure.
+     */
+    public static void attachTimelineToAllure(String name, Duration window, int maxFrames) {
+        boolean streamed = MjpegStreamClient.forCurrentSession().isPresent();
+        List<byte[]> frames = captureTimeline(window, maxFrames);
+        for (int i = 0; i < frames.size(); i++) {
+            Allure.addAttachment(name + " #" + (i + 1), streamed ? "image/jpeg" : "image/png",
+                    new ByteArrayInputStream(frames.get(i)), streamed ? ".jpg" : ".png");
+        }
+    }
+
+    private static void commitScreenshotEvent(ScreenshotEvent event, String source, long bytes) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.testName = TestEvent.currentTestName();
+            event.source = source;
+            event.bytes = bytes;
+            event.outcome = bytes > 0 ? "ok" : "failed";
+            event.commit();
+        }
+    }
+
     /**
      * Gets the screenshot directory path.
      */
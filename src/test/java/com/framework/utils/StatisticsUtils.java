@@ -0,0 +1,200 @@
+package com.framework.utils;
+
+import java.util.Arrays;
+
+/**
+ * Small-sample statistics for benchmark runs: summaries with Student-t confidence intervals,
+ * Welch comparison of two sample sets and linear trend fitting.
+ */
+public final class StatisticsUtils {
+
+    // Two-sided 95% Student-t critical values for 1..30 degrees of freedom
+    private static final double[] T_95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+    private static final double Z_95 = 1.959964;
+
+    private StatisticsUtils() {
+    }
+
+    /**
+     * Summarizes a sample with its 95% confidence interval for the mean.
+     */
+    public static Summary summarize(double[] samples) {
+        Summary s = new Summary();
+        s.count = samples.length;
+        if (samples.length == 0) {
+            return s;
+        }
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        s.min = sorted[0];
+        s.max = sorted[sorted.length - 1];
+        s.median = percentile(sorted, 50);
+        s.p90 = percentile(sorted, 90);
+        s.mean = mean(samples);
+        s.stdDev = stdDev(samples, s.mean);
+        double halfWidth = samples.length > 1 ? tCritical95(samples.length - 1) * s.stdDev / Math.sqrt(samples.length) : 0;
+        s.ciLow = s.mean - halfWidth;
+        s.ciHigh = s.mean + halfWidth;
+        return s;
+    }
+
+    /**
+     * Compares the mean of current against baseline using Welch's t interval for the difference,
+     * which does not assume equal variances. With fewer than two samples on either side there is
+     * no interval, and the comparison is inconclusive.
+     */
+    public static Comparison compare(double[] baseline, double[] current) {
+        Comparison c = new Comparison();
+        c.baseline = summarize(baseline);
+        c.current = summarize(current);
+        c.difference = c.current.mean - c.baseline.mean;
+        c.relativeChangePercent = c.baseline.mean == 0 ? 0 : c.difference * 100.0 / c.baseline.mean;
+        if (baseline.length < 2 || current.length < 2) {
+            c.inconclusive = true;
+            c.ciLow = Double.NEGATIVE_INFINITY;
+            c.ciHigh = Double.POSITIVE_INFINITY;
+            return c;
+        }
+        double vb = c.baseline.stdDev * c.baseline.stdDev / baseline.length;
+        double vc = c.current.stdDev * c.current.stdDev / current.length;
+        double se = Math.sqrt(vb + vc);
+        double df = se == 0 ? baseline.length + current.length - 2
+                : Math.pow(vb + vc, 2) / (vb * vb / (baseline.length - 1) + vc * vc / (current.length - 1));
+        double halfWidth = tCritical95(Math.max(1, (int) Math.floor(df))) * se;
+        c.ciLow = c.difference - halfWidth;
+        c.ciHigh = c.difference + halfWidth;
+        return c;
+    }
+
+    /**
+     * Ordinary least-squares fit of y against x.
+     */
+    public static Regression linearRegression(double[] x, double[] y) {
+        Regression r = new Regression();
+        int n = Math.min(x.length, y.length);
+        if (n < 2) {
+            return r;
+        }
+        double mx = mean(Arrays.copyOf(x, n));
+        double my = mean(Arrays.copyOf(y, n));
+        double sxy = 0;
+        double sxx = 0;
+        double syy = 0;
+        for (int i = 0; i < n; i++) {
+            sxy += (x[i] - mx) * (y[i] - my);
+            sxx += (x[i] - mx) * (x[i] - mx);
+            syy += (y[i] - my) * (y[i] - my);
+        }
+        if (sxx == 0) {
+            return r;
+        }
+        r.slope = sxy / sxx;
+        r.intercept = my - r.slope * mx;
+        r.rSquared = syy == 0 ? 0 : sxy * sxy / (sxx * syy);
+        return r;
+    }
+
+    public static double mean(double[] samples) {
+        double sum = 0;
+        for (double v : samples) {
+            sum += v;
+        }
+        return samples.length == 0 ? 0 : sum / samples.length;
+    }
+
+    /**
+     * Sample (n-1) standard deviation.
+     */
+    public static double stdDev(double[] samples, double mean) {
+        if (samples.length < 2) {
+            return 0;
+        }
+        double sq = 0;
+        for (double v : samples) {
+            sq += (v - mean) * (v - mean);
+        }
+        return Math.sqrt(sq / (samples.length - 1));
+    }
+
+    /**
+     * Linear-interpolated percentile of an already sorted array.
+     */
+    public static double percentile(double[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        double rank = percentile / 100.0 * (sorted.length - 1);
+        int lo = (int) Math.floor(rank);
+        int hi = Math.min(sorted.length - 1, lo + 1);
+        return sorted[lo] + (sorted[hi] - sorted[lo]) * (rank - lo);
+    }
+
+    static double tCritical95(int degreesOfFreedom) {
+        if (degreesOfFreedom <= T_95.length) {
+            return T_95[Math.max(1, degreesOfFreedom) - 1];
+        }
+        // Cornish-Fisher expansion; within 0.1% of the exact value above 30 df
+        double z = Z_95;
+        double df = degreesOfFreedom;
+        return z + (z * z * z + z) / (4 * df) + (5 * Math.pow(z, 5) + 16 * z * z * z + 3 * z) / (96 * df * df);
+    }
+
+    // ==================== Data Classes ====================
+
+    public static class Summary {
+        public int count;
+        public double mean;
+        public double stdDev;
+        public double min;
+        public double max;
+        public double median;
+        public double p90;
+        public double ciLow;
+        public double ciHigh;
+
+        @Override
+        public String toString() {
+            return String.format("mean=%.1f [95%% CI %.1f..%.1f], median=%.1f, p90=%.1f, sd=%.1f, min=%.0f, max=%.0f (n=%d)",
+                    mean, ciLow, ciHigh, median, p90, stdDev, min, max, count);
+        }
+    }
+
+    public static class Regression {
+        public double slope;
+        public double intercept;
+        public double rSquared;
+    }
+
+    public static class Comparison {
+        public Summary baseline;
+        public Summary current;
+        public double difference;
+        public double relativeChangePercent;
+        public double ciLow;
+        public double ciHigh;
+        /** Too few samples for an interval; never significant either way. */
+        public boolean inconclusive;
+
+        /**
+         * True when the whole 95% interval for the difference lies above zero.
+         */
+        public boolean isSignificantIncrease() {
+            return !inconclusive && ciLow > 0;
+        }
+
+        @Override
+        public String toString() {
+            if (inconclusive) {
+                return String.format("%+.1f (%+.1f%%), inconclusive (n=%d vs %d)",
+                        difference, relativeChangePercent, baseline.count, current.count);
+            }
+            return String.format("%+.1f (%+.1f%%), 95%% CI %+.1f..%+.1f%s",
+                    difference, relativeChangePercent, ciLow, ciHigh,
+                    isSignificantIncrease() ? " REGRESSION" : ciHigh < 0 ? " improvement" : " no significant change");
+        }
+    }
+}
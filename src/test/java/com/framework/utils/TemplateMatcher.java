@@ -0,0 +1,285 @@
+package com.framework.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Rectangle;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Local template matching using normalized cross-correlation (NCC).
+ *
+ * Window mean and variance come from integral images, so each position costs one dot product.
+ * The full search runs only on the coarsest level of an image pyramid, in parallel across rows;
+ * the best candidates are then refined level by level in a small neighbourhood.
+ */
+public final class TemplateMatcher {
+
+    private static final Logger log = LogManager.getLogger(TemplateMatcher.class);
+    private static final int MIN_TEMPLATE_SIDE = 24;
+    private static final int MAX_LEVELS = 4;
+    private static final int CANDIDATES = 8;
+    private static final int REFINE_RADIUS = 2;
+
+    private TemplateMatcher() {
+    }
+
+    /**
+     * Finds the best match of the template in the screen image.
+     * @return match bounds in screen image pixels, if the best NCC score reaches the threshold
+     */
+    public static Optional<Match> find(BufferedImage screen, BufferedImage template, double threshold) {
+        if (template.getWidth() > screen.getWidth() || template.getHeight() > screen.getHeight()) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+
+        int levels = 0;
+        int minSide = Math.min(template.getWidth(), template.getHeight());
+        while (levels < MAX_LEVELS && (minSide >> (levels + 1)) >= MIN_TEMPLATE_SIDE) {
+            levels++;
+        }
+
+        Gray[] screens = new Gray[levels + 1];
+        Gray[] templates = new Gray[levels + 1];
+        screens[0] = Gray.of(screen);
+        templates[0] = Gray.of(template);
+        for (int l = 1; l <= levels; l++) {
+            screens[l] = screens[l - 1].halve();
+            templates[l] = templates[l - 1].halve();
+        }
+
+        // Each level's integral images are built once; the last one is full resolution
+        Level level = new Level(screens[levels], templates[levels]);
+        List<int[]> candidates = coarseSearch(level);
+        double bestScore = -1;
+        int bestX = 0;
+        int bestY = 0;
+        for (int l = levels - 1; l >= 0; l--) {
+            level = new Level(screens[l], templates[l]);
+            List<int[]> refined = new ArrayList<>(candidates.size());
+            for (int[] c : candidates) {
+                refined.add(level.refine(c[0] * 2, c[1] * 2));
+            }
+            candidates = refined;
+        }
+        Level full = level;
+        for (int[] c : candidates) {
+            double score = full.score(c[0], c[1]);
+            if (score > bestScore) {
+                bestScore = score;
+                bestX = c[0];
+                bestY = c[1];
+            }
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        log.debug("Template {}x{} matched in {}x{} at ({}, {}) score={} in {}ms ({} pyramid levels)",
+                template.getWidth(), template.getHeight(), screen.getWidth(), screen.getHeight(),
+                bestX, bestY, String.format("%.3f", bestScore), elapsedMs, levels);
+
+        if (bestScore < threshold) {
+            return Optional.empty();
+        }
+        Match match = new Match();
+        match.bounds = new Rectangle(bestX, bestY, template.getHeight(), template.getWidth());
+        match.score = bestScore;
+        match.durationMs = elapsedMs;
+        return Optional.of(match);
+    }
+
+    private static List<int[]> coarseSearch(Level level) {
+        Gray screen = level.screen;
+        Gray template = level.template;
+        int cols = screen.width - template.width + 1;
+        int rows = screen.height - template.height + 1;
+        float[] scores = new float[cols * rows];
+        IntStream.range(0, rows).parallel().forEach(y -> {
+            for (int x = 0; x < cols; x++) {
+                scores[y * cols + x] = (float) level.score(x, y);
+            }
+        });
+
+        // Top candidates with simple non-maximum suppression
+        List<int[]> picked = new ArrayList<>(CANDIDATES);
+        int minDistance = Math.max(1, Math.min(template.width, template.height) / 2);
+        boolean[] suppressed = new boolean[scores.length];
+        for (int k = 0; k < CANDIDATES; k++) {
+            int best = -1;
+            for (int i = 0; i < scores.length; i++) {
+                if (!suppressed[i] && (best < 0 || scores[i] > scores[best])) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            int bx = best % cols;
+            int by = best / cols;
+            picked.add(new int[]{bx, by});
+            for (int y = Math.max(0, by - minDistance); y <= Math.min(rows - 1, by + minDistance); y++) {
+                for (int x = Math.max(0, bx - minDistance); x <= Math.min(cols - 1, bx + minDistance); x++) {
+                    suppressed[y * cols + x] = true;
+                }
+            }
+        }
+        return picked;
+    }
+
+    // ==================== Internals ====================
+
+    /**
+     * Grayscale image as a flat luminance array.
+     */
+    private static final class Gray {
+        final int width;
+        final int height;
+        final float[] px;
+
+        Gray(int width, int height, float[] px) {
+            this.width = width;
+            this.height = height;
+            this.px = px;
+        }
+
+        static Gray of(BufferedImage image) {
+            int w = image.getWidth();
+            int h = image.getHeight();
+            int[] argb = image.getRGB(0, 0, w, h, null, 0, w);
+            float[] px = new float[w * h];
+            for (int i = 0; i < px.length; i++) {
+                int rgb = argb[i];
+                px[i] = 0.299f * ((rgb >> 16) & 0xff) + 0.587f * ((rgb >> 8) & 0xff) + 0.114f * (rgb & 0xff);
+            }
+            return new Gray(w, h, px);
+        }
+
+        Gray halve() {
+            int w = width / 2;
+            int h = height / 2;
+            float[] out = new float[w * h];
+            for (int y = 0; y < h; y++) {
+                int r0 = (2 * y) * width;
+                int r1 = r0 + width;
+                for (int x = 0; x < w; x++) {
+                    int c = 2 * x;
+                    out[y * w + x] = (px[r0 + c] + px[r0 + c + 1] + px[r1 + c] + px[r1 + c + 1]) * 0.25f;
+                }
+            }
+            return new Gray(w, h, out);
+        }
+    }
+
+    /**
+     * One pyramid level: screen integral images plus the zero-mean template.
+     */
+    private static final class Level {
+        private final Gray screen;
+        private final Gray template;
+        private final double[] sum;
+        private final double[] sumSq;
+        private final float[] templateZeroMean;
+        private final double templateNorm;
+        private final int stride;
+
+        Level(Gray screen, Gray template) {
+            this.screen = screen;
+            this.template = template;
+            this.stride = screen.width + 1;
+            this.sum = new double[stride * (screen.height + 1)];
+            this.sumSq = new double[stride * (screen.height + 1)];
+            for (int y = 0; y < screen.height; y++) {
+                double rowSum = 0;
+                double rowSq = 0;
+                for (int x = 0; x < screen.width; x++) {
+                    double v = screen.px[y * screen.width + x];
+                    rowSum += v;
+                    rowSq += v * v;
+                    sum[(y + 1) * stride + x + 1] = sum[y * stride + x + 1] + rowSum;
+                    sumSq[(y + 1) * stride + x + 1] = sumSq[y * stride + x + 1] + rowSq;
+                }
+            }
+
+            double mean = 0;
+            for (float v : template.px) {
+                mean += v;
+            }
+            mean /= template.px.length;
+            templateZeroMean = new float[template.px.length];
+            double norm = 0;
+            for (int i = 0; i < template.px.length; i++) {
+                float d = (float) (template.px[i] - mean);
+                templateZeroMean[i] = d;
+                norm += d * d;
+            }
+            templateNorm = Math.sqrt(norm);
+        }
+
+        double score(int x, int y) {
+            if (templateNorm == 0) {
+                return 0;
+            }
+            int tw = template.width;
+            int th = template.height;
+            double n = tw * (double) th;
+            double s = window(sum, x, y, tw, th);
+            double sq = window(sumSq, x, y, tw, th);
+            double variance = sq - s * s / n;
+            if (variance <= 1e-6) {
+                return 0;
+            }
+            // sum(t') == 0, so the screen mean drops out of the numerator
+            double dot = 0;
+            for (int j = 0; j < th; j++) {
+                int row = (y + j) * screen.width + x;
+                int trow = j * tw;
+                for (int i = 0; i < tw; i++) {
+                    dot += screen.px[row + i] * templateZeroMean[trow + i];
+                }
+            }
+            return dot / (Math.sqrt(variance) * templateNorm);
+        }
+
+        int[] refine(int cx, int cy) {
+            int maxX = screen.width - template.width;
+            int maxY = screen.height - template.height;
+            double best = -2;
+            int bx = Math.min(cx, maxX);
+            int by = Math.min(cy, maxY);
+            for (int y = Math.max(0, cy - REFINE_RADIUS); y <= Math.min(maxY, cy + REFINE_RADIUS); y++) {
+                for (int x = Math.max(0, cx - REFINE_RADIUS); x <= Math.min(maxX, cx + REFINE_RADIUS); x++) {
+                    double s = score(x, y);
+                    if (s > best) {
+                        best = s;
+                        bx = x;
+                        by = y;
+                    }
+                }
+            }
+            return new int[]{bx, by};
+        }
+
+        private double window(double[] table, int x, int y, int w, int h) {
+            return table[(y + h) * stride + x + w] - table[y * stride + x + w]
+                    - table[(y + h) * stride + x] + table[y * stride + x];
+        }
+    }
+
+    // ==================== Data Classes ====================
+
+    public static class Match {
+        public Rectangle bounds;
+        public double score;
+        public long durationMs;
+
+        @Override
+        public String toString() {
+            return String.format("Match{x=%d, y=%d, w=%d, h=%d, score=%.3f, %dms}",
+                    bounds.getX(), bounds.getY(), bounds.getWidth(), bounds.getHeight(), score, durationMs);
+        }
+    }
+}
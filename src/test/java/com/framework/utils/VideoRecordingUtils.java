@@ -1,36 +1,83 @@
 package com.framework.utils;
 
 import com.framework.base.DriverManager;
+import com.framework.config.Config;
+import com.framework.reporting.PerformanceMetrics;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.android.AndroidStartScreenRecordingOptions;
 import io.appium.java_client.android.AndroidStopScreenRecordingOptions;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.FileOutputStream;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Video recording utilities for test execution.
+ *
+ * Two modes are supported, both tracked per driver session so several devices can record at once:
+ * - One-off recordings via {@link #startRecording(String)} / {@link #stopRecording()}.
+ * - Continuous recording in rotating segments kept in a bounded on-disk ring. Segments that
+ *   overlap a test are copied out only when that test fails.
  */
 public final class VideoRecordingUtils {
 
     private static final Logger log = LogManager.getLogger(VideoRecordingUtils.class);
     private static final String VIDEO_DIR = "target/videos";
+    private static final String RING_DIR = "ring";
+    private static final String FAILURES_DIR = "failures";
     private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final int STOP_READ_TIMEOUT_MS = 120_000;
 
-    private static boolean isRecording = false;
-    private static String currentRecordingName;
+    // One-off recordings: sessionId -> recording name
+    private static final Map<String, String> activeRecordings = new ConcurrentHashMap<>();
+    // Continuous segment recorders: sessionId -> recorder
+    private static final Map<String, SegmentRecorder> recorders = new ConcurrentHashMap<>();
+
+    private static final ScheduledExecutorService rotationScheduler = Executors.newScheduledThreadPool(2, r -> {
+        Thread t = new Thread(r, "video-segment-rotation");
+        t.setDaemon(true);
+        return t;
+    });
 
     private VideoRecordingUtils() {
     }
 
+    // ==================== One-off Recording ====================
+
     /**
      * Starts screen recording on Android device.
      */
@@ -47,22 +94,17 @@ public final class VideoRecordingUtils {
             return;
         }
 
-        if (isRecording) {
-            log.warn("Recording already in progress");
-            return;
-        }
-
         try {
             AndroidDriver driver = DriverManager.getAndroidDriver();
+            String sessionId = sessionKey(driver);
 
-            AndroidStartScreenRecordingOptions options = new AndroidStartScreenRecordingOptions()
-                    .withTimeLimit(Duration.ofMinutes(5))
-                    .withVideoSize("1280x720")
-                    .withBitRate(3000000);
+            if (activeRecordings.containsKey(sessionId) || recorders.containsKey(sessionId)) {
+                log.warn("Recording already in progress for session {}", sessionId);
+                return;
+            }
 
-            driver.startRecordingScreen(options);
-            isRecording = true;
-            currentRecordingName = name;
+            driver.startRecordingScreen(recordingOptions(Duration.ofMinutes(Config.get().videoMaxDurationMinutes())));
+            activeRecordings.put(sessionId, name);
 
             log.info("Screen recording started: {}", name);
 
@@ -80,29 +122,27 @@ public final class VideoRecordingUtils {
             return null;
         }
 
-        if (!isRecording) {
+        AndroidDriver driver = DriverManager.getAndroidDriver();
+        String name = activeRecordings.remove(sessionKey(driver));
+        if (name == null) {
             log.warn("No recording in progress");
             return null;
         }
 
         try {
-            AndroidDriver driver = DriverManager.getAndroidDriver();
-
-            String base64Video = driver.stopRecordingScreen(
-                    new AndroidStopScreenRecordingOptions());
+            Path videoPath = getVideoDirectory().resolve(name + ".mp4");
 
-            isRecording = false;
+            HeapPeakProbe probe = HeapPeakProbe.start();
+            long bytes = streamStopRecording(driver, videoPath);
+            long peakBytes = probe.peakIncreaseBytes();
 
-            // Decode and save video
-            byte[] videoBytes = Base64.getDecoder().decode(base64Video);
-            Path videoPath = saveVideo(videoBytes, currentRecordingName);
-
-            log.info("Screen recording stopped and saved: {}", videoPath);
+            PerformanceMetrics.recordHeapPeak("video_save_" + name, peakBytes);
+            log.info("Screen recording stopped and saved: {} ({} KB, peak heap +{} KB)",
+                    videoPath, bytes / 1024, peakBytes / 1024);
             return videoPath;
 
         } catch (Exception e) {
             log.error("Failed to stop screen recording: {}", e.getMessage());
-            isRecording = false;
             return null;
         }
     }
@@ -111,61 +151,171 @@ public final class VideoRecordingUtils {
      * Stops recording and saves with custom name.
      */
     public static Path stopRecording(String name) {
-        currentRecordingName = name;
+        if (DriverManager.isAndroid()) {
+            activeRecordings.computeIfPresent(sessionKey(DriverManager.getAndroidDriver()), (k, v) -> name);
+        }
         return stopRecording();
     }
 
     /**
-     * Checks if recording is in progress.
+     * Checks if recording is in progress for the current session.
      */
     public static boolean isRecording() {
-        return isRecording;
+        if (!DriverManager.isAndroid()) {
+            return false;
+        }
+        String sessionId = sessionKey(DriverManager.getAndroidDriver());
+        return activeRecordings.containsKey(sessionId) || recorders.containsKey(sessionId);
     }
 
     /**
      * Stops recording if in progress (cleanup method).
      */
     public static void stopIfRecording() {
-        if (isRecording) {
+        if (DriverManager.isAndroid() && activeRecordings.containsKey(sessionKey(DriverManager.getAndroidDriver()))) {
             stopRecording();
         }
     }
 
+    // ==================== Per-test Segment Recording ====================
+
     /**
-     * Starts recording for a test.
+     * Starts continuous segment recording for the current session if needed and marks the test start.
      */
     public static void startTestRecording(String testName) {
-        String sanitizedName = testName.replaceAll("[^a-zA-Z0-9_-]", "_");
-        startRecording("test_" + sanitizedName + "_" + LocalDateTime.now().format(TIMESTAMP_FORMAT));
+        if (!DriverManager.isAndroid()) {
+            return;
+        }
+        long begin = System.nanoTime();
+        try {
+            AndroidDriver driver = DriverManager.getAndroidDriver();
+            SegmentRecorder recorder = recorders.computeIfAbsent(sessionKey(driver),
+                    id -> new SegmentRecorder(driver, id));
+            recorder.ensureStarted();
+            recorder.markTestStart(sanitize(testName), System.nanoTime() - begin);
+        } catch (Exception e) {
+            log.error("Failed to start test recording: {}", e.getMessage());
+        }
     }
 
     /**
-     * Stops recording for a test.
+     * Ends the test window. On failure the overlapping segments are copied out of the ring.
+     * @return directory holding the failed test's segments, or null if the test passed or nothing was kept
      */
     public static Path stopTestRecording(String testName, boolean passed) {
-        String status = passed ? "passed" : "failed";
-        String sanitizedName = testName.replaceAll("[^a-zA-Z0-9_-]", "_");
-        currentRecordingName = "test_" + sanitizedName + "_" + status;
-        return stopRecording();
+        if (!DriverManager.isAndroid()) {
+            return null;
+        }
+        SegmentRecorder recorder = recorders.get(sessionKey(DriverManager.getAndroidDriver()));
+        if (recorder == null) {
+            return null;
+        }
+        try {
+            return recorder.finishTest(sanitize(testName), passed);
+        } catch (Exception e) {
+            log.error("Failed to finish test recording: {}", e.getMessage());
+            return null;
+        }
     }
 
-    private static Path saveVideo(byte[] videoBytes, String name) {
-        try {
-            Path videoDir = Paths.get(VIDEO_DIR);
-            Files.createDirectories(videoDir);
+    /**
+     * Stops continuous recording for the current session and clears its ring buffer, e.g. before
+     * the session is replaced.
+     */
+    public static void stopRecordingForCurrentSession() {
+        AndroidDriver driver = DriverManager.getAndroidDriver();
+        SegmentRecorder recorder = driver == null ? null : recorders.remove(sessionKey(driver));
+        if (recorder != null) {
+            recorder.shutdown();
+        }
+    }
+
+    /**
+     * Stops continuous recording for every session and clears the ring buffers.
+     */
+    public static void stopAllRecordings() {
+        for (SegmentRecorder recorder : recorders.values()) {
+            recorder.shutdown();
+        }
+        recorders.clear();
+    }
+
+    private static AndroidStartScreenRecordingOptions recordingOptions(Duration timeLimit) {
+        return new AndroidStartScreenRecordingOptions()
+                .withTimeLimit(timeLimit)
+                .withVideoSize("1280x720")
+                .withBitRate(3000000);
+    }
+
+    private static String sessionKey(AndroidDriver driver) {
+        return String.valueOf(driver.getSessionId());
+    }
 
-            String fileName = name + ".mp4";
-            Path videoPath = videoDir.resolve(fileName);
+    private static String sanitize(String name) {
+        return name.replaceAll("[^a-zA-Z0-9_-]", "_");
+    }
 
-            try (FileOutputStream fos = new FileOutputStream(videoPath.toFile())) {
-                fos.write(videoBytes);
+    /**
+     * Stops the recording through the Appium endpoint and streams the base64 payload to disk.
+     * The JSON response is decoded incrementally, so the video is never held in memory.
+     * Falls back to the driver API when the endpoint cannot be reached or rejects the request.
+     */
+    private static long streamStopRecording(AndroidDriver driver, Path target) throws IOException {
+        HttpURLConnection conn = null;
+        try {
+            URL endpoint = new URL(driver.getRemoteAddress() + "/session/" + driver.getSessionId()
+                    + "/appium/stop_recording_screen");
+            conn = (HttpURLConnection) endpoint.openConnection();
+            conn.setRequestMethod("POST");
+            conn.setDoOutput(true);
+            conn.setConnectTimeout(10_000);
+            conn.setReadTimeout(STOP_READ_TIMEOUT_MS);
+            conn.setRequestProperty("Content-Type", "application/json; charset=utf-8");
+            try (OutputStream os = conn.getOutputStream()) {
+                os.write("{}".getBytes(StandardCharsets.UTF_8));
             }
+        } catch (IOException e) {
+            log.warn("Streaming stop endpoint unavailable ({}); using driver API", e.getMessage());
+            if (conn != null) {
+                conn.disconnect();
+            }
+            return stopViaDriver(driver, target);
+        }
 
-            return videoPath;
+        try {
+            int code = conn.getResponseCode();
+            if (code >= 400) {
+                // e.g. a /wd/hub base path or a grid that requires auth; the recording is still running
+                log.warn("Streaming stop endpoint returned HTTP {}; using driver API", code);
+                return stopViaDriver(driver, target);
+            }
+            try (InputStream body = new BufferedInputStream(conn.getInputStream(), STREAM_BUFFER_SIZE)) {
+                return decodeToFile(new JsonStringValueStream(body, "value"), target);
+            }
+        } finally {
+            conn.disconnect();
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to save video: {}", e.getMessage());
-            return null;
+    private static long stopViaDriver(AndroidDriver driver, Path target) throws IOException {
+        String base64Video = driver.stopRecordingScreen(new AndroidStopScreenRecordingOptions());
+        try (InputStream in = new ByteArrayInputStream(base64Video.getBytes(StandardCharsets.US_ASCII))) {
+            return decodeToFile(in, target);
+        }
+    }
+
+    private static long decodeToFile(InputStream base64, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try (InputStream decoded = Base64.getMimeDecoder().wrap(base64);
+             ReadableByteChannel source = Channels.newChannel(decoded);
+             FileChannel sink = FileChannel.open(target, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = sink.transferFrom(source, position, STREAM_BUFFER_SIZE)) > 0) {
+                position += transferred;
+            }
+            return position;
         }
     }
 
@@ -216,5 +366,299 @@ public final class VideoRecordingUtils {
             log.error("Failed to cleanup videos: {}", e.getMessage());
         }
     }
-}
 
+    /**
+     * Exposes the characters of one JSON string property as a byte stream, unescaping on the fly.
+     * Only the bytes of that value are ever buffered.
+     */
+    static final class JsonStringValueStream extends InputStream {
+        private final InputStream in;
+        private final String property;
+        private boolean positioned;
+        private boolean finished;
+
+        JsonStringValueStream(InputStream in, String property) {
+            this.in = in;
+            this.property = property;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!positioned) {
+                seekToValue();
+            }
+            while (!finished) {
+                int c = in.read();
+                if (c == -1) {
+                    throw new IOException("Unterminated JSON string for '" + property + "'");
+                }
+                if (c == '"') {
+                    finished = true;
+                    break;
+                }
+                if (c != '\\') {
+                    return c;
+                }
+                int escaped = in.read();
+                switch (escaped) {
+                    case '/':
+                    case '\\':
+                    case '"':
+                        return escaped;
+                    case 'u':
+                        // Never part of base64 payloads; skip the four hex digits
+                        in.skipNBytes(4);
+                        break;
+                    default:
+                        // \n, \r, \t etc. are line-wrapping noise in base64 payloads
+                        break;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            int count = 0;
+            while (count < len) {
+                int c = read();
+                if (c == -1) break;
+                b[off + count++] = (byte) c;
+            }
+            return count == 0 ? -1 : count;
+        }
+
+        private void seekToValue() throws IOException {
+            byte[] key = ("\"" + property + "\"").getBytes(StandardCharsets.US_ASCII);
+            int matched = 0;
+            int c;
+            while ((c = in.read()) != -1) {
+                matched = c == key[matched] ? matched + 1 : (c == key[0] ? 1 : 0);
+                if (matched == key.length) {
+                    break;
+                }
+            }
+            if (c == -1) {
+                throw new IOException("Property '" + property + "' not found in response");
+            }
+            while ((c = in.read()) != -1 && c != '"') {
+                if (c != ':' && !Character.isWhitespace(c)) {
+                    throw new IOException("Property '" + property + "' is not a string");
+                }
+            }
+            if (c == -1) {
+                throw new IOException("Property '" + property + "' has no value");
+            }
+            positioned = true;
+        }
+    }
+
+    /**
+     * Measures how far heap usage peaks above its starting level while an operation runs.
+     */
+    static final class HeapPeakProbe {
+        private final long usedAtStart;
+
+        private HeapPeakProbe(long usedAtStart) {
+            this.usedAtStart = usedAtStart;
+        }
+
+        static HeapPeakProbe start() {
+            long used = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                    pool.resetPeakUsage();
+                    used += pool.getUsage().getUsed();
+                }
+            }
+            return new HeapPeakProbe(used);
+        }
+
+        long peakIncreaseBytes() {
+            long peak = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                    peak += pool.getPeakUsage().getUsed();
+                }
+            }
+            return Math.max(0, peak - usedAtStart);
+        }
+    }
+
+    /**
+     * Records one session in fixed-length segments and keeps the newest ones in a ring directory.
+     * Rotation leaves a short gap (the stop/start round trip) between consecutive segments.
+     */
+    private static final class SegmentRecorder {
+        private final AndroidDriver driver;
+        private final String sessionId;
+        private final Path ringDir;
+        private final int segmentSeconds;
+        private final int maxSegments;
+        private final Deque<Segment> ring = new ArrayDeque<>();
+        private final Map<String, TestWindow> activeTests = new ConcurrentHashMap<>();
+        private final LongAdder rotationOverheadNanos = new LongAdder();
+        private ScheduledFuture<?> rotation;
+        private long currentSegmentStart;
+        private int nextIndex;
+        private boolean recording;
+
+        SegmentRecorder(AndroidDriver driver, String sessionId) {
+            this.driver = driver;
+            this.sessionId = sessionId;
+            this.ringDir = getVideoDirectory().resolve(RING_DIR).resolve(sanitize(sessionId));
+            this.segmentSeconds = Math.max(5, Config.get().videoSegmentSeconds());
+            this.maxSegments = Math.max(2, Config.get().videoRingMaxSegments());
+        }
+
+        synchronized void ensureStarted() throws IOException {
+            if (recording) {
+                return;
+            }
+            Files.createDirectories(ringDir);
+            startSegment();
+            rotation = rotationScheduler.scheduleAtFixedRate(this::rotateSafely,
+                    segmentSeconds, segmentSeconds, TimeUnit.SECONDS);
+            log.info("Continuous recording started for session {} ({}s segments, ring of {})",
+                    sessionId, segmentSeconds, maxSegments);
+        }
+
+        void markTestStart(String testName, long setupNanos) {
+            activeTests.put(testName, new TestWindow(System.currentTimeMillis(),
+                    rotationOverheadNanos.sum(), setupNanos));
+        }
+
+        Path finishTest(String testName, boolean passed) throws IOException {
+            TestWindow window = activeTests.remove(testName);
+            if (window == null) {
+                return null;
+            }
+            long begin = System.nanoTime();
+            Path kept = null;
+            if (!passed) {
+                List<Segment> overlapping;
+                synchronized (this) {
+                    // Close the running segment so the moment of failure is on disk
+                    rotate();
+                    overlapping = new ArrayList<>();
+                    for (Segment segment : ring) {
+                        if (segment.endMillis >= window.startMillis) {
+                            overlapping.add(segment);
+                        }
+                    }
+                }
+                kept = persist(testName, overlapping);
+            }
+            long overheadNanos = (rotationOverheadNanos.sum() - window.rotationNanosAtStart)
+                    + window.setupNanos + (System.nanoTime() - begin);
+            PerformanceMetrics.recordActionTime("video_overhead_" + testName,
+                    TimeUnit.NANOSECONDS.toMillis(overheadNanos));
+            return kept;
+        }
+
+        synchronized void shutdown() {
+            if (rotation != null) {
+                rotation.cancel(false);
+            }
+            if (recording) {
+                try {
+                    driver.stopRecordingScreen(new AndroidStopScreenRecordingOptions());
+                } catch (Exception e) {
+                    log.debug("Failed to stop segment recording: {}", e.getMessage());
+                }
+                recording = false;
+            }
+            while (!ring.isEmpty()) {
+                deleteQuietly(ring.removeFirst().path);
+            }
+            deleteQuietly(ringDir);
+        }
+
+        private void rotateSafely() {
+            try {
+                synchronized (this) {
+                    rotate();
+                }
+            } catch (Exception e) {
+                log.warn("Segment rotation failed for session {}: {}", sessionId, e.getMessage());
+            }
+        }
+
+        private void rotate() throws IOException {
+            if (!recording) {
+                return;
+            }
+            long begin = System.nanoTime();
+            try {
+                Path target = ringDir.resolve(String.format("segment_%05d.mp4", nextIndex++));
+                streamStopRecording(driver, target);
+                recording = false;
+                ring.addLast(new Segment(target, currentSegmentStart, System.currentTimeMillis()));
+                while (ring.size() > maxSegments) {
+                    deleteQuietly(ring.removeFirst().path);
+                }
+                startSegment();
+            } finally {
+                rotationOverheadNanos.add(System.nanoTime() - begin);
+            }
+        }
+
+        private void startSegment() {
+            // Device-side limit slightly above the rotation period in case rotation stalls
+            driver.startRecordingScreen(recordingOptions(Duration.ofSeconds(segmentSeconds + 30L)));
+            currentSegmentStart = System.currentTimeMillis();
+            recording = true;
+        }
+
+        private Path persist(String testName, List<Segment> segments) throws IOException {
+            if (segments.isEmpty()) {
+                log.warn("No video segments available for failed test {}", testName);
+                return null;
+            }
+            Path dir = getVideoDirectory().resolve(FAILURES_DIR)
+                    .resolve(testName + "_" + LocalDateTime.now().format(TIMESTAMP_FORMAT));
+            Files.createDirectories(dir);
+            for (Segment segment : segments) {
+                if (Files.exists(segment.path)) {
+                    Files.copy(segment.path, dir.resolve(segment.path.getFileName()),
+                            StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            log.info("Kept {} video segment(s) for failed test {}: {}", segments.size(), testName, dir);
+            return dir;
+        }
+
+        private static void deleteQuietly(Path path) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.debug("Failed to delete {}: {}", path, e.getMessage());
+            }
+        }
+    }
+
+    private static final class Segment {
+        final Path path;
+        final long startMillis;
+        final long endMillis;
+
+        Segment(Path path, long startMillis, long endMillis) {
+            this.path = path;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+    }
+
+    private static final class TestWindow {
+        final long startMillis;
+        final long rotationNanosAtStart;
+        final long setupNanos;
+
+        TestWindow(long startMillis, long rotationNanosAtStart, long setupNanos) {
+            this.startMillis = startMillis;
+            this.rotationNanosAtStart = rotationNanosAtStart;
+            this.setupNanos = setupNanos;
+        }
+    }
+}
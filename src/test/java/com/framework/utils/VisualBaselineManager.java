@@ -0,0 +1,469 @@
+package com.framework.utils;
+
+import com.framework.config.Config;
+import com.framework.reporting.PerformanceMetrics;
+import io.qameta.allure.Allure;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Rectangle;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Visual regression baselines with masked regions and tile-based diffing.
+ * <p>
+ * Baselines are keyed by page class, device model and resolution. Next to every baseline
+ * PNG a small tile index stores one hash per tile, so a comparison only hashes the current
+ * screenshot and decodes the baseline image when at least one tile hash differs.
+ */
+public final class VisualBaselineManager {
+
+    private static final Logger log = LogManager.getLogger(VisualBaselineManager.class);
+    private static final String DIFF_DIR = "target/visual-diffs";
+    private static final int INDEX_MAGIC = 0x56544931; // "VTI1"
+    private static final int QUANTIZE_MASK = 0xFCFCFC;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final Map<Path, TileIndex> indexCache = new ConcurrentHashMap<>();
+
+    private VisualBaselineManager() {
+    }
+
+    /**
+     * Compares the current screen against the baseline for the given page.
+     */
+    public static Result verify(Class<?> pageClass, List<Rectangle> masks) {
+        byte[] screenshot = ScreenshotUtils.takeScreenshotAsBytes();
+        if (screenshot.length == 0) {
+            throw new IllegalStateException("Cannot verify visual baseline: screenshot is empty");
+        }
+        return verify(pageClass, DeviceUtils.getModel(), screenshot, masks);
+    }
+
+    /**
+     * Compares a screenshot against the baseline for the given page and device model.
+     */
+    public static Result verify(Class<?> pageClass, String deviceModel, byte[] screenshot, List<Rectangle> masks) {
+        long start = System.nanoTime();
+        BufferedImage current = decode(screenshot);
+        if (current == null) {
+            throw new IllegalStateException("Cannot verify visual baseline: screenshot could not be decoded");
+        }
+
+        Config cfg = Config.get();
+        int tileSize = cfg.visualTileSize();
+        int width = current.getWidth();
+        int height = current.getHeight();
+        String key = baselineKey(pageClass, deviceModel, width, height);
+        Path baselinePath = Paths.get(cfg.visualBaselineDir(), key + ".png");
+        Path indexPath = Paths.get(cfg.visualBaselineDir(), key + ".tiles");
+
+        List<Rectangle> safeMasks = masks == null ? Collections.emptyList() : masks;
+        long maskHash = maskHash(safeMasks);
+        int[] currentPixels = maskedPixels(current, safeMasks);
+
+        Result result;
+        if (cfg.visualUpdateBaselines() || !Files.exists(baselinePath)) {
+            saveBaseline(baselinePath, indexPath, current, currentPixels, tileSize, maskHash);
+            result = new Result(key, Status.NEW_BASELINE, Collections.emptyList(), tileCount(width, height, tileSize));
+            log.info("Visual baseline recorded: {}", baselinePath);
+        } else {
+            long[] currentHashes = tileHashes(currentPixels, width, height, tileSize);
+            TileIndex index = loadIndex(baselinePath, indexPath, width, height, tileSize, safeMasks, maskHash);
+
+            List<Integer> changedTiles = new ArrayList<>();
+            for (int i = 0; i < currentHashes.length; i++) {
+                if (currentHashes[i] != index.hashes[i]) {
+                    changedTiles.add(i);
+                }
+            }
+
+            List<TileDiff> failing = changedTiles.isEmpty()
+                    ? Collections.emptyList()
+                    : diffTiles(baselinePath, current, currentPixels, safeMasks, changedTiles, tileSize);
+
+            result = new Result(key, failing.isEmpty() ? Status.MATCH : Status.MISMATCH,
+                    failing, currentHashes.length);
+            if (!failing.isEmpty()) {
+                reportFailingTiles(key, failing);
+            }
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        result.durationMs = elapsedMs;
+        PerformanceMetrics.recordActionTime("visual_compare_" + pageClass.getSimpleName(), elapsedMs);
+        log.info("Visual check '{}': {} ({} of {} tiles failing, {}ms)",
+                key, result.status, result.failingTiles.size(), result.totalTiles, elapsedMs);
+        return result;
+    }
+
+    /**
+     * Builds the baseline key: PageClass/model_WIDTHxHEIGHT.
+     */
+    public static String baselineKey(Class<?> pageClass, String deviceModel, int width, int height) {
+        String model = deviceModel == null || deviceModel.isBlank() ? "unknown" : deviceModel;
+        return pageClass.getSimpleName() + "/" + sanitize(model) + "_" + width + "x" + height;
+    }
+
+    /**
+     * Drops cached tile indexes (e.g. after baselines were replaced on disk).
+     */
+    public static void clearCache() {
+        indexCache.clear();
+    }
+
+    // ==================== Tile Hashing ====================
+
+    private static int[] maskedPixels(BufferedImage image, List<Rectangle> masks) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        for (Rectangle mask : masks) {
+            int x0 = Math.max(0, mask.getX());
+            int y0 = Math.max(0, mask.getY());
+            int x1 = Math.min(width, mask.getX() + mask.getWidth());
+            int y1 = Math.min(height, mask.getY() + mask.getHeight());
+            for (int y = y0; y < y1; y++) {
+                int row = y * width;
+                for (int x = x0; x < x1; x++) {
+                    pixels[row + x] = 0;
+                }
+            }
+        }
+        return pixels;
+    }
+
+    private static long[] tileHashes(int[] pixels, int width, int height, int tileSize) {
+        int tilesX = (width + tileSize - 1) / tileSize;
+        int tilesY = (height + tileSize - 1) / tileSize;
+        long[] hashes = new long[tilesX * tilesY];
+        Arrays.fill(hashes, FNV_OFFSET);
+
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            int tileRow = (y / tileSize) * tilesX;
+            for (int tx = 0; tx < tilesX; tx++) {
+                long h = hashes[tileRow + tx];
+                int xEnd = Math.min(width, (tx + 1) * tileSize);
+                for (int x = tx * tileSize; x < xEnd; x++) {
+                    // Dropping the two low bits per channel absorbs encoder noise
+                    h = (h ^ (pixels[row + x] & QUANTIZE_MASK)) * FNV_PRIME;
+                }
+                hashes[tileRow + tx] = h;
+            }
+        }
+        return hashes;
+    }
+
+    private static int tileCount(int width, int height, int tileSize) {
+        return ((width + tileSize - 1) / tileSize) * ((height + tileSize - 1) / tileSize);
+    }
+
+    private static long maskHash(List<Rectangle> masks) {
+        long h = FNV_OFFSET;
+        for (Rectangle m : masks) {
+            h = (h ^ m.getX()) * FNV_PRIME;
+            h = (h ^ m.getY()) * FNV_PRIME;
+            h = (h ^ m.getWidth()) * FNV_PRIME;
+            h = (h ^ m.getHeight()) * FNV_PRIME;
+        }
+        return h;
+    }
+
+    // ==================== Tile Diffing ====================
+
+    private static List<TileDiff> diffTiles(Path baselinePath, BufferedImage current, int[] currentPixels,
+                                            List<Rectangle> masks, List<Integer> tiles, int tileSize) {
+        BufferedImage baseline = readImage(baselinePath);
+        int width = current.getWidth();
+        int height = current.getHeight();
+        if (baseline == null || baseline.getWidth() != width || baseline.getHeight() != height) {
+            throw new IllegalStateException("Visual baseline is unreadable or has a different size: " + baselinePath);
+        }
+        int[] baselinePixels = maskedPixels(baseline, masks);
+
+        Config cfg = Config.get();
+        int pixelTolerance = cfg.visualPixelTolerance();
+        double tileTolerance = cfg.visualTileTolerancePercent();
+        int tilesX = (width + tileSize - 1) / tileSize;
+
+        List<TileDiff> failing = new ArrayList<>();
+        for (int tile : tiles) {
+            int x0 = (tile % tilesX) * tileSize;
+            int y0 = (tile / tilesX) * tileSize;
+            int x1 = Math.min(width, x0 + tileSize);
+            int y1 = Math.min(height, y0 + tileSize);
+
+            int differing = 0;
+            for (int y = y0; y < y1; y++) {
+                int row = y * width;
+                for (int x = x0; x < x1; x++) {
+                    if (!pixelsMatch(baselinePixels[row + x], currentPixels[row + x], pixelTolerance)) {
+                        differing++;
+                    }
+                }
+            }
+
+            double percent = differing * 100.0 / ((x1 - x0) * (y1 - y0));
+            if (percent > tileTolerance) {
+                Rectangle bounds = new Rectangle(x0, y0, y1 - y0, x1 - x0);
+                failing.add(new TileDiff(tile, bounds, percent,
+                        baseline.getSubimage(x0, y0, x1 - x0, y1 - y0),
+                        current.getSubimage(x0, y0, x1 - x0, y1 - y0)));
+            }
+        }
+        return failing;
+    }
+
+    private static boolean pixelsMatch(int a, int b, int tolerance) {
+        if (a == b) return true;
+        return Math.abs(((a >> 16) & 0xff) - ((b >> 16) & 0xff)) <= tolerance
+                && Math.abs(((a >> 8) & 0xff) - ((b >> 8) & 0xff)) <= tolerance
+                && Math.abs((a & 0xff) - (b & 0xff)) <= tolerance;
+    }
+
+    private static void reportFailingTiles(String key, List<TileDiff> failing) {
+        Path diffDir = Paths.get(DIFF_DIR, key);
+        try {
+            Files.createDirectories(diffDir);
+        } catch (IOException e) {
+            log.error("Failed to create visual diff directory: {}", e.getMessage());
+        }
+
+        for (TileDiff diff : failing) {
+            byte[] png = encode(sideBySide(diff));
+            String name = String.format("tile_%d_%d", diff.bounds.getX(), diff.bounds.getY());
+            Allure.addAttachment("visual-diff " + key + " " + name + String.format(" (%.1f%%)", diff.differingPercent),
+                    "image/png", new ByteArrayInputStream(png), ".png");
+            try {
+                Files.write(diffDir.resolve(name + ".png"), png);
+            } catch (IOException e) {
+                log.warn("Failed to store visual diff tile {}: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    // Baseline | current | red highlight of differing pixels
+    private static BufferedImage sideBySide(TileDiff diff) {
+        int w = diff.baseline.getWidth();
+        int h = diff.baseline.getHeight();
+        BufferedImage out = new BufferedImage(w * 3 + 4, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setColor(Color.DARK_GRAY);
+            g.fillRect(0, 0, out.getWidth(), h);
+            g.drawImage(diff.baseline, 0, 0, null);
+            g.drawImage(diff.actual, w + 2, 0, null);
+        } finally {
+            g.dispose();
+        }
+        int tolerance = Config.get().visualPixelTolerance();
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int a = diff.baseline.getRGB(x, y);
+                int b = diff.actual.getRGB(x, y);
+                out.setRGB(2 * w + 4 + x, y, pixelsMatch(a, b, tolerance) ? (b >> 2) & 0x3F3F3F : 0xFF0000);
+            }
+        }
+        return out;
+    }
+
+    // ==================== Baseline Storage ====================
+
+    private static void saveBaseline(Path baselinePath, Path indexPath, BufferedImage image, int[] maskedPixels,
+                                     int tileSize, long maskHash) {
+        try {
+            Files.createDirectories(baselinePath.getParent());
+            ImageIO.write(image, "png", baselinePath.toFile());
+            TileIndex index = new TileIndex(image.getWidth(), image.getHeight(), tileSize, maskHash,
+                    tileHashes(maskedPixels, image.getWidth(), image.getHeight(), tileSize));
+            writeIndex(indexPath, index);
+            indexCache.put(indexPath, index);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to save visual baseline " + baselinePath, e);
+        }
+    }
+
+    private static TileIndex loadIndex(Path baselinePath, Path indexPath, int width, int height, int tileSize,
+                                       List<Rectangle> masks, long maskHash) {
+        TileIndex index = indexCache.get(indexPath);
+        if (index == null && Files.exists(indexPath)) {
+            index = readIndex(indexPath);
+        }
+        if (index == null || !index.matches(width, height, tileSize, maskHash)) {
+            // Missing or stale index (different masks or tile size): rebuild it once from the baseline image
+            BufferedImage baseline = readImage(baselinePath);
+            if (baseline == null || baseline.getWidth() != width || baseline.getHeight() != height) {
+                throw new IllegalStateException("Visual baseline is unreadable or has a different size: " + baselinePath);
+            }
+            index = new TileIndex(width, height, tileSize, maskHash,
+                    tileHashes(maskedPixels(baseline, masks), width, height, tileSize));
+            try {
+                writeIndex(indexPath, index);
+            } catch (IOException e) {
+                log.warn("Failed to write tile index {}: {}", indexPath, e.getMessage());
+            }
+        }
+        indexCache.put(indexPath, index);
+        return index;
+    }
+
+    private static void writeIndex(Path path, TileIndex index) throws IOException {
+        try (OutputStream os = Files.newOutputStream(path);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(index.width);
+            out.writeInt(index.height);
+            out.writeInt(index.tileSize);
+            out.writeLong(index.maskHash);
+            out.writeInt(index.hashes.length);
+            for (long h : index.hashes) {
+                out.writeLong(h);
+            }
+        }
+    }
+
+    private static TileIndex readIndex(Path path) {
+        try (InputStream is = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(is))) {
+            if (in.readInt() != INDEX_MAGIC) {
+                return null;
+            }
+            int width = in.readInt();
+            int height = in.readInt();
+            int tileSize = in.readInt();
+            long maskHash = in.readLong();
+            long[] hashes = new long[in.readInt()];
+            for (int i = 0; i < hashes.length; i++) {
+                hashes[i] = in.readLong();
+            }
+            return new TileIndex(width, height, tileSize, maskHash, hashes);
+        } catch (IOException e) {
+            log.warn("Failed to read tile index {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private static BufferedImage readImage(Path path) {
+        try {
+            return ImageIO.read(path.toFile());
+        } catch (IOException e) {
+            log.error("Failed to read image {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private static BufferedImage decode(byte[] png) {
+        try {
+            return ImageIO.read(new ByteArrayInputStream(png));
+        } catch (IOException e) {
+            log.error("Failed to decode screenshot: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static byte[] encode(BufferedImage image) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            log.error("Failed to encode image: {}", e.getMessage());
+            return new byte[0];
+        }
+    }
+
+    private static String sanitize(String value) {
+        return value.trim().replaceAll("[^a-zA-Z0-9_-]", "_");
+    }
+
+    // ==================== Data Classes ====================
+
+    public enum Status {
+        MATCH, MISMATCH, NEW_BASELINE
+    }
+
+    public static class Result {
+        public final String key;
+        public final Status status;
+        public final List<TileDiff> failingTiles;
+        public final int totalTiles;
+        public long durationMs;
+
+        Result(String key, Status status, List<TileDiff> failingTiles, int totalTiles) {
+            this.key = key;
+            this.status = status;
+            this.failingTiles = failingTiles;
+            this.totalTiles = totalTiles;
+        }
+
+        public boolean isMatch() {
+            return status != Status.MISMATCH;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %s (%d/%d tiles failing)", key, status, failingTiles.size(), totalTiles);
+        }
+    }
+
+    public static class TileDiff {
+        public final int tileIndex;
+        public final Rectangle bounds;
+        public final double differingPercent;
+        final BufferedImage baseline;
+        final BufferedImage actual;
+
+        TileDiff(int tileIndex, Rectangle bounds, double differingPercent,
+                 BufferedImage baseline, BufferedImage actual) {
+            this.tileIndex = tileIndex;
+            this.bounds = bounds;
+            this.differingPercent = differingPercent;
+            this.baseline = baseline;
+            this.actual = actual;
+        }
+    }
+
+    private static class TileIndex {
+        final int width;
+        final int height;
+        final int tileSize;
+        final long maskHash;
+        final long[] hashes;
+
+        TileIndex(int width, int height, int tileSize, long maskHash, long[] hashes) {
+            this.width = width;
+            this.height = height;
+            this.tileSize = tileSize;
+            this.maskHash = maskHash;
+            this.hashes = hashes;
+        }
+
+        boolean matches(int width, int height, int tileSize, long maskHash) {
+            return this.width == width && this.height == height
+                    && this.tileSize == tileSize && this.maskHash == maskHash;
+        }
+    }
+}
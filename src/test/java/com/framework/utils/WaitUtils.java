@@ -1,17 +1,25 @@
 package com.framework.utils;
 
 import com.framework.base.DriverManager;
+import com.framework.config.Config;
+import com.framework.reporting.SpanTracer;
+import com.framework.reporting.jfr.TestEvent;
+import com.framework.reporting.jfr.WaitEvent;
 import io.appium.java_client.AppiumDriver;
 import org.openqa.selenium.By;
 import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.Rectangle;
 import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.FluentWait;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.awt.image.BufferedImage;
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -24,6 +32,9 @@ public final class WaitUtils {
     private static final int DEFAULT_POLL_MS = 250;
     private static final int SHORT_TIMEOUT = 5;
     private static final int LONG_TIMEOUT = 30;
+    private static final int SIGNATURE_GRID = 16;
+    // Mean absolute luminance difference per grid cell that counts as a visible change
+    private static final double REGION_CHANGE_THRESHOLD = 3.0;
 
     private WaitUtils() {
     }
@@ -68,27 +79,29 @@ public final class WaitUtils {
      * Wait until a custom condition is true.
      */
     public static <T> T waitUntil(ExpectedCondition<T> condition) {
-        return defaultWait().until(condition);
+        return tracedWait("condition " + condition, Duration.ofSeconds(DEFAULT_TIMEOUT),
+                timeout -> defaultWait().withTimeout(timeout).until(condition));
     }
 
     /**
      * Wait until a custom condition is true with timeout.
      */
     public static <T> T waitUntil(ExpectedCondition<T> condition, int timeoutSeconds) {
-        return waitFor(timeoutSeconds).until(condition);
+        return tracedWait("condition " + condition, Duration.ofSeconds(timeoutSeconds),
+                timeout -> waitFor(timeoutSeconds).withTimeout(timeout).until(condition));
     }
 
     /**
      * Wait for page to load completely (DOM ready state).
      */
     public static void waitForPageLoad() {
-        waitFor(LONG_TIMEOUT).until(driver -> {
+        tracedWait("page load", Duration.ofSeconds(LONG_TIMEOUT), timeout -> waitFor(LONG_TIMEOUT).withTimeout(timeout).until(driver -> {
             try {
                 return ((AppiumDriver) driver).getPageSource() != null;
             } catch (Exception e) {
                 return false;
             }
-        });
+        }));
     }
 
     /**
@@ -187,7 +200,8 @@ public final class WaitUtils {
      * Wait with polling using custom function.
      */
     public static <T> T waitWithPolling(Function<AppiumDriver, T> condition, int timeoutSeconds, int pollingMillis) {
-        return fluentWait(timeoutSeconds, pollingMillis).until(condition);
+        return tracedWait("polling " + condition, Duration.ofSeconds(timeoutSeconds),
+                timeout -> fluentWait(timeoutSeconds, pollingMillis).withTimeout(timeout).until(condition));
     }
 
     /**
@@ -261,9 +275,167 @@ public final class WaitUtils {
      * Fluent wait with custom message for better debugging.
      */
     public static <T> T waitWithMessage(ExpectedCondition<T> condition, int timeoutSeconds, String message) {
-        return fluentWait(timeoutSeconds, DEFAULT_POLL_MS)
+        return tracedWait(message, Duration.ofSeconds(timeoutSeconds), timeout -> fluentWait(timeoutSeconds, DEFAULT_POLL_MS)
+                .withTimeout(timeout)
                 .withMessage(message)
-                .until(condition);
+                .until(condition));
     }
-}
 
+    /**
+     * Central wait instrumentation: runs a wait inside a WAIT span and a JFR WaitEvent.
+     * The wait is cut short with a CrashWatcher.AppCrashException if the app crashes meanwhile.
+     * Interruptions are only looked for once the whole wait has failed; prefer the overload
+     * taking the timeout, which looks early.
+     */
+    public static <T> T tracedWait(String description, Supplier<T> wait) {
+        return traced(description, () -> InterruptionHandlers.guard(description, () -> CrashWatcher.guardWait(wait)));
+    }
+
+    /**
+     * Same as {@link #tracedWait(String, Supplier)} for a wait that can be run with any timeout:
+     * a short first attempt is followed by a check for interruptions, and the rest of the timeout
+     * is spent after that, so a dialog in the way does not cost the full timeout.
+     * @param wait runs the wait with the given timeout
+     */
+    public static <T> T tracedWait(String description, Duration timeout, Function<Duration, T> wait) {
+        return traced(description, () -> InterruptionHandlers.guardWait(description, timeout,
+                t -> CrashWatcher.guardWait(() -> wait.apply(t))));
+    }
+
+    private static <T> T traced(String description, Supplier<T> wait) {
+        WaitEvent event = new WaitEvent();
+        event.begin();
+        String outcome = "error";
+        try (SpanTracer.Scope ignored = SpanTracer.begin(SpanTracer.Category.WAIT, description)) {
+            T result = wait.get();
+            outcome = "satisfied";
+            return result;
+        } catch (TimeoutException e) {
+            outcome = "timeout";
+            throw e;
+        } catch (CrashWatcher.AppCrashException e) {
+            outcome = "app crash";
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.testName = TestEvent.currentTestName();
+                event.condition = description;
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    // ==================== Visual Waits ====================
+
+    /**
+     * Waits until the given screen region visibly changes from its current content.
+     */
+    public static boolean waitForRegionChange(Rectangle region, int timeoutSeconds) {
+        BufferedImage first = ScreenshotUtils.captureFrame();
+        if (first == null) {
+            return false;
+        }
+        double scale = frameScale(first);
+        int[] reference = regionSignature(first, region, scale);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (System.nanoTime() < deadline) {
+            nextFramePause();
+            BufferedImage frame = ScreenshotUtils.captureFrame();
+            if (frame != null && signatureDistance(reference, regionSignature(frame, region, scale)) > REGION_CHANGE_THRESHOLD) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Waits until the given screen region stops changing for the given period (animations settled).
+     */
+    public static boolean waitForRegionStable(Rectangle region, Duration stableFor, int timeoutSeconds) {
+        BufferedImage first = ScreenshotUtils.captureFrame();
+        if (first == null) {
+            return false;
+        }
+        double scale = frameScale(first);
+        int[] previous = regionSignature(first, region, scale);
+        long stableSince = System.nanoTime();
+        long deadline = stableSince + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (System.nanoTime() < deadline) {
+            nextFramePause();
+            BufferedImage frame = ScreenshotUtils.captureFrame();
+            if (frame == null) {
+                continue;
+            }
+            int[] current = regionSignature(frame, region, scale);
+            if (signatureDistance(previous, current) > REGION_CHANGE_THRESHOLD) {
+                previous = current;
+                stableSince = System.nanoTime();
+            } else if (System.nanoTime() - stableSince >= stableFor.toNanos()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void nextFramePause() {
+        // Stream frames arrive every ~1/fps; screenshots are slow enough on their own
+        if (MjpegStreamClient.forCurrentSession().isPresent()) {
+            hardWait(Math.max(10, 1000 / Math.max(1, Config.get().mjpegFramerate())));
+        }
+    }
+
+    private static double frameScale(BufferedImage frame) {
+        // Stream frames may be downscaled; regions are given in device pixels
+        int screenWidth = DriverManager.getDriver().manage().window().getSize().getWidth();
+        return screenWidth > 0 ? frame.getWidth() / (double) screenWidth : 1.0;
+    }
+
+    /**
+     * Mean luminance of a fixed grid of cells over the region, robust to JPEG noise.
+     */
+    private static int[] regionSignature(BufferedImage image, Rectangle region, double scale) {
+        int x0 = clamp((int) (region.getX() * scale), image.getWidth() - 1);
+        int y0 = clamp((int) (region.getY() * scale), image.getHeight() - 1);
+        int w = Math.max(1, Math.min((int) (region.getWidth() * scale), image.getWidth() - x0));
+        int h = Math.max(1, Math.min((int) (region.getHeight() * scale), image.getHeight() - y0));
+        int cellsX = Math.min(SIGNATURE_GRID, w);
+        int cellsY = Math.min(SIGNATURE_GRID, h);
+        int[] signature = new int[cellsX * cellsY];
+        for (int cy = 0; cy < cellsY; cy++) {
+            int ys = y0 + cy * h / cellsY;
+            int ye = y0 + (cy + 1) * h / cellsY;
+            for (int cx = 0; cx < cellsX; cx++) {
+                int xs = x0 + cx * w / cellsX;
+                int xe = x0 + (cx + 1) * w / cellsX;
+                long sum = 0;
+                int n = 0;
+                for (int y = ys; y < ye; y++) {
+                    for (int x = xs; x < xe; x++) {
+                        int rgb = image.getRGB(x, y);
+                        sum += (((rgb >> 16) & 0xff) * 299 + ((rgb >> 8) & 0xff) * 587 + (rgb & 0xff) * 114) / 1000;
+                        n++;
+                    }
+                }
+                signature[cy * cellsX + cx] = n == 0 ? 0 : (int) (sum / n);
+            }
+        }
+        return signature;
+    }
+
+    private static double signatureDistance(int[] a, int[] b) {
+        if (a.length != b.length) {
+            return Double.MAX_VALUE;
+        }
+        long total = 0;
+        for (int i = 0; i < a.length; i++) {
+            total += Math.abs(a[i] - b[i]);
+        }
+        return total / (double) a.length;
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(value, max));
+    }
+}